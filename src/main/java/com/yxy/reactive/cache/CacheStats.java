@@ -0,0 +1,55 @@
+package com.yxy.reactive.cache;
+
+import lombok.Getter;
+
+/**
+ * {@link ReactiveCache}的统计快照
+ * Created by Nuclear on 2026/10/17
+ */
+@Getter
+public class CacheStats {
+
+    //命中, 包括合并到正在进行的加载上的请求
+    private final long hitCount;
+    private final long missCount;
+    //loader的调用次数 = 成功 + 失败, 包括后台刷新
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    //因容量淘汰的条数, 过期和失败不算
+    private final long evictionCount;
+
+    public CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount,
+                      long totalLoadTimeNanos, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.evictionCount = evictionCount;
+    }
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long loadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    public double averageLoadPenaltyNanos() {
+        long loads = loadCount();
+        return loads == 0 ? 0 : (double) totalLoadTimeNanos / loads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats{hits=%d, misses=%d, hitRate=%.4f, loads=%d, loadFailures=%d, avgLoadMillis=%.3f, evictions=%d}",
+                hitCount, missCount, hitRate(), loadCount(), loadFailureCount, averageLoadPenaltyNanos() / 1_000_000, evictionCount);
+    }
+}
@@ -0,0 +1,73 @@
+package com.yxy.reactive.cache;
+
+/**
+ * 计数最小草图(count-min sketch), 估算每个key最近的访问频率, 用于TinyLFU的准入判断
+ * <p>
+ * 4行计数器, 每行用不同的种子哈希, 估计值取4行的最小值. 计数器最大15,
+ * 累计增加次数达到{@link #sampleSize}时所有计数器减半, 让频率随时间衰减. 非线程安全, 由调用方加锁
+ * Created by Nuclear on 2026/10/17
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {0x97cb3127L, 0xab3ed6a1L, 0x5e1a4f97L, 0xc2b2ae3dL};
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        //每个条目每行2个计数器, 降低冲突
+        int width = Integer.highestOneBit(Math.max(maximumSize, 16) * 2 - 1) << 1;
+        this.table = new byte[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(maximumSize, 16) * 10;
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table[i][index(hash, i)]);
+        }
+        return min;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = index(hash, i);
+            if (table[i][index] < MAX_COUNT) {
+                table[i][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>= 1;
+            }
+        }
+        additions >>>= 1;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,364 @@
+package com.yxy.reactive.cache;
+
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 异步加载的缓存, 值以Mono的形式返回
+ * <ul>
+ * <li>合并加载(single-flight): 同一个key的并发未命中共享同一次加载, loader只调用一次. 加载在第一个订阅者订阅时开始</li>
+ * <li>expireAfterWrite: 写入超过这个时间后失效, 下一次get重新加载</li>
+ * <li>refreshAfterWrite: 写入超过这个时间后的第一次get触发后台刷新, 刷新期间继续返回旧值</li>
+ * <li>容量淘汰: W-TinyLFU. 新条目先进1%的窗口LRU, 从窗口淘汰出来的候选者与主区(SLRU)的淘汰者比较访问频率,
+ * 频率高的留下. 频率由{@link FrequencySketch}估算, 一次性的扫描不会把热点数据挤出去</li>
+ * </ul>
+ * 加载失败或者结果为空时不缓存. 淘汰策略的数据结构由一把锁保护, 读操作拿不到锁时跳过这次访问记录(有损, 不阻塞)
+ * Created by Nuclear on 2026/10/17
+ */
+@Log4j2
+public class ReactiveCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int DEAD = 3;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final long maximumSize;
+    private final long expireNanos;
+    private final long refreshNanos;
+    private final LongSupplier ticker;
+
+    //淘汰策略, 只在持有evictionLock时访问
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<K, Node<K, V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<K, V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<K, V>> protect = new LinkedHashMap<>(16, 0.75f, true);
+    private final long windowMax;
+    private final long protectedMax;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ReactiveCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.expireNanos = builder.expireAfterWrite == null ? 0 : builder.expireAfterWrite.toNanos();
+        this.refreshNanos = builder.refreshAfterWrite == null ? 0 : builder.refreshAfterWrite.toNanos();
+        this.ticker = builder.ticker;
+        this.sketch = new FrequencySketch((int) Math.min(maximumSize, 1 << 24));
+        this.windowMax = Math.max(1, maximumSize / 100);
+        this.protectedMax = (maximumSize - windowMax) * 4 / 5;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 从缓存取值, 未命中或者已过期时用loader加载
+     */
+    public Mono<V> get(K key, Function<? super K, ? extends Mono<? extends V>> loader) {
+        Objects.requireNonNull(key, "key");
+        Node<K, V> node = data.get(key);
+        long now = ticker.getAsLong();
+        if (node != null && node.isExpired(now, expireNanos)) {
+            remove(node);
+            node = null;
+        }
+        if (node == null) {
+            //load只是组装Mono, 订阅时才会调用loader
+            Node<K, V> created = new Node<>(key);
+            created.value = load(created, loader);
+            node = data.computeIfAbsent(key, k -> created);
+            if (node == created) {
+                misses.increment();
+                afterWrite(created);
+                return created.value;
+            }
+        }
+        hits.increment();
+        afterRead(node);
+        Mono<V> value = node.value;
+        if (refreshNanos > 0 && node.isStale(now, refreshNanos) && node.refreshing.compareAndSet(false, true)) {
+            refresh(node, loader);
+        }
+        return value;
+    }
+
+    /**
+     * 已经加载完成的值, 不触发加载. 还在加载(或者还没有人订阅加载)的key返回空
+     */
+    public Mono<V> getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        //先读writeNanos: 加载完成时先写value再写writeNanos, 这里读到的value一定是Mono.just
+        if (node == null || node.writeNanos == 0 || node.isExpired(ticker.getAsLong(), expireNanos)) {
+            misses.increment();
+            return Mono.empty();
+        }
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    public void invalidate(K key) {
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    public void invalidateAll() {
+        data.values().forEach(this::remove);
+    }
+
+    /**
+     * 当前条数, 包括正在加载的
+     */
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), loadTime.sum(), evictions.sum());
+    }
+
+    private Mono<V> load(Node<K, V> node, Function<? super K, ? extends Mono<? extends V>> loader) {
+        return Mono.defer(() -> {
+            long start = ticker.getAsLong();
+            return Mono.<V>from(loader.apply(node.key))
+                    .doOnSuccess(value -> {
+                        recordLoad(start, true);
+                        if (value == null) {
+                            remove(node);
+                        } else {
+                            //之后的命中直接返回Mono.just, 不再经过cache操作符
+                            node.value = Mono.just(value);
+                            node.writeNanos = Math.max(ticker.getAsLong(), 1);
+                        }
+                    })
+                    .doOnError(e -> {
+                        recordLoad(start, false);
+                        remove(node);
+                    });
+        }).cache();
+    }
+
+    private void refresh(Node<K, V> node, Function<? super K, ? extends Mono<? extends V>> loader) {
+        long start = ticker.getAsLong();
+        Mono.<V>from(loader.apply(node.key)).subscribe(value -> {
+            recordLoad(start, true);
+            node.value = Mono.just(value);
+            node.writeNanos = Math.max(ticker.getAsLong(), 1);
+            node.refreshing.set(false);
+        }, e -> {
+            recordLoad(start, false);
+            log.warn("refresh of {} failed, keep the old value", node.key, e);
+            node.refreshing.set(false);
+        }, () -> node.refreshing.set(false));
+    }
+
+    private void recordLoad(long start, boolean success) {
+        loadTime.add(ticker.getAsLong() - start);
+        (success ? loadSuccesses : loadFailures).increment();
+    }
+
+    private void remove(Node<K, V> node) {
+        if (data.remove(node.key, node)) {
+            evictionLock.lock();
+            try {
+                unlink(node);
+                node.queue = DEAD;
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterRead(Node<K, V> node) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.key);
+            switch (node.queue) {
+                case WINDOW:
+                    window.get(node.key);
+                    break;
+                case PROBATION:
+                    //再次访问, 晋升到保护区
+                    probation.remove(node.key);
+                    node.queue = PROTECTED;
+                    protect.put(node.key, node);
+                    demoteProtected();
+                    break;
+                case PROTECTED:
+                    protect.get(node.key);
+                    break;
+                default:
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void afterWrite(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            if (node.queue == DEAD || data.get(node.key) != node) {
+                return;
+            }
+            sketch.increment(node.key);
+            node.queue = WINDOW;
+            window.put(node.key, node);
+            evict();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    //窗口满了之后, 窗口最老的条目与主区最老的条目比较频率, 输的被淘汰
+    private void evict() {
+        while (window.size() > windowMax) {
+            Node<K, V> candidate = removeEldest(window);
+            if (window.size() + probation.size() + protect.size() < maximumSize) {
+                candidate.queue = PROBATION;
+                probation.put(candidate.key, candidate);
+                continue;
+            }
+            if (probation.isEmpty() && protect.isEmpty()) {
+                evict(candidate);
+                continue;
+            }
+            LinkedHashMap<K, Node<K, V>> victims = probation.isEmpty() ? protect : probation;
+            Node<K, V> victim = victims.values().iterator().next();
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                victims.remove(victim.key);
+                evict(victim);
+                candidate.queue = PROBATION;
+                probation.put(candidate.key, candidate);
+            } else {
+                evict(candidate);
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        node.queue = DEAD;
+        if (data.remove(node.key, node)) {
+            evictions.increment();
+        }
+    }
+
+    private void demoteProtected() {
+        while (protect.size() > protectedMax) {
+            Node<K, V> demoted = removeEldest(protect);
+            demoted.queue = PROBATION;
+            probation.put(demoted.key, demoted);
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node.key, node);
+                break;
+            case PROBATION:
+                probation.remove(node.key, node);
+                break;
+            case PROTECTED:
+                protect.remove(node.key, node);
+                break;
+            default:
+        }
+    }
+
+    private static <K, V> Node<K, V> removeEldest(LinkedHashMap<K, Node<K, V>> queue) {
+        Iterator<Node<K, V>> iterator = queue.values().iterator();
+        Node<K, V> eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile Mono<V> value;
+        //加载完成的时间, 0表示还在加载
+        volatile long writeNanos;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        //所在的队列, 只在持有evictionLock时访问
+        int queue = -1;
+
+        Node(K key) {
+            this.key = key;
+        }
+
+        boolean isExpired(long now, long expireNanos) {
+            long written = writeNanos;
+            return expireNanos > 0 && written != 0 && now - written >= expireNanos;
+        }
+
+        boolean isStale(long now, long refreshNanos) {
+            long written = writeNanos;
+            return written != 0 && now - written >= refreshNanos;
+        }
+    }
+
+    public static final class Builder {
+        private long maximumSize = 10_000;
+        private Duration expireAfterWrite;
+        private Duration refreshAfterWrite;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {
+        }
+
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder expireAfterWrite(Duration duration) {
+            this.expireAfterWrite = duration;
+            return this;
+        }
+
+        public Builder refreshAfterWrite(Duration duration) {
+            this.refreshAfterWrite = duration;
+            return this;
+        }
+
+        /**
+         * 纳秒时钟, 测试时可以替换
+         */
+        public Builder ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public <K, V> ReactiveCache<K, V> build() {
+            if (expireAfterWrite != null && refreshAfterWrite != null && refreshAfterWrite.compareTo(expireAfterWrite) >= 0) {
+                throw new IllegalArgumentException("refreshAfterWrite must be shorter than expireAfterWrite");
+            }
+            return new ReactiveCache<>(this);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.yxy.reactive.codec;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 把DataBuffer流按'\n'切成行, 用于NDJSON
+ * <p>
+ * 完整落在一个chunk里的行是原chunk的retainedSlice, 不复制字节;
+ * 只有跨chunk的行才会用factory.join拼起来. 行尾的'\r'和空行会被去掉.
+ * 上游每次只预取一个chunk, 下游不请求时不会有更多chunk排队.
+ * 下游拿到的每个DataBuffer都需要自己release
+ * Created by Nuclear on 2026/10/17
+ */
+public final class LineSplitter {
+
+    //一行最大的字节数, 与spring codec默认的maxInMemorySize一致
+    public static final int DEFAULT_MAX_LINE_LENGTH = 256 * 1024;
+
+    private LineSplitter() {
+    }
+
+    public static Flux<DataBuffer> split(Flux<DataBuffer> input) {
+        return split(input, DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    public static Flux<DataBuffer> split(Flux<DataBuffer> input, int maxLineLength) {
+        return Flux.defer(() -> {
+            State state = new State(maxLineLength);
+            //默认预取256个chunk, 会让请求体在这里堆积
+            return input.concatMapIterable(state::lines, 1)
+                    .concatWith(Mono.fromSupplier(state::flush))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> state.release());
+        });
+    }
+
+    private static final class State {
+        private final int maxLineLength;
+        //上一个chunk末尾不完整的行
+        private final List<DataBuffer> partial = new ArrayList<>();
+        private int partialLength;
+
+        State(int maxLineLength) {
+            this.maxLineLength = maxLineLength;
+        }
+
+        List<DataBuffer> lines(DataBuffer chunk) {
+            List<DataBuffer> lines = null;
+            try {
+                int start = chunk.readPosition();
+                int end = chunk.writePosition();
+                while (start < end) {
+                    int newline = chunk.indexOf(b -> b == '\n', start);
+                    if (newline < 0 || newline >= end) {
+                        break;
+                    }
+                    DataBuffer line = line(chunk, start, newline);
+                    if (line != null) {
+                        if (lines == null) {
+                            lines = new ArrayList<>();
+                        }
+                        lines.add(line);
+                    }
+                    start = newline + 1;
+                }
+                if (start < end) {
+                    append(chunk.retainedSlice(start, end - start));
+                }
+            } catch (RuntimeException e) {
+                if (lines != null) {
+                    lines.forEach(DataBufferUtils::release);
+                }
+                throw e;
+            } finally {
+                DataBufferUtils.release(chunk);
+            }
+            return lines == null ? Collections.emptyList() : lines;
+        }
+
+        //[start, newline) 加上之前残留的部分, 去掉'\r', 空行返回null
+        private DataBuffer line(DataBuffer chunk, int start, int newline) {
+            int end = newline;
+            if (end > start && chunk.getByte(end - 1) == '\r') {
+                end--;
+            }
+            if (partial.isEmpty()) {
+                return end > start ? chunk.retainedSlice(start, end - start) : null;
+            }
+            if (end > start) {
+                append(chunk.retainedSlice(start, end - start));
+            }
+            DataBuffer line = join();
+            //'\r'恰好是上一个chunk的最后一个字节
+            if (end == start && line.readableByteCount() > 0 && line.getByte(line.writePosition() - 1) == '\r') {
+                line.writePosition(line.writePosition() - 1);
+            }
+            if (line.readableByteCount() == 0) {
+                DataBufferUtils.release(line);
+                return null;
+            }
+            return line;
+        }
+
+        private void append(DataBuffer slice) {
+            partialLength += slice.readableByteCount();
+            partial.add(slice);
+            if (partialLength > maxLineLength) {
+                release();
+                throw new DataBufferLimitException("line exceeds the limit of " + maxLineLength + " bytes");
+            }
+        }
+
+        private DataBuffer join() {
+            DataBuffer line = partial.size() == 1 ? partial.get(0) : partial.get(0).factory().join(partial);
+            partial.clear();
+            partialLength = 0;
+            return line;
+        }
+
+        //流结束时最后一行可能没有换行符
+        DataBuffer flush() {
+            if (partial.isEmpty()) {
+                return null;
+            }
+            DataBuffer line = join();
+            if (line.readableByteCount() > 0 && line.getByte(line.writePosition() - 1) == '\r') {
+                line.writePosition(line.writePosition() - 1);
+            }
+            if (line.readableByteCount() == 0) {
+                DataBufferUtils.release(line);
+                return null;
+            }
+            return line;
+        }
+
+        void release() {
+            partial.forEach(DataBufferUtils::release);
+            partial.clear();
+            partialLength = 0;
+        }
+    }
+}
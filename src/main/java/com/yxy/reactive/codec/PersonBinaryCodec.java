@@ -0,0 +1,259 @@
+package com.yxy.reactive.codec;
+
+import com.yxy.reactive.model.Person;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Person的二进制编解码, 不走反射也不写类描述, 用来代替java.io.Serializable
+ * <p>
+ * 一条记录的格式:
+ * <pre>
+ * +---------+-----+------+
+ * | version | sex | name |
+ * +---------+-----+------+
+ *   1 byte   1 byte  string
+ * </pre>
+ * sex是一个字节的编码: 0 null, 1 Male, 2 Female, 3 其他值(后面紧跟一个string).
+ * string为 varint(UTF-8字节数 + 1) + UTF-8字节, 长度为0表示null.
+ * Created by Nuclear on 2026/10/17
+ */
+public final class PersonBinaryCodec {
+
+    public static final byte VERSION = 1;
+
+    public static final String MALE = "Male";
+    public static final String FEMALE = "Female";
+
+    private static final byte SEX_NULL = 0;
+    private static final byte SEX_MALE = 1;
+    private static final byte SEX_FEMALE = 2;
+    private static final byte SEX_OTHER = 3;
+
+    //direct buffer解码字符串时的临时数组
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private PersonBinaryCodec() {
+    }
+
+    /**
+     * 编码后的字节数
+     */
+    public static int encodedSize(Person person) {
+        int size = 2 + stringSize(person.getName());
+        if (sexCode(person.getSex()) == SEX_OTHER) {
+            size += stringSize(person.getSex());
+        }
+        return size;
+    }
+
+    /**
+     * 写入buffer的当前位置
+     *
+     * @throws BufferOverflowException 剩余空间不足时抛出, 此时buffer不会被修改
+     */
+    public static void write(Person person, ByteBuffer buffer) {
+        if (buffer.remaining() < encodedSize(person)) {
+            throw new BufferOverflowException();
+        }
+        byte sex = sexCode(person.getSex());
+        buffer.put(VERSION);
+        buffer.put(sex);
+        if (sex == SEX_OTHER) {
+            writeString(person.getSex(), buffer);
+        }
+        writeString(person.getName(), buffer);
+    }
+
+    /**
+     * 写入DataBuffer的writePosition, 容量不够会自动扩容
+     */
+    public static DataBuffer write(Person person, DataBuffer buffer) {
+        int size = encodedSize(person);
+        buffer.ensureCapacity(size);
+        int position = buffer.writePosition();
+        write(person, buffer.asByteBuffer(position, size));
+        return buffer.writePosition(position + size);
+    }
+
+    /**
+     * 从buffer的当前位置读取一条记录
+     *
+     * @throws IllegalArgumentException  版本或者sex编码不认识, string长度不合法
+     * @throws BufferUnderflowException 数据不完整
+     */
+    public static Person read(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported person codec version: " + version);
+        }
+        byte code = buffer.get();
+        String sex;
+        switch (code) {
+            case SEX_NULL:
+                sex = null;
+                break;
+            case SEX_MALE:
+                sex = MALE;
+                break;
+            case SEX_FEMALE:
+                sex = FEMALE;
+                break;
+            case SEX_OTHER:
+                sex = readString(buffer);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown sex code: " + code);
+        }
+        return new Person(readString(buffer), sex);
+    }
+
+    /**
+     * 从DataBuffer的readPosition读取一条记录
+     */
+    public static Person read(DataBuffer buffer) {
+        int position = buffer.readPosition();
+        ByteBuffer view = buffer.asByteBuffer(position, buffer.readableByteCount());
+        Person person = read(view);
+        buffer.readPosition(position + view.position());
+        return person;
+    }
+
+    /**
+     * 顺序读取buffer中剩余的全部记录, 直接在buffer上解码, 不会复制字节.
+     * 读取的是buffer的一个视图, 不会移动原buffer的position
+     */
+    public static Reader reader(ByteBuffer buffer) {
+        return new Reader(buffer.duplicate());
+    }
+
+    public static Stream<Person> stream(ByteBuffer buffer) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader(buffer), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public static final class Reader implements Iterator<Person> {
+        private final ByteBuffer buffer;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return buffer.hasRemaining();
+        }
+
+        @Override
+        public Person next() {
+            if (!buffer.hasRemaining()) {
+                throw new NoSuchElementException();
+            }
+            return read(buffer);
+        }
+
+        /**
+         * 已经读取的字节数
+         */
+        public int position() {
+            return buffer.position();
+        }
+    }
+
+    static byte sexCode(String sex) {
+        if (sex == null) {
+            return SEX_NULL;
+        }
+        if (MALE.equals(sex)) {
+            return SEX_MALE;
+        }
+        if (FEMALE.equals(sex)) {
+            return SEX_FEMALE;
+        }
+        return SEX_OTHER;
+    }
+
+    static int stringSize(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int length = Utf8.encodedLength(value);
+        return varintSize(length + 1) + length;
+    }
+
+    static void writeString(String value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        writeVarint(Utf8.encodedLength(value) + 1, buffer);
+        Utf8.encode(value, buffer);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer) - 1;
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("malformed string length: " + length);
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (buffer.hasArray()) {
+            int position = buffer.position();
+            buffer.position(position + length);
+            return new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+        }
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeVarint(int value, ByteBuffer buffer) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            //第5个字节只有低4位属于int
+            if (shift == 28 && (b & 0xF0) != 0) {
+                throw new IllegalArgumentException("malformed varint");
+            }
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("malformed varint");
+    }
+}
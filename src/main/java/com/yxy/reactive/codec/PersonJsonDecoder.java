@@ -0,0 +1,102 @@
+package com.yxy.reactive.codec;
+
+import com.yxy.reactive.model.Person;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux的Person解码器, 用{@link PersonJsonReader}直接解析DataBuffer, 不经过Jackson
+ * <ul>
+ * <li>application/x-ndjson, application/stream+json: 按行切分, 每收到一行就解码一条, 不会把整个body聚合起来</li>
+ * <li>application/json: 单个对象或者JSON数组, 需要先聚合整个body</li>
+ * </ul>
+ * Created by Nuclear on 2026/10/17
+ */
+public class PersonJsonDecoder implements Decoder<Person> {
+
+    private static final List<MimeType> STREAMING_TYPES = List.of(PersonJsonEncoder.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON);
+
+    private static final List<MimeType> MIME_TYPES = List.of(PersonJsonEncoder.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON, MediaType.APPLICATION_JSON);
+
+    private final int maxInMemorySize;
+
+    public PersonJsonDecoder() {
+        this(LineSplitter.DEFAULT_MAX_LINE_LENGTH);
+    }
+
+    /**
+     * @param maxInMemorySize 一行(流式)或者整个body(application/json)最多聚合的字节数
+     */
+    public PersonJsonDecoder(int maxInMemorySize) {
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    @Override
+    public boolean canDecode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        if (!Person.class.isAssignableFrom(elementType.toClass())) {
+            return false;
+        }
+        return mimeType == null || MIME_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public Flux<Person> decode(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                               @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (mimeType != null && STREAMING_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType))) {
+            return LineSplitter.split(Flux.from(inputStream), maxInMemorySize).map(PersonJsonDecoder::decodeLine);
+        }
+        return DataBufferUtils.join(inputStream, maxInMemorySize)
+                .flatMapIterable(buffer -> {
+                    try {
+                        return PersonJsonReader.readAll(buffer.asByteBuffer());
+                    } catch (IllegalArgumentException e) {
+                        throw new DecodingException(e.getMessage(), e);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Person> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
+                                     @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return DataBufferUtils.join(inputStream, maxInMemorySize)
+                .map(buffer -> decode(buffer, elementType, mimeType, hints));
+    }
+
+    @Override
+    public Person decode(DataBuffer buffer, ResolvableType targetType,
+                         @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) throws DecodingException {
+        return decodeLine(buffer);
+    }
+
+    /**
+     * 解码一行并release
+     */
+    static Person decodeLine(DataBuffer line) {
+        try {
+            return PersonJsonReader.read(line);
+        } catch (IllegalArgumentException e) {
+            throw new DecodingException(e.getMessage(), e);
+        } finally {
+            DataBufferUtils.release(line);
+        }
+    }
+
+    @Override
+    public List<MimeType> getDecodableMimeTypes() {
+        return MIME_TYPES;
+    }
+}
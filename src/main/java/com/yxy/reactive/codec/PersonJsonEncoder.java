@@ -0,0 +1,108 @@
+package com.yxy.reactive.codec;
+
+import com.yxy.reactive.model.Person;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * WebFlux的Person编码器, 用{@link PersonJsonWriter}直接写进DataBuffer(netty下是池化的), 不经过Jackson
+ * <ul>
+ * <li>application/x-ndjson, application/stream+json: 每条记录一行, 逐条flush</li>
+ * <li>application/json: Mono为单个对象, Flux为JSON数组</li>
+ * </ul>
+ * Created by Nuclear on 2026/10/17
+ */
+public class PersonJsonEncoder implements HttpMessageEncoder<Person> {
+
+    //spring 5.2还没有MediaType.APPLICATION_NDJSON
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON);
+
+    private static final List<MimeType> MIME_TYPES = List.of(APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON, MediaType.APPLICATION_JSON);
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        if (!Person.class.isAssignableFrom(elementType.toClass())) {
+            return false;
+        }
+        return mimeType == null || MIME_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends Person> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream).map(person -> encodeValue(person, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        if (isStreaming(mimeType)) {
+            return Flux.from(inputStream).map(person -> encode(person, bufferFactory, null, (byte) '\n'));
+        }
+        //JSON数组: [a,b,c]
+        return Flux.defer(() -> {
+            boolean[] first = {true};
+            return Flux.from(inputStream)
+                    .map(person -> {
+                        byte prefix = first[0] ? (byte) '[' : (byte) ',';
+                        first[0] = false;
+                        return encode(person, bufferFactory, prefix, null);
+                    })
+                    .concatWith(Mono.fromSupplier(() -> {
+                        DataBuffer buffer = bufferFactory.allocateBuffer(2);
+                        if (first[0]) {
+                            buffer.write((byte) '[');
+                        }
+                        return buffer.write((byte) ']');
+                    }));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(Person value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        return encode(value, bufferFactory, null, isStreaming(mimeType) ? (byte) '\n' : null);
+    }
+
+    private DataBuffer encode(Person person, DataBufferFactory bufferFactory, @Nullable Byte prefix, @Nullable Byte suffix) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(PersonJsonWriter.encodedSize(person) + 2);
+        try {
+            if (prefix != null) {
+                buffer.write(prefix);
+            }
+            PersonJsonWriter.write(person, buffer);
+            if (suffix != null) {
+                buffer.write(suffix);
+            }
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private static boolean isStreaming(@Nullable MimeType mimeType) {
+        return mimeType != null && STREAMING_TYPES.stream().anyMatch(type -> type.isCompatibleWith(mimeType));
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return STREAMING_TYPES;
+    }
+}
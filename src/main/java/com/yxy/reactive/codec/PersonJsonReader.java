@@ -0,0 +1,351 @@
+package com.yxy.reactive.codec;
+
+import com.yxy.reactive.model.Person;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Person的JSON解码, 直接在ByteBuffer上逐字节解析, 不经过Jackson
+ * <p>
+ * 只认识name和sex两个字段, 其他字段(包括嵌套的对象和数组)会被跳过.
+ * 格式错误时抛出IllegalArgumentException
+ * Created by Nuclear on 2026/10/17
+ */
+public final class PersonJsonReader {
+
+    //字符串中有转义或者buffer不是堆内时用到的临时数组
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private PersonJsonReader() {
+    }
+
+    /**
+     * 解析buffer中从position到limit的一个JSON对象, 前后允许有空白
+     */
+    public static Person read(ByteBuffer buffer) {
+        Parser parser = new Parser(buffer);
+        Person person = parser.readPerson();
+        parser.expectEnd();
+        return person;
+    }
+
+    /**
+     * 解析DataBuffer中全部可读字节, 不会移动readPosition
+     */
+    public static Person read(DataBuffer buffer) {
+        return read(buffer.asByteBuffer(buffer.readPosition(), buffer.readableByteCount()));
+    }
+
+    /**
+     * 解析一个JSON数组或者单个对象
+     */
+    public static List<Person> readAll(ByteBuffer buffer) {
+        Parser parser = new Parser(buffer);
+        List<Person> people = new ArrayList<>();
+        if (parser.peek() == '[') {
+            parser.position++;
+            if (parser.peek() == ']') {
+                parser.position++;
+            } else {
+                for (; ; ) {
+                    people.add(parser.readPerson());
+                    byte next = parser.next();
+                    if (next == ']') {
+                        break;
+                    }
+                    parser.check(next == ',', "',' or ']'");
+                }
+            }
+        } else {
+            people.add(parser.readPerson());
+        }
+        parser.expectEnd();
+        return people;
+    }
+
+    public static Person read(String json) {
+        return read(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class Parser {
+        private final ByteBuffer buffer;
+        private final int limit;
+        private int position;
+
+        Parser(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.position = buffer.position();
+            this.limit = buffer.limit();
+        }
+
+        Person readPerson() {
+            check(next() == '{', "'{'");
+            Person person = new Person();
+            if (peek() == '}') {
+                position++;
+                return person;
+            }
+            for (; ; ) {
+                check(next() == '"', "field name");
+                int start = position;
+                int end = skipStringBody();
+                check(next() == ':', "':'");
+                if (fieldIs("name", start, end)) {
+                    person.setName(readNullableString());
+                } else if (fieldIs("sex", start, end)) {
+                    person.setSex(readNullableString());
+                } else {
+                    skipValue();
+                }
+                byte next = next();
+                if (next == '}') {
+                    return person;
+                }
+                check(next == ',', "',' or '}'");
+            }
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            check(position == limit, "end of input");
+        }
+
+        private String readNullableString() {
+            byte next = next();
+            if (next == 'n') {
+                expectLiteral("ull");
+                return null;
+            }
+            check(next == '"', "string or null");
+            return readStringBody();
+        }
+
+        //position在开头的引号之后
+        private String readStringBody() {
+            int start = position;
+            boolean escaped = false;
+            for (int i = start; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    position = i + 1;
+                    return escaped ? unescape(start, i) : decode(start, i - start);
+                }
+                if (b == '\\') {
+                    escaped = true;
+                    i++;
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        //跳过字符串, 返回结尾引号的位置
+        private int skipStringBody() {
+            for (int i = position; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    position = i + 1;
+                    return i;
+                }
+                if (b == '\\') {
+                    i++;
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private String decode(int start, int length) {
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+            }
+            byte[] scratch = scratch(length);
+            for (int i = 0; i < length; i++) {
+                scratch[i] = buffer.get(start + i);
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private String unescape(int start, int end) {
+            //转义后只会变短, 除了\\u转成最多3个字节, 但它本身占6个字节
+            byte[] scratch = scratch(end - start);
+            int length = 0;
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b != '\\') {
+                    scratch[length++] = b;
+                    continue;
+                }
+                byte e = buffer.get(++i);
+                switch (e) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        scratch[length++] = e;
+                        break;
+                    case 'n':
+                        scratch[length++] = '\n';
+                        break;
+                    case 'r':
+                        scratch[length++] = '\r';
+                        break;
+                    case 't':
+                        scratch[length++] = '\t';
+                        break;
+                    case 'b':
+                        scratch[length++] = '\b';
+                        break;
+                    case 'f':
+                        scratch[length++] = '\f';
+                        break;
+                    case 'u':
+                        check(i + 4 < end, "4 hex digits");
+                        int c = hex(i + 1);
+                        i += 4;
+                        if (Character.isHighSurrogate((char) c) && i + 6 < end
+                                && buffer.get(i + 1) == '\\' && buffer.get(i + 2) == 'u') {
+                            int low = hex(i + 3);
+                            if (Character.isLowSurrogate((char) low)) {
+                                c = Character.toCodePoint((char) c, (char) low);
+                                i += 6;
+                            }
+                        }
+                        length = putCodePoint(c, scratch, length);
+                        break;
+                    default:
+                        throw error("illegal escape \\" + (char) e);
+                }
+            }
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private int hex(int from) {
+            int value = 0;
+            for (int i = from; i < from + 4; i++) {
+                int digit = Character.digit(buffer.get(i), 16);
+                check(digit >= 0, "hex digit");
+                value = value << 4 | digit;
+            }
+            return value;
+        }
+
+        private void skipValue() {
+            byte next = next();
+            switch (next) {
+                case '"':
+                    skipStringBody();
+                    return;
+                case '{':
+                case '[':
+                    skipNested();
+                    return;
+                default:
+                    //数字、true、false、null
+                    check(next == '-' || next == 't' || next == 'f' || next == 'n' || (next >= '0' && next <= '9'), "value");
+                    while (position < limit) {
+                        byte b = buffer.get(position);
+                        if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                            return;
+                        }
+                        position++;
+                    }
+            }
+        }
+
+        //position在开头的{或者[之后
+        private void skipNested() {
+            int depth = 1;
+            while (depth > 0) {
+                check(position < limit, "end of object or array");
+                byte b = buffer.get(position++);
+                if (b == '"') {
+                    skipStringBody();
+                } else if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+            }
+        }
+
+        private boolean fieldIs(String name, int start, int end) {
+            if (end - start != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (buffer.get(start + i) != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void expectLiteral(String rest) {
+            for (int i = 0; i < rest.length(); i++) {
+                check(position < limit && buffer.get(position++) == rest.charAt(i), "null");
+            }
+        }
+
+        byte peek() {
+            skipWhitespace();
+            check(position < limit, "more input");
+            return buffer.get(position);
+        }
+
+        byte next() {
+            byte b = peek();
+            position++;
+            return b;
+        }
+
+        private void skipWhitespace() {
+            while (position < limit && isWhitespace(buffer.get(position))) {
+                position++;
+            }
+        }
+
+        void check(boolean condition, String expected) {
+            if (!condition) {
+                throw error("expected " + expected);
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("malformed person json at " + (position - buffer.position()) + ": " + message);
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static int putCodePoint(int c, byte[] dst, int i) {
+        if (c < 0x80) {
+            dst[i++] = (byte) c;
+        } else if (c < 0x800) {
+            dst[i++] = (byte) (0xC0 | (c >> 6));
+            dst[i++] = (byte) (0x80 | (c & 0x3F));
+        } else if (c < 0x10000) {
+            dst[i++] = (byte) (0xE0 | (c >> 12));
+            dst[i++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            dst[i++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+            dst[i++] = (byte) (0xF0 | (c >> 18));
+            dst[i++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+            dst[i++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            dst[i++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    private static byte[] scratch(int length) {
+        byte[] scratch = SCRATCH.get();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+}
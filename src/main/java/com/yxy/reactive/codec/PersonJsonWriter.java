@@ -0,0 +1,62 @@
+package com.yxy.reactive.codec;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.JsonUtil;
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Person的JSON编码, 先算出UTF-8字节数再直接写进buffer, 中间不产生String
+ * 输出格式: {"name":"...","sex":"..."}, null字段输出为null
+ * Created by Nuclear on 2026/10/17
+ */
+public final class PersonJsonWriter {
+
+    private static final byte[] NAME = "{\"name\":".getBytes();
+    private static final byte[] SEX = ",\"sex\":".getBytes();
+
+    private PersonJsonWriter() {
+    }
+
+    /**
+     * 编码后的字节数
+     */
+    public static int encodedSize(Person person) {
+        return NAME.length + Utf8.jsonLength(person.getName()) + SEX.length + Utf8.jsonLength(person.getSex()) + 1;
+    }
+
+    /**
+     * 写入buffer的当前位置
+     *
+     * @throws BufferOverflowException 剩余空间不足时抛出, 此时buffer不会被修改
+     */
+    public static void write(Person person, ByteBuffer buffer) {
+        if (buffer.remaining() < encodedSize(person)) {
+            throw new BufferOverflowException();
+        }
+        buffer.put(NAME);
+        Utf8.encodeJson(person.getName(), buffer);
+        buffer.put(SEX);
+        Utf8.encodeJson(person.getSex(), buffer);
+        buffer.put((byte) '}');
+    }
+
+    /**
+     * 写入DataBuffer的writePosition, 容量不够会自动扩容
+     */
+    public static DataBuffer write(Person person, DataBuffer buffer) {
+        int size = encodedSize(person);
+        buffer.ensureCapacity(size);
+        int position = buffer.writePosition();
+        write(person, buffer.asByteBuffer(position, size));
+        return buffer.writePosition(position + size);
+    }
+
+    public static String toJson(Person person) {
+        StringBuilder builder = new StringBuilder(32).append("{\"name\":");
+        JsonUtil.appendString(person.getName(), builder).append(",\"sex\":");
+        return JsonUtil.appendString(person.getSex(), builder).append('}').toString();
+    }
+}
@@ -0,0 +1,149 @@
+package com.yxy.reactive.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 直接把String按UTF-8写进ByteBuffer, 不经过String.getBytes产生的中间数组
+ * 不成对的代理字符与String.getBytes(UTF_8)一样替换成'?'
+ * Created by Nuclear on 2026/10/17
+ */
+final class Utf8 {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private Utf8() {
+    }
+
+    static int encodedLength(String value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (isPair(value, i)) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    static void encode(String value, ByteBuffer buffer) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            i = put(value, i, buffer);
+        }
+    }
+
+    /**
+     * JSON字符串(含两边的引号)的字节数, null为4
+     */
+    static int jsonLength(String value) {
+        if (value == null) {
+            return 4;
+        }
+        int length = value.length();
+        int bytes = 2;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c == '\n' || c == '\r' || c == '\t' || c == '\b' || c == '\f') {
+                bytes += 2;
+            } else if (c < 0x20) {
+                bytes += 6;
+            } else if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (isPair(value, i)) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * 写入JSON字符串(含两边的引号), 转义引号、反斜杠和控制字符
+     */
+    static void encodeJson(String value, ByteBuffer buffer) {
+        if (value == null) {
+            buffer.put((byte) 'n').put((byte) 'u').put((byte) 'l').put((byte) 'l');
+            return;
+        }
+        buffer.put((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    buffer.put((byte) '\\').put((byte) c);
+                    break;
+                case '\n':
+                    buffer.put((byte) '\\').put((byte) 'n');
+                    break;
+                case '\r':
+                    buffer.put((byte) '\\').put((byte) 'r');
+                    break;
+                case '\t':
+                    buffer.put((byte) '\\').put((byte) 't');
+                    break;
+                case '\b':
+                    buffer.put((byte) '\\').put((byte) 'b');
+                    break;
+                case '\f':
+                    buffer.put((byte) '\\').put((byte) 'f');
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                                .put(HEX[c >> 4]).put(HEX[c & 0xF]);
+                    } else {
+                        i = put(value, i, buffer);
+                    }
+            }
+        }
+        buffer.put((byte) '"');
+    }
+
+    /**
+     * 写入第i个字符(或者从i开始的代理对), 返回最后消费的下标
+     */
+    private static int put(String value, int i, ByteBuffer buffer) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (isPair(value, i)) {
+            int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return i;
+    }
+
+    private static boolean isPair(String value, int i) {
+        return Character.isHighSurrogate(value.charAt(i)) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1));
+    }
+}
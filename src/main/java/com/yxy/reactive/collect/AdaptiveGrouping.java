@@ -0,0 +1,177 @@
+package com.yxy.reactive.collect;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+/**
+ * 按key分组成List的收集器, 用于key很少的并行流, 比如按性别分组
+ * <p>
+ * {@link java.util.stream.Collectors#groupingByConcurrent}让所有线程往同一个ConcurrentHashMap的同一个桶里追加,
+ * key只有两三个的时候所有线程都在抢这几把锁. 这里每个线程先写自己的HashMap(ThreadLocal), 每个key一个分块追加的缓冲区,
+ * 追加不加锁也不会因扩容而复制; 结束时一次性合并, 每个key的List按最终大小只分配一次.
+ * <p>
+ * 某个线程的key数超过lowCardinalityLimit时认为key很多, 各线程一份map既占内存合并又慢, 而且key多了并发写入也不容易冲突,
+ * 之后所有线程改为写入共享的ConcurrentHashMap, 已经写进线程map的数据在结束时一起合并.
+ * <p>
+ * 收集器是CONCURRENT + UNORDERED的, 与groupingByConcurrent一样不保证List内的顺序. 每次collect创建新的ThreadLocal,
+ * 其他线程(比如ForkJoin公共池)上的条目要等ThreadLocalMap清理过期条目时才会释放, 所以finish时清空每个线程的map和缓冲区,
+ * 残留的只是空map, 不会让已经分组的元素一直可达
+ * Created by Nuclear on 2026/10/17
+ */
+public final class AdaptiveGrouping {
+
+    public static final int DEFAULT_LOW_CARDINALITY_LIMIT = 64;
+
+    private AdaptiveGrouping() {
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, List<T>>> groupingBy(Function<? super T, ? extends K> classifier) {
+        return groupingBy(classifier, DEFAULT_LOW_CARDINALITY_LIMIT);
+    }
+
+    /**
+     * @param lowCardinalityLimit 单个线程见到的key数超过这个值后改为并发写入共享map
+     */
+    public static <T, K> Collector<T, ?, Map<K, List<T>>> groupingBy(Function<? super T, ? extends K> classifier, int lowCardinalityLimit) {
+        Objects.requireNonNull(classifier, "classifier");
+        if (lowCardinalityLimit < 0) {
+            throw new IllegalArgumentException("lowCardinalityLimit must not be negative: " + lowCardinalityLimit);
+        }
+        return Collector.of(
+                () -> new Accumulator<T, K>(classifier, lowCardinalityLimit),
+                Accumulator::add,
+                //CONCURRENT的收集器只有一个容器, 不会调用combiner; 顺序流(或不支持并发收集的情况)下才可能用到
+                Accumulator::combine,
+                Accumulator::finish,
+                Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED);
+    }
+
+    private static final class Accumulator<T, K> {
+        private final Function<? super T, ? extends K> classifier;
+        private final int limit;
+        private final ThreadLocal<HashMap<K, Chunks<T>>> local = new ThreadLocal<>();
+        private final Queue<HashMap<K, Chunks<T>>> partials = new ConcurrentLinkedQueue<>();
+        private final ConcurrentHashMap<K, Chunks<T>> shared = new ConcurrentHashMap<>();
+        private volatile boolean highCardinality;
+
+        Accumulator(Function<? super T, ? extends K> classifier, int limit) {
+            this.classifier = classifier;
+            this.limit = limit;
+        }
+
+        void add(T element) {
+            K key = Objects.requireNonNull(classifier.apply(element), "element cannot be mapped to a null key");
+            if (!highCardinality) {
+                HashMap<K, Chunks<T>> partial = local.get();
+                if (partial == null) {
+                    partial = new HashMap<>();
+                    local.set(partial);
+                    partials.add(partial);
+                }
+                Chunks<T> chunks = partial.get(key);
+                if (chunks != null) {
+                    chunks.add(element);
+                    return;
+                }
+                if (partial.size() < limit) {
+                    chunks = new Chunks<>();
+                    partial.put(key, chunks);
+                    chunks.add(element);
+                    return;
+                }
+                highCardinality = true;
+            }
+            Chunks<T> chunks = shared.computeIfAbsent(key, k -> new Chunks<>());
+            synchronized (chunks) {
+                chunks.add(element);
+            }
+        }
+
+        Accumulator<T, K> combine(Accumulator<T, K> other) {
+            partials.addAll(other.partials);
+            other.shared.forEach((key, chunks) -> shared.merge(key, chunks, Chunks::append));
+            return this;
+        }
+
+        Map<K, List<T>> finish() {
+            //先算出每个key的总数, List只分配一次
+            Map<K, List<Chunks<T>>> byKey = new HashMap<>();
+            for (HashMap<K, Chunks<T>> partial : partials) {
+                partial.forEach((key, chunks) -> byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(chunks));
+            }
+            shared.forEach((key, chunks) -> byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(chunks));
+            Map<K, List<T>> result = new HashMap<>(byKey.size() * 4 / 3 + 1);
+            byKey.forEach((key, list) -> {
+                int size = 0;
+                for (Chunks<T> chunks : list) {
+                    size += chunks.size;
+                }
+                ArrayList<T> values = new ArrayList<>(size);
+                for (Chunks<T> chunks : list) {
+                    chunks.drainTo(values);
+                }
+                result.put(key, values);
+            });
+            //线程map还挂在各个线程的ThreadLocalMap上, 清空后不再引用元素
+            for (HashMap<K, Chunks<T>> partial : partials) {
+                partial.clear();
+            }
+            partials.clear();
+            shared.clear();
+            local.remove();
+            return result;
+        }
+    }
+
+    /**
+     * 分块追加的缓冲区, 块大小从16开始翻倍到4096, 扩容时不复制已有数据
+     */
+    private static final class Chunks<T> {
+        private static final int FIRST = 16;
+        private static final int MAX = 4096;
+
+        private final List<Object[]> full = new ArrayList<>();
+        private Object[] current = new Object[FIRST];
+        private int position;
+        private int size;
+
+        void add(T element) {
+            if (position == current.length) {
+                full.add(current);
+                current = new Object[Math.min(current.length * 2, MAX)];
+                position = 0;
+            }
+            current[position++] = element;
+            size++;
+        }
+
+        Chunks<T> append(Chunks<T> other) {
+            full.add(Arrays.copyOf(current, position));
+            full.addAll(other.full);
+            current = other.current;
+            position = other.position;
+            size += other.size;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        void drainTo(ArrayList<T> target) {
+            for (Object[] chunk : full) {
+                for (Object element : chunk) {
+                    target.add((T) element);
+                }
+            }
+            for (int i = 0; i < position; i++) {
+                target.add((T) current[i]);
+            }
+            //取出后释放所有块
+            full.clear();
+            current = new Object[0];
+            position = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.yxy.reactive.collect;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 字符计数, 代替{@code HashMap<String, Long>}加{@code split("")}
+ * <p>
+ * 按char直接寻址: 65536个long计数器分成256页, 每页256个, 用到时才分配.
+ * ASCII文本只会分配第一页(2KB), 更新就是一次数组自增, 没有装箱也不会为每个字符创建String.
+ * 计数的单位是UTF-16的char, 补充平面的字符会算成两个代理项. 非线程安全, 多线程各自计数后用{@link #merge(CharCounter)}合并
+ * Created by Nuclear on 2026/10/17
+ */
+public class CharCounter {
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final long[][] pages = new long[1 << (Character.SIZE - PAGE_BITS)][];
+    private long total;
+
+    public void add(char c) {
+        page(c)[c & PAGE_MASK]++;
+        total++;
+    }
+
+    public void add(char c, long delta) {
+        page(c)[c & PAGE_MASK] += delta;
+        total += delta;
+    }
+
+    public void addAll(CharSequence text) {
+        addAll(text, 0, text.length());
+    }
+
+    public void addAll(CharSequence text, int start, int end) {
+        //同一页的字符连续出现时省掉一次页表查找
+        long[] page = null;
+        int current = -1;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            int index = c >>> PAGE_BITS;
+            if (index != current) {
+                page = page(c);
+                current = index;
+            }
+            page[c & PAGE_MASK]++;
+        }
+        total += end - start;
+    }
+
+    public void addAll(char[] chars, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            page(c)[c & PAGE_MASK]++;
+        }
+        total += end - start;
+    }
+
+    public long count(char c) {
+        long[] page = pages[c >>> PAGE_BITS];
+        return page == null ? 0 : page[c & PAGE_MASK];
+    }
+
+    /**
+     * 所有字符的计数之和
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * 计数不为0的字符数
+     */
+    public int distinct() {
+        int distinct = 0;
+        for (long[] page : pages) {
+            if (page != null) {
+                for (long count : page) {
+                    if (count != 0) {
+                        distinct++;
+                    }
+                }
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * 按字符顺序遍历计数不为0的字符
+     */
+    public void forEach(CharCountConsumer consumer) {
+        for (int p = 0; p < pages.length; p++) {
+            long[] page = pages[p];
+            if (page != null) {
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    if (page[i] != 0) {
+                        consumer.accept((char) (p << PAGE_BITS | i), page[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    public CharCounter merge(CharCounter other) {
+        for (int p = 0; p < pages.length; p++) {
+            long[] source = other.pages[p];
+            if (source != null) {
+                long[] target = pages[p] == null ? pages[p] = new long[PAGE_SIZE] : pages[p];
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    target[i] += source[i];
+                }
+            }
+        }
+        total += other.total;
+        return this;
+    }
+
+    public void clear() {
+        for (long[] page : pages) {
+            if (page != null) {
+                Arrays.fill(page, 0);
+            }
+        }
+        total = 0;
+    }
+
+    /**
+     * 转换成按字符排序的Map, 用于展示
+     */
+    public Map<Character, Long> toMap() {
+        Map<Character, Long> map = new TreeMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    private long[] page(char c) {
+        int index = c >>> PAGE_BITS;
+        long[] page = pages[index];
+        if (page == null) {
+            page = pages[index] = new long[PAGE_SIZE];
+        }
+        return page;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    @FunctionalInterface
+    public interface CharCountConsumer {
+        void accept(char c, long count);
+    }
+}
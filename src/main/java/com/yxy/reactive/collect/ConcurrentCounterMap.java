@@ -0,0 +1,237 @@
+package com.yxy.reactive.collect;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 高并发计数Map, 代替{@code ConcurrentHashMap<K, AtomicLong>}的{@code computeIfAbsent(k, AtomicLong).incrementAndGet()}
+ * <p>
+ * 每个key的计数器一开始只有一个base值, 用CAS更新, 和AtomicLong一样紧凑. CAS失败说明有其他线程在同时更新这个key,
+ * 失败次数达到阈值后这个key被认为是热点, 扩展出一组分条的cell(类似{@link java.util.concurrent.atomic.LongAdder}),
+ * 每个线程按自己的probe更新不同的cell, cell之间有填充避免伪共享. cell上继续冲突时翻倍, 最多到CPU数.
+ * 冷key永远不会分配cell.
+ * <p>
+ * 读取(get, snapshot, top)把base和所有cell相加, 不加锁也不阻塞写入, 结果是弱一致的: 并发写入期间可能只包含其中一部分
+ * Created by Nuclear on 2026/10/17
+ */
+public class ConcurrentCounterMap<K> {
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+    //cell数量上限, 至少2个
+    private static final int MAX_CELLS = Math.max(2, Integer.highestOneBit(NCPU * 2 - 1));
+    //base上CAS失败多少次后扩展
+    private static final int EXPAND_THRESHOLD = 4;
+
+    private static final VarHandle BASE;
+    private static final VarHandle CELLS;
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BASE = lookup.findVarHandle(Counter.class, "base", long.class);
+            CELLS = lookup.findVarHandle(Counter.class, "cells", Cell[].class);
+            VALUE = lookup.findVarHandle(CellValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //每个线程的probe, 决定更新哪个cell, 冲突时重新散列
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> {
+        int seed = (int) (Thread.currentThread().getId() * 0x9e3779b9L);
+        return new int[]{seed == 0 ? 1 : seed};
+    });
+
+    private final ConcurrentHashMap<K, Counter> counters = new ConcurrentHashMap<>();
+
+    public void increment(K key) {
+        add(key, 1);
+    }
+
+    public void add(K key, long delta) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new Counter());
+        }
+        counter.add(delta);
+    }
+
+    /**
+     * @return key当前的计数, 不存在时返回0
+     */
+    public long get(K key) {
+        Counter counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * 所有key的计数之和
+     */
+    public long sum() {
+        long sum = 0;
+        for (Counter counter : counters.values()) {
+            sum += counter.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * key的数量
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * 所有key的计数, 弱一致
+     */
+    public Map<K, Long> snapshot() {
+        Map<K, Long> snapshot = new HashMap<>(counters.size() * 2);
+        counters.forEach((key, counter) -> snapshot.put(key, counter.sum()));
+        return snapshot;
+    }
+
+    /**
+     * 计数最大的n个key, 从大到小排列, 弱一致. 用一个n个元素的小顶堆, 不会复制整个map
+     */
+    public List<Map.Entry<K, Long>> top(int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Map.Entry<K, Long>> heap = new PriorityQueue<>(n + 1, Map.Entry.comparingByValue());
+        counters.forEach((key, counter) -> {
+            long sum = counter.sum();
+            if (heap.size() < n) {
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(key, sum));
+            } else if (sum > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(new AbstractMap.SimpleImmutableEntry<>(key, sum));
+            }
+        });
+        List<Map.Entry<K, Long>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<K, Long>comparingByValue().reversed());
+        return top;
+    }
+
+    /**
+     * 已经扩展成分条计数的key, 以及每个key的cell数
+     */
+    public Map<K, Integer> hotKeys() {
+        Map<K, Integer> hot = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            Cell[] cells = counter.cells;
+            if (cells != null) {
+                hot.put(key, cells.length);
+            }
+        });
+        return hot;
+    }
+
+    /**
+     * 删除key, 与这个key的并发更新可能丢失
+     */
+    public long remove(K key) {
+        Counter counter = counters.remove(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public void clear() {
+        counters.clear();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    private static int probe() {
+        return PROBE.get()[0];
+    }
+
+    //冲突后换一个cell, xorshift
+    private static int advanceProbe() {
+        int[] holder = PROBE.get();
+        int probe = holder[0];
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        holder[0] = probe;
+        return probe;
+    }
+
+    private static final class Counter {
+        volatile long base;
+        volatile Cell[] cells;
+        //冲突次数, 不要求精确
+        int contention;
+
+        void add(long delta) {
+            Cell[] cs = cells;
+            if (cs == null) {
+                long b = base;
+                if (BASE.compareAndSet(this, b, b + delta)) {
+                    return;
+                }
+                if (++contention < EXPAND_THRESHOLD) {
+                    BASE.getAndAdd(this, delta);
+                    return;
+                }
+                CELLS.compareAndSet(this, null, newCells(2));
+                cs = cells;
+            }
+            Cell cell = cs[probe() & (cs.length - 1)];
+            long v = cell.value;
+            if (VALUE.compareAndSet(cell, v, v + delta)) {
+                return;
+            }
+            //cell上也冲突了, 换一个probe, 必要时翻倍
+            int probe = advanceProbe();
+            if (cs.length < MAX_CELLS && ++contention >= EXPAND_THRESHOLD * cs.length) {
+                Cell[] grown = Arrays.copyOf(cs, cs.length * 2);
+                for (int i = cs.length; i < grown.length; i++) {
+                    grown[i] = new Cell();
+                }
+                CELLS.compareAndSet(this, cs, grown);
+                cs = cells;
+            }
+            VALUE.getAndAdd(cs[probe & (cs.length - 1)], delta);
+        }
+
+        long sum() {
+            long sum = base;
+            Cell[] cs = cells;
+            if (cs != null) {
+                for (Cell cell : cs) {
+                    sum += cell.value;
+                }
+            }
+            return sum;
+        }
+
+        private static Cell[] newCells(int length) {
+            Cell[] cells = new Cell[length];
+            for (int i = 0; i < length; i++) {
+                cells[i] = new Cell();
+            }
+            return cells;
+        }
+    }
+
+    //填充到value前后各一个缓存行, 通过继承保证字段顺序
+    @SuppressWarnings("unused")
+    private static class CellLeftPad {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private static class CellValue extends CellLeftPad {
+        volatile long value;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Cell extends CellValue {
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+}
@@ -0,0 +1,72 @@
+package com.yxy.reactive.collect;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * 多级分组, 代替嵌套的{@code groupingBy(k1, groupingBy(k2, groupingBy(k3)))}
+ * <p>
+ * 嵌套的写法每个外层key都有一张内层HashMap, 每个元素在每一级都要计算一次哈希、查一次表.
+ * 这里各级key合成一个复合key, 只计算一次哈希, 查一张平铺的表({@link GroupTable}):
+ * <pre>
+ * GroupTable&lt;List&lt;Person&gt;&gt; table = people.stream().collect(FlatGrouping.by(Person::getSex, Person::getName).toList());
+ * Map&lt;String, Map&lt;String, List&lt;Person&gt;&gt;&gt; map = table.asMap();
+ * </pre>
+ * 只需要统计值时用{@link #counting()}或{@link #summarizing(ToLongFunction)}, 不会为分组创建List.
+ * 收集器不是CONCURRENT的, 并行流里每个线程一张表, 最后合并
+ * Created by Nuclear on 2026/10/17
+ */
+public final class FlatGrouping<T> {
+
+    private final Function<? super T, ?>[] classifiers;
+
+    private FlatGrouping(Function<? super T, ?>[] classifiers) {
+        this.classifiers = classifiers;
+    }
+
+    /**
+     * @param classifiers 从外到内每一级的key, 不能返回null
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> FlatGrouping<T> by(Function<? super T, ?>... classifiers) {
+        if (classifiers.length == 0) {
+            throw new IllegalArgumentException("at least one classifier is required");
+        }
+        for (Function<? super T, ?> classifier : classifiers) {
+            Objects.requireNonNull(classifier, "classifier");
+        }
+        return new FlatGrouping<>(classifiers.clone());
+    }
+
+    /**
+     * 每个分组的元素列表, 与groupingBy一样保持元素的相遇顺序
+     */
+    public Collector<T, ?, GroupTable<List<T>>> toList() {
+        return collector(GroupTable.LIST, null);
+    }
+
+    /**
+     * 每个分组的元素个数
+     */
+    public Collector<T, ?, GroupTable<Long>> counting() {
+        return collector(GroupTable.COUNT, null);
+    }
+
+    /**
+     * 每个分组上metric的个数、总和、最小值、最大值
+     */
+    public Collector<T, ?, GroupTable<LongSummaryStatistics>> summarizing(ToLongFunction<? super T> metric) {
+        return collector(GroupTable.STATS, Objects.requireNonNull(metric, "metric"));
+    }
+
+    private <V> Collector<T, GroupTable<V>, GroupTable<V>> collector(int mode, ToLongFunction<? super T> metric) {
+        return Collector.of(
+                () -> new GroupTable<>(classifiers, mode, metric),
+                GroupTable::add,
+                GroupTable::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+}
@@ -0,0 +1,347 @@
+package com.yxy.reactive.collect;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link FlatGrouping}的结果: 多级分组放在一张平铺的哈希表里, 每个分组由各级key组成的复合key确定
+ * <p>
+ * 复合key只计算一次哈希, 各级key平铺在一个Object数组里, 不需要为复合key创建对象, 也没有每个外层key一张内层HashMap.
+ * 聚合值(计数、求和、最小、最大)存放在long数组里, 不为每个分组创建List.
+ * {@link #asMap()}返回熟悉的嵌套Map形式, 每一级的索引在第一次访问时才建立. 结果只读
+ * Created by Nuclear on 2026/10/17
+ */
+public class GroupTable<V> {
+
+    static final int LIST = 0;
+    static final int COUNT = 1;
+    static final int STATS = 2;
+
+    private final Function<Object, ?>[] classifiers;
+    private final int levels;
+    private final int mode;
+    private final ToLongFunction<Object> metric;
+
+    //槽里存分组下标加1, 0表示空槽
+    private int[] slots;
+    private int mask;
+
+    //分组, 按第一次出现的顺序
+    private int size;
+    private int[] hashes;
+    private Object[] keys;
+    private long[] counts;
+    private long[] sums;
+    private long[] mins;
+    private long[] maxs;
+    private ArrayList<Object>[] lists;
+
+    //计算当前元素各级key时复用
+    private final Object[] scratch;
+
+    @SuppressWarnings("unchecked")
+    GroupTable(Function<?, ?>[] classifiers, int mode, ToLongFunction<?> metric) {
+        this.classifiers = (Function<Object, ?>[]) classifiers;
+        this.levels = classifiers.length;
+        this.mode = mode;
+        this.metric = (ToLongFunction<Object>) metric;
+        this.scratch = new Object[levels];
+        this.slots = new int[32];
+        this.mask = slots.length - 1;
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        hashes = hashes == null ? new int[capacity] : Arrays.copyOf(hashes, capacity);
+        keys = keys == null ? new Object[capacity * levels] : Arrays.copyOf(keys, capacity * levels);
+        counts = counts == null ? new long[capacity] : Arrays.copyOf(counts, capacity);
+        if (mode == STATS) {
+            sums = sums == null ? new long[capacity] : Arrays.copyOf(sums, capacity);
+            mins = mins == null ? new long[capacity] : Arrays.copyOf(mins, capacity);
+            maxs = maxs == null ? new long[capacity] : Arrays.copyOf(maxs, capacity);
+        } else if (mode == LIST) {
+            lists = lists == null ? newLists(capacity) : Arrays.copyOf(lists, capacity);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayList<Object>[] newLists(int capacity) {
+        return new ArrayList[capacity];
+    }
+
+    void add(Object element) {
+        int hash = 1;
+        for (int level = 0; level < levels; level++) {
+            Object key = Objects.requireNonNull(classifiers[level].apply(element), "element cannot be mapped to a null key");
+            scratch[level] = key;
+            hash = 31 * hash + key.hashCode();
+        }
+        int group = findOrInsert(hash, scratch, 0);
+        counts[group]++;
+        if (mode == STATS) {
+            long value = metric.applyAsLong(element);
+            sums[group] += value;
+            mins[group] = Math.min(mins[group], value);
+            maxs[group] = Math.max(maxs[group], value);
+        } else if (mode == LIST) {
+            lists[group].add(element);
+        }
+    }
+
+    GroupTable<V> merge(GroupTable<V> other) {
+        for (int i = 0; i < other.size; i++) {
+            int group = findOrInsert(other.hashes[i], other.keys, i * levels);
+            counts[group] += other.counts[i];
+            if (mode == STATS) {
+                sums[group] += other.sums[i];
+                mins[group] = Math.min(mins[group], other.mins[i]);
+                maxs[group] = Math.max(maxs[group], other.maxs[i]);
+            } else if (mode == LIST) {
+                lists[group].addAll(other.lists[i]);
+            }
+        }
+        return this;
+    }
+
+    //source[offset, offset + levels)是复合key
+    private int findOrInsert(int hash, Object[] source, int offset) {
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int group = slots[slot] - 1;
+            if (group < 0) {
+                group = insert(hash, source, offset);
+                slots[slot] = group + 1;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                return group;
+            }
+            if (hashes[group] == hash && keyEquals(group, source, offset)) {
+                return group;
+            }
+        }
+    }
+
+    private int find(int hash, Object[] source) {
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int group = slots[slot] - 1;
+            if (group < 0) {
+                return -1;
+            }
+            if (hashes[group] == hash && keyEquals(group, source, 0)) {
+                return group;
+            }
+        }
+    }
+
+    private boolean keyEquals(int group, Object[] source, int offset) {
+        int base = group * levels;
+        for (int level = 0; level < levels; level++) {
+            if (!keys[base + level].equals(source[offset + level])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int insert(int hash, Object[] source, int offset) {
+        if (size == hashes.length) {
+            allocate(size * 2);
+        }
+        int group = size++;
+        hashes[group] = hash;
+        System.arraycopy(source, offset, keys, group * levels, levels);
+        if (mode == STATS) {
+            mins[group] = Long.MAX_VALUE;
+            maxs[group] = Long.MIN_VALUE;
+        } else if (mode == LIST) {
+            lists[group] = new ArrayList<>();
+        }
+        return group;
+    }
+
+    private void rehash() {
+        int[] rehashed = new int[slots.length * 2];
+        int newMask = rehashed.length - 1;
+        for (int group = 0; group < size; group++) {
+            int slot = spread(hashes[group]) & newMask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            rehashed[slot] = group + 1;
+        }
+        this.slots = rehashed;
+        this.mask = newMask;
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 分组数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 分组的级数
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * @param keys 每一级的key, 个数必须等于级数
+     * @return 分组的值, 分组不存在时返回null
+     */
+    public V get(Object... keys) {
+        int group = group(keys);
+        return group < 0 ? null : value(group);
+    }
+
+    /**
+     * 分组的元素个数, 分组不存在时返回0
+     */
+    public long count(Object... keys) {
+        int group = group(keys);
+        return group < 0 ? 0 : counts[group];
+    }
+
+    /**
+     * 按分组第一次出现的顺序遍历, keys是各级key
+     */
+    public void forEach(BiConsumer<List<Object>, V> consumer) {
+        for (int group = 0; group < size; group++) {
+            consumer.accept(keysOf(group), value(group));
+        }
+    }
+
+    /**
+     * 嵌套Map视图, 比如两级分组是{@code Map<K1, Map<K2, V>>}. 每一级的索引在第一次访问时建立, 只读
+     */
+    @SuppressWarnings("unchecked")
+    public <M extends Map<?, ?>> M asMap() {
+        return (M) new LevelView(0, null);
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private int group(Object[] keys) {
+        if (keys.length != levels) {
+            throw new IllegalArgumentException("expected " + levels + " keys but got " + keys.length);
+        }
+        int hash = 1;
+        for (Object key : keys) {
+            if (key == null) {
+                return -1;
+            }
+            hash = 31 * hash + key.hashCode();
+        }
+        return find(hash, keys);
+    }
+
+    private List<Object> keysOf(int group) {
+        return List.of(Arrays.copyOfRange(keys, group * levels, group * levels + levels));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int group) {
+        switch (mode) {
+            case LIST:
+                return (V) Collections.unmodifiableList(lists[group]);
+            case COUNT:
+                return (V) Long.valueOf(counts[group]);
+            default:
+                return (V) new LongSummaryStatistics(counts[group], mins[group], maxs[group], sums[group]);
+        }
+    }
+
+    /**
+     * 第level级的Map, groups是上一级key相同的分组, null表示所有分组
+     */
+    private final class LevelView extends AbstractMap<Object, Object> {
+        private final int level;
+        private final int[] groups;
+        private Map<Object, int[]> index;
+
+        LevelView(int level, int[] groups) {
+            this.level = level;
+            this.groups = groups;
+        }
+
+        //这一级的key到分组下标, 按第一次出现的顺序. sizes的值是[分组数, 已填入数]
+        private Map<Object, int[]> index() {
+            if (index == null) {
+                int count = groups == null ? size : groups.length;
+                Map<Object, int[]> sizes = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    int group = groups == null ? i : groups[i];
+                    sizes.computeIfAbsent(keys[group * levels + level], k -> new int[2])[0]++;
+                }
+                Map<Object, int[]> built = new LinkedHashMap<>(sizes.size() * 4 / 3 + 1);
+                sizes.forEach((key, n) -> built.put(key, new int[n[0]]));
+                for (int i = 0; i < count; i++) {
+                    int group = groups == null ? i : groups[i];
+                    Object key = keys[group * levels + level];
+                    built.get(key)[sizes.get(key)[1]++] = group;
+                }
+                index = built;
+            }
+            return index;
+        }
+
+        private Object child(int[] groups) {
+            return level == levels - 1 ? value(groups[0]) : new LevelView(level + 1, groups);
+        }
+
+        @Override
+        public Object get(Object key) {
+            int[] children = index().get(key);
+            return children == null ? null : child(children);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return index().size();
+        }
+
+        @Override
+        public Set<Entry<Object, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Object, Object>> iterator() {
+                    Iterator<Entry<Object, int[]>> iterator = index().entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Object, Object> next() {
+                            Entry<Object, int[]> entry = iterator.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), child(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return index().size();
+                }
+            };
+        }
+    }
+}
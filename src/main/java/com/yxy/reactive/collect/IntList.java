@@ -0,0 +1,134 @@
+package com.yxy.reactive.collect;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * 可增长的int数组, 代替{@code ArrayList<Integer>}, 每个元素4字节, 没有装箱
+ * <p>
+ * {@link #addAll(IntList)}用{@link System#arraycopy}整块复制, 可以直接作为并行流collect的combiner. 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class IntList {
+
+    private static final int[] EMPTY = new int[0];
+
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this.values = EMPTY;
+    }
+
+    public IntList(int capacity) {
+        this.values = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    public static IntList of(int... values) {
+        IntList list = new IntList(values.length);
+        list.addAll(values, 0, values.length);
+        return list;
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    public void addAll(IntList other) {
+        addAll(other.values, 0, other.size);
+    }
+
+    public void addAll(int[] source, int from, int to) {
+        int length = to - from;
+        if (size + length > values.length) {
+            grow(size + length);
+        }
+        System.arraycopy(source, from, values, size, length);
+        size += length;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return values[index];
+    }
+
+    public void set(int index, int value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(values[i]);
+        }
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void grow(int required) {
+        values = Arrays.copyOf(values, Math.max(required, Math.max(values.length + (values.length >> 1), 10)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntList)) {
+            return false;
+        }
+        IntList other = (IntList) o;
+        return Arrays.equals(values, 0, size, other.values, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + values[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(values[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
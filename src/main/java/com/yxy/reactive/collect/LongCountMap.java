@@ -0,0 +1,163 @@
+package com.yxy.reactive.collect;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * long到计数的哈希表, 代替{@code groupingBy(identity(), counting())}得到的{@code Map<Long, Long>}
+ * <p>
+ * 开放寻址(线性探测), 槽里存条目下标, 条目按第一次出现的顺序存放在long数组里, 没有装箱.
+ * {@link #merge(LongCountMap)}直接遍历另一张表的条目数组, 可以作为并行流collect的combiner. 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class LongCountMap {
+
+    //槽里存条目下标加1, 0表示空槽. 装载因子不超过0.5
+    private int[] slots;
+    private int mask;
+
+    private long[] keys;
+    private long[] counts;
+    private int size;
+
+    public LongCountMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedKeys 预计的不同key数
+     */
+    public LongCountMap(int expectedKeys) {
+        int capacity = Math.max(16, expectedKeys);
+        int slotCount = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.slots = new int[slotCount];
+        this.mask = slotCount - 1;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+    }
+
+    public void increment(long key) {
+        add(key, 1);
+    }
+
+    public void add(long key, long delta) {
+        for (int slot = spread(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                keys[size] = key;
+                counts[size] = delta;
+                slots[slot] = ++size;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                return;
+            }
+            if (keys[entry] == key) {
+                counts[entry] += delta;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return key的计数, 不存在时返回0
+     */
+    public long get(long key) {
+        for (int slot = spread(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return 0;
+            }
+            if (keys[entry] == key) {
+                return counts[entry];
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        for (int slot = spread(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return false;
+            }
+            if (keys[entry] == key) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 不同key的数量
+     */
+    public int size() {
+        return size;
+    }
+
+    public LongCountMap merge(LongCountMap other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.keys[i], other.counts[i]);
+        }
+        return this;
+    }
+
+    /**
+     * 所有key, 按第一次出现的顺序
+     */
+    public LongList keys() {
+        LongList list = new LongList(size);
+        list.addAll(keys, 0, size);
+        return list;
+    }
+
+    /**
+     * 按第一次出现的顺序遍历
+     */
+    public void forEach(LongLongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(keys[i], counts[i]);
+        }
+    }
+
+    /**
+     * 转换成装箱的Map, 用于展示或者与其他API交互
+     */
+    public Map<Long, Long> toMap() {
+        Map<Long, Long> map = new LinkedHashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    private void rehash() {
+        int[] rehashed = new int[slots.length * 2];
+        int newMask = rehashed.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = spread(keys[entry]) & newMask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            rehashed[slot] = entry + 1;
+        }
+        this.slots = rehashed;
+        this.mask = newMask;
+    }
+
+    private static int spread(long key) {
+        long hash = key * 0x9e3779b97f4a7c15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    @FunctionalInterface
+    public interface LongLongConsumer {
+        void accept(long key, long count);
+    }
+}
@@ -0,0 +1,134 @@
+package com.yxy.reactive.collect;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * 可增长的long数组, 代替{@code ArrayList<Long>}, 每个元素8字节, 没有装箱
+ * <p>
+ * {@link #addAll(LongList)}用{@link System#arraycopy}整块复制, 可以直接作为并行流collect的combiner. 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class LongList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] values;
+    private int size;
+
+    public LongList() {
+        this.values = EMPTY;
+    }
+
+    public LongList(int capacity) {
+        this.values = capacity == 0 ? EMPTY : new long[capacity];
+    }
+
+    public static LongList of(long... values) {
+        LongList list = new LongList(values.length);
+        list.addAll(values, 0, values.length);
+        return list;
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    public void addAll(LongList other) {
+        addAll(other.values, 0, other.size);
+    }
+
+    public void addAll(long[] source, int from, int to) {
+        int length = to - from;
+        if (size + length > values.length) {
+            grow(size + length);
+        }
+        System.arraycopy(source, from, values, size, length);
+        size += length;
+    }
+
+    public long get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return values[index];
+    }
+
+    public void set(int index, long value) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    public void forEach(LongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(values[i]);
+        }
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(values, 0, size);
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void grow(int required) {
+        values = Arrays.copyOf(values, Math.max(required, Math.max(values.length + (values.length >> 1), 10)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LongList)) {
+            return false;
+        }
+        LongList other = (LongList) o;
+        return Arrays.equals(values, 0, size, other.values, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Long.hashCode(values[i]);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(values[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
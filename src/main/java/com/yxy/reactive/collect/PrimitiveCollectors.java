@@ -0,0 +1,99 @@
+package com.yxy.reactive.collect;
+
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * 不装箱的收集器
+ * <p>
+ * IntStream/LongStream只有{@code collect(Supplier, ObjIntConsumer, BiConsumer)}, 没有Collector, 所以这里直接接收流:
+ * <pre>
+ * IntList hashes = PrimitiveCollectors.toIntList(strings.stream().mapToInt(String::hashCode));
+ * </pre>
+ * 对象流用{@link #toIntList(ToIntFunction)}这类Collector, 取出的int直接写进数组, 不经过Integer.
+ * 并行流的combiner整块复制数组或者遍历条目数组合并, 每个元素不会再分配对象
+ * Created by Nuclear on 2026/10/17
+ */
+public final class PrimitiveCollectors {
+
+    private PrimitiveCollectors() {
+    }
+
+    /**
+     * 顺序流并且知道元素个数时(比如{@code IntStream.of(array).map(...)})一次分配到位, 不会扩容
+     */
+    public static IntList toIntList(IntStream stream) {
+        if (!stream.isParallel()) {
+            Spliterator.OfInt spliterator = stream.spliterator();
+            IntList list = new IntList(initialCapacity(spliterator));
+            spliterator.forEachRemaining((IntConsumer) list::add);
+            return list;
+        }
+        return stream.collect(IntList::new, IntList::add, IntList::addAll);
+    }
+
+    public static LongList toLongList(LongStream stream) {
+        if (!stream.isParallel()) {
+            Spliterator.OfLong spliterator = stream.spliterator();
+            LongList list = new LongList(initialCapacity(spliterator));
+            spliterator.forEachRemaining((LongConsumer) list::add);
+            return list;
+        }
+        return stream.collect(LongList::new, LongList::add, LongList::addAll);
+    }
+
+    /**
+     * 每个值出现的次数
+     */
+    public static IntCountMap countInts(IntStream stream) {
+        return stream.collect(IntCountMap::new, IntCountMap::increment, IntCountMap::merge);
+    }
+
+    public static LongCountMap countLongs(LongStream stream) {
+        return stream.collect(LongCountMap::new, LongCountMap::increment, LongCountMap::merge);
+    }
+
+    /**
+     * 去重, 按第一次出现的顺序(并行流时是各段合并后的顺序)
+     */
+    public static IntList distinctInts(IntStream stream) {
+        return countInts(stream).keys();
+    }
+
+    public static LongList distinctLongs(LongStream stream) {
+        return countLongs(stream).keys();
+    }
+
+    public static <T> Collector<T, ?, IntList> toIntList(ToIntFunction<? super T> mapper) {
+        return Collector.of(IntList::new, (list, element) -> list.add(mapper.applyAsInt(element)), (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    public static <T> Collector<T, ?, LongList> toLongList(ToLongFunction<? super T> mapper) {
+        return Collector.of(LongList::new, (list, element) -> list.add(mapper.applyAsLong(element)), (left, right) -> {
+            left.addAll(right);
+            return left;
+        });
+    }
+
+    public static <T> Collector<T, ?, IntCountMap> countingInts(ToIntFunction<? super T> mapper) {
+        return Collector.of(IntCountMap::new, (map, element) -> map.increment(mapper.applyAsInt(element)), IntCountMap::merge);
+    }
+
+    public static <T> Collector<T, ?, LongCountMap> countingLongs(ToLongFunction<? super T> mapper) {
+        return Collector.of(LongCountMap::new, (map, element) -> map.increment(mapper.applyAsLong(element)), LongCountMap::merge);
+    }
+
+    private static int initialCapacity(Spliterator<?> spliterator) {
+        long size = spliterator.getExactSizeIfKnown();
+        return size >= 0 && size < Integer.MAX_VALUE - 8 ? (int) size : 16;
+    }
+}
@@ -0,0 +1,273 @@
+package com.yxy.reactive.collect;
+
+import java.nio.CharBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 任意token的计数, 代替{@code HashMap<String, Long>}的merge
+ * <p>
+ * 开放寻址(线性探测)的哈希表, 直接用原文里的一段字符{@code [start, end)}作为key, 不需要先切出子串.
+ * token第一次出现时把字符复制到一块共享的char数组里, 之后再出现只比较字符、对long计数器加一, 更新路径上没有装箱也没有分配.
+ * 哈希与{@link String#hashCode()}一致. 条目按第一次出现的顺序存放, 遍历时才创建String. 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class TokenCounter {
+
+    private static final int MIN_CAPACITY = 16;
+
+    //槽里存条目下标加1, 0表示空槽. 装载因子不超过0.5
+    private int[] slots;
+    private int mask;
+
+    //条目, 按插入顺序
+    private int[] hashes;
+    private int[] starts;
+    private int[] lengths;
+    private long[] counts;
+    private int size;
+
+    //所有token的字符
+    private char[] chars;
+    private int used;
+    private long total;
+
+    public TokenCounter() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedTokens 预计的不同token数
+     */
+    public TokenCounter(int expectedTokens) {
+        int capacity = Math.max(MIN_CAPACITY, expectedTokens);
+        int slotCount = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.slots = new int[slotCount];
+        this.mask = slotCount - 1;
+        this.hashes = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.counts = new long[capacity];
+        this.chars = new char[capacity * 8];
+    }
+
+    public void add(CharSequence token) {
+        add(token, 0, token.length(), 1);
+    }
+
+    public void add(CharSequence text, int start, int end) {
+        add(text, start, end, 1);
+    }
+
+    /**
+     * text中{@code [start, end)}这一段作为token, 计数加上delta
+     */
+    public void add(CharSequence text, int start, int end, long delta) {
+        add(text, start, end, hash(text, start, end), delta);
+    }
+
+    private void add(CharSequence text, int start, int end, int hash, long delta) {
+        int length = end - start;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                slots[slot] = insert(hash, text, start, length, delta) + 1;
+                if (size * 2 > slots.length) {
+                    rehash();
+                }
+                break;
+            }
+            if (hashes[entry] == hash && lengths[entry] == length && matches(entry, text, start)) {
+                counts[entry] += delta;
+                break;
+            }
+        }
+        total += delta;
+    }
+
+    /**
+     * 按separator切分text, 每一段作为一个token, 空串跳过. 相当于{@code text.split(separator)}之后逐个add, 但不创建子串
+     */
+    public void addAll(CharSequence text, char separator) {
+        //找分隔符的同时计算哈希, 每个字符只读一次
+        int start = 0;
+        int hash = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == separator) {
+                if (i > start) {
+                    add(text, start, i, hash, 1);
+                }
+                start = i + 1;
+                hash = 0;
+            } else {
+                hash = 31 * hash + c;
+            }
+        }
+        if (length > start) {
+            add(text, start, length, hash, 1);
+        }
+    }
+
+    public long count(CharSequence token) {
+        int entry = find(token);
+        return entry < 0 ? 0 : counts[entry];
+    }
+
+    /**
+     * 不同token的数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 所有token的计数之和
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * 按第一次出现的顺序遍历
+     */
+    public void forEach(TokenCountConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(token(i), counts[i]);
+        }
+    }
+
+    /**
+     * 计数最大的n个token, 计数相同时先出现的在前
+     */
+    public List<Map.Entry<String, Long>> top(int n) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a]) : Integer.compare(a, b));
+        List<Map.Entry<String, Long>> top = new ArrayList<>(Math.min(n, size));
+        for (int i = 0; i < Math.min(n, size); i++) {
+            top.add(new AbstractMap.SimpleImmutableEntry<>(token(order[i]), counts[order[i]]));
+        }
+        return top;
+    }
+
+    public TokenCounter merge(TokenCounter other) {
+        CharBuffer source = CharBuffer.wrap(other.chars);
+        for (int i = 0; i < other.size; i++) {
+            add(source, other.starts[i], other.starts[i] + other.lengths[i], other.counts[i]);
+        }
+        return this;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+        used = 0;
+        total = 0;
+    }
+
+    /**
+     * 转换成按第一次出现顺序排列的Map, 用于展示
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new LinkedHashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    private int find(CharSequence token) {
+        int hash = hash(token, 0, token.length());
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (hashes[entry] == hash && lengths[entry] == token.length() && matches(entry, token, 0)) {
+                return entry;
+            }
+        }
+    }
+
+    private int insert(int hash, CharSequence text, int start, int length, long delta) {
+        if (size == hashes.length) {
+            int capacity = size * 2;
+            hashes = Arrays.copyOf(hashes, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        if (used + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, used + length));
+        }
+        for (int i = 0; i < length; i++) {
+            chars[used + i] = text.charAt(start + i);
+        }
+        int entry = size++;
+        hashes[entry] = hash;
+        starts[entry] = used;
+        lengths[entry] = length;
+        counts[entry] = delta;
+        used += length;
+        return entry;
+    }
+
+    private void rehash() {
+        int slotCount = slots.length * 2;
+        int[] rehashed = new int[slotCount];
+        int newMask = slotCount - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = spread(hashes[entry]) & newMask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            rehashed[slot] = entry + 1;
+        }
+        this.slots = rehashed;
+        this.mask = newMask;
+    }
+
+    private boolean matches(int entry, CharSequence text, int start) {
+        int offset = starts[entry];
+        for (int i = 0, length = lengths[entry]; i < length; i++) {
+            if (chars[offset + i] != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String token(int entry) {
+        return new String(chars, starts[entry], lengths[entry]);
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+
+    //String.hashCode的低位分布很差, 线性探测前打散
+    private static int spread(int hash) {
+        hash *= 0x9e3779b9;
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    @FunctionalInterface
+    public interface TokenCountConsumer {
+        void accept(String token, long count);
+    }
+}
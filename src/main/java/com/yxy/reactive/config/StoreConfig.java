@@ -0,0 +1,25 @@
+package com.yxy.reactive.config;
+
+import com.yxy.reactive.store.PersonLog;
+import com.yxy.reactive.store.PersonStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Person存储, reactive.store.enabled=false时不创建, 相关的路由也一起关闭
+ * Created by Nuclear on 2026/10/17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "reactive.store", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(StoreProperties.class)
+public class StoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public PersonStore personStore(StoreProperties properties) {
+        PersonLog personLog = new PersonLog(properties.getDirectory(), properties.getSegmentSize(),
+                properties.isFsync(), properties.getMaxBatch());
+        return new PersonStore(personLog, properties.getCapacity());
+    }
+}
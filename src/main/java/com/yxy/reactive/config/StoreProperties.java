@@ -0,0 +1,34 @@
+package com.yxy.reactive.config;
+
+import com.yxy.reactive.store.PersonLog;
+import com.yxy.reactive.store.PersonStore;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Person存储的配置, 前缀reactive.store
+ * Created by Nuclear on 2026/10/17
+ */
+@Data
+@ConfigurationProperties(prefix = "reactive.store")
+public class StoreProperties {
+
+    //是否创建存储和/persons路由
+    private boolean enabled = true;
+
+    //日志目录, 默认在工作目录的target下
+    private Path directory = Paths.get("target", "reactor-demo", "store");
+
+    private int segmentSize = PersonLog.DEFAULT_SEGMENT_SIZE;
+
+    //每批写入后是否force到磁盘, 演示用默认关闭
+    private boolean fsync = false;
+
+    private int maxBatch = PersonLog.DEFAULT_MAX_BATCH;
+
+    //索引最多存放的不同name数
+    private int capacity = PersonStore.DEFAULT_CAPACITY;
+}
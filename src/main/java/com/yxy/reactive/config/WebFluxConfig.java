@@ -0,0 +1,25 @@
+package com.yxy.reactive.config;
+
+import com.yxy.reactive.codec.PersonJsonDecoder;
+import com.yxy.reactive.codec.PersonJsonEncoder;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 注册Person专用的编解码器, 自定义codec排在Jackson前面, Person相关的读写都不会再走Jackson
+ * <p>
+ * 用CodecCustomizer注册, 服务端、WebClient.Builder和测试用的WebTestClient都会生效
+ * Created by Nuclear on 2026/10/17
+ */
+@Configuration
+public class WebFluxConfig {
+
+    @Bean
+    public CodecCustomizer personCodecCustomizer() {
+        return configurer -> {
+            configurer.customCodecs().register(new PersonJsonEncoder());
+            configurer.customCodecs().register(new PersonJsonDecoder());
+        };
+    }
+}
@@ -1,6 +1,9 @@
 package com.yxy.reactive.model;
 
+import com.yxy.reactive.utils.JsonUtil;
+
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Created by Nuclear on 2020/10/3
@@ -9,6 +12,14 @@ public class Person implements Serializable {
     private String name;
     private String sex;
 
+    public Person() {
+    }
+
+    public Person(String name, String sex) {
+        this.name = name;
+        this.sex = sex;
+    }
+
     public String getName() {
         return name;
     }
@@ -25,13 +36,28 @@ public class Person implements Serializable {
         this.sex = sex;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Person)) {
+            return false;
+        }
+        Person person = (Person) o;
+        return Objects.equals(name, person.name) && Objects.equals(sex, person.sex);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, sex);
+    }
+
     @Override
     public String toString() {
-        return "{"
-                + "\"name\":\""
-                + name + '\"'
-                + ",\"sex\":\""
-                + sex + '\"'
-                + "}";
+        //与PersonJsonWriter的输出相同, 但model不依赖codec
+        StringBuilder builder = new StringBuilder(32).append("{\"name\":");
+        JsonUtil.appendString(name, builder).append(",\"sex\":");
+        return JsonUtil.appendString(sex, builder).append('}').toString();
     }
 }
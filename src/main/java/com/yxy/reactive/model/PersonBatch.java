@@ -0,0 +1,344 @@
+package com.yxy.reactive.model;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * 列式存储的一批Person, 与Person一一对应但不为每一行创建对象
+ * <ul>
+ * <li>name: 所有字符连续存放在一个char[]里, offsets[i]到offsets[i + 1]是第i行, null单独用BitSet标记</li>
+ * <li>sex: 字典编码, 每行一个byte, 字典最多127个不同的值, -1表示null</li>
+ * </ul>
+ * 分组、计数、过滤都直接在数组上完成, 结果用行号数组(selection)表示, 只有显式调用{@link #get(int)}等方法才会生成Person.
+ * 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class PersonBatch implements Iterable<Person> {
+
+    public static final byte NULL_CODE = -1;
+
+    private static final int MAX_DICTIONARY_SIZE = Byte.MAX_VALUE;
+
+    private int size;
+    private char[] names;
+    private int[] offsets;
+    private final BitSet nullNames = new BitSet();
+    private byte[] sexCodes;
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Byte> codes = new HashMap<>();
+
+    public PersonBatch() {
+        this(16);
+    }
+
+    public PersonBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.names = new char[capacity * 8];
+        this.offsets = new int[capacity + 1];
+        this.sexCodes = new byte[capacity];
+    }
+
+    public static PersonBatch of(Collection<Person> people) {
+        PersonBatch batch = new PersonBatch(people.size());
+        for (Person person : people) {
+            batch.add(person);
+        }
+        return batch;
+    }
+
+    /**
+     * 收集成一个batch
+     */
+    public static Mono<PersonBatch> from(Flux<Person> people) {
+        return people.collect(PersonBatch::new, PersonBatch::add);
+    }
+
+    /**
+     * 每batchSize个收集成一个batch
+     */
+    public static Flux<PersonBatch> batches(Flux<Person> people, int batchSize) {
+        return people.window(batchSize).concatMap(window -> window.collect(() -> new PersonBatch(batchSize), PersonBatch::add));
+    }
+
+    public PersonBatch add(Person person) {
+        return add(person.getName(), person.getSex());
+    }
+
+    public PersonBatch add(CharSequence name, String sex) {
+        //字典满了会抛异常, 先编码, 失败时batch不变
+        byte code = encode(sex);
+        if (size == sexCodes.length) {
+            int capacity = size + (size >> 1) + 1;
+            offsets = Arrays.copyOf(offsets, capacity + 1);
+            sexCodes = Arrays.copyOf(sexCodes, capacity);
+        }
+        int offset = offsets[size];
+        if (name == null) {
+            nullNames.set(size);
+        } else {
+            int length = name.length();
+            if (offset + length > names.length) {
+                names = Arrays.copyOf(names, Math.max(offset + length, names.length + (names.length >> 1)));
+            }
+            for (int i = 0; i < length; i++) {
+                names[offset + i] = name.charAt(i);
+            }
+            offset += length;
+        }
+        sexCodes[size] = code;
+        offsets[++size] = offset;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Person get(int row) {
+        return new Person(name(row), sex(row));
+    }
+
+    public String name(int row) {
+        checkRow(row);
+        if (nullNames.get(row)) {
+            return null;
+        }
+        return new String(names, offsets[row], offsets[row + 1] - offsets[row]);
+    }
+
+    /**
+     * 比较第row行的name, 不生成String
+     */
+    public boolean nameEquals(int row, CharSequence name) {
+        checkRow(row);
+        if (nullNames.get(row) || name == null) {
+            return nullNames.get(row) && name == null;
+        }
+        int offset = offsets[row];
+        int length = offsets[row + 1] - offset;
+        if (length != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (names[offset + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String sex(int row) {
+        return decode(sexCode(row));
+    }
+
+    public byte sexCode(int row) {
+        checkRow(row);
+        return sexCodes[row];
+    }
+
+    /**
+     * sex在字典中的编码, 不存在时返回-2, null返回{@link #NULL_CODE}
+     */
+    public byte codeOf(String sex) {
+        if (sex == null) {
+            return NULL_CODE;
+        }
+        Byte code = codes.get(sex);
+        return code == null ? -2 : code;
+    }
+
+    /**
+     * 字典中的全部值, 下标即编码
+     */
+    public List<String> dictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    /**
+     * 按sex计数, 一次扫描编码列
+     */
+    public Map<String, Long> countBySex() {
+        long[] counts = new long[dictionary.size() + 1];
+        for (int row = 0; row < size; row++) {
+            counts[sexCodes[row] + 1]++;
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(decode((byte) (i - 1)), counts[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按sex分组, value是行号数组
+     */
+    public Map<String, int[]> groupRowsBySex() {
+        int[] counts = new int[dictionary.size() + 1];
+        for (int row = 0; row < size; row++) {
+            counts[sexCodes[row] + 1]++;
+        }
+        int[][] groups = new int[counts.length][];
+        for (int i = 0; i < counts.length; i++) {
+            groups[i] = new int[counts[i]];
+        }
+        int[] positions = new int[counts.length];
+        for (int row = 0; row < size; row++) {
+            int group = sexCodes[row] + 1;
+            groups[group][positions[group]++] = row;
+        }
+        Map<String, int[]> result = new LinkedHashMap<>();
+        for (int i = 0; i < groups.length; i++) {
+            if (groups[i].length > 0) {
+                result.put(decode((byte) (i - 1)), groups[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按sex分组, 每组是一个新的batch
+     */
+    public Map<String, PersonBatch> groupBySex() {
+        Map<String, PersonBatch> result = new LinkedHashMap<>();
+        groupRowsBySex().forEach((sex, rows) -> result.put(sex, select(rows)));
+        return result;
+    }
+
+    /**
+     * 满足条件的行号, predicate的参数是行号
+     */
+    public int[] rows(IntPredicate predicate) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(row)) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    public int[] rowsBySex(String sex) {
+        byte code = codeOf(sex);
+        if (code == -2) {
+            return new int[0];
+        }
+        return rows(row -> sexCodes[row] == code);
+    }
+
+    public long count(IntPredicate predicate) {
+        long count = 0;
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public PersonBatch filter(IntPredicate predicate) {
+        return select(rows(predicate));
+    }
+
+    /**
+     * 按行号复制出一个新的batch, 直接复制数组片段, 不经过Person
+     */
+    public PersonBatch select(int[] rows) {
+        PersonBatch batch = new PersonBatch(rows.length);
+        int total = 0;
+        for (int row : rows) {
+            checkRow(row);
+            total += offsets[row + 1] - offsets[row];
+        }
+        batch.names = new char[Math.max(total, 1)];
+        batch.dictionary.addAll(dictionary);
+        batch.codes.putAll(codes);
+        int offset = 0;
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            int length = offsets[row + 1] - offsets[row];
+            System.arraycopy(names, offsets[row], batch.names, offset, length);
+            offset += length;
+            batch.offsets[i + 1] = offset;
+            batch.sexCodes[i] = sexCodes[row];
+            if (nullNames.get(row)) {
+                batch.nullNames.set(i);
+            }
+        }
+        batch.size = rows.length;
+        return batch;
+    }
+
+    public List<Person> toList() {
+        List<Person> people = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            people.add(get(row));
+        }
+        return people;
+    }
+
+    /**
+     * 按需生成Person, 只有下游request的行才会被物化
+     */
+    public Flux<Person> toFlux() {
+        return Flux.range(0, size).map(this::get);
+    }
+
+    @Override
+    public Iterator<Person> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Person next() {
+                if (row >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(row++);
+            }
+        };
+    }
+
+    private byte encode(String sex) {
+        if (sex == null) {
+            return NULL_CODE;
+        }
+        Byte code = codes.get(sex);
+        if (code != null) {
+            return code;
+        }
+        if (dictionary.size() >= MAX_DICTIONARY_SIZE) {
+            throw new IllegalStateException("too many distinct sex values, max " + MAX_DICTIONARY_SIZE);
+        }
+        byte value = (byte) dictionary.size();
+        dictionary.add(sex);
+        codes.put(sex, value);
+        return value;
+    }
+
+    private String decode(byte code) {
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PersonBatch{size=" + size + ", dictionary=" + dictionary + "}";
+    }
+}
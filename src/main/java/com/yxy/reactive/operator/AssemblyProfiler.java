@@ -0,0 +1,346 @@
+package com.yxy.reactive.operator;
+
+import lombok.Getter;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 组装开销分析, 只用于调试
+ * <p>
+ * 用{@link #profile(String, Supplier)}包住一次请求的组装过程(比如handler方法), 统计:
+ * <ul>
+ * <li>组装耗时和当前线程分配的字节数(不含分析本身的开销)</li>
+ * <li>组装期间创建的每个操作符以及创建它的代码位置, 与上一个操作符之间的耗时和分配记在这个操作符上,
+ * 包括提前算好的参数(比如一个大数组)</li>
+ * <li>请求结束时仍然没有被订阅过的操作符. 这些就是被提前构造、最后又被丢弃的参数,
+ * 典型的是{@code switchIfEmpty(method())}里的method(), 应该改用{@link Fallbacks}</li>
+ * </ul>
+ * {@link #report(int)}按被丢弃的操作符分配的字节数(其次是耗时)列出最严重的代码位置.
+ * <p>
+ * 原理: {@link Hooks#onEachOperator}在每个操作符组装时回调, 只有当前线程处于profile窗口内才记录,
+ * 并用{@link Operators#lift}包一层来得知它是否被订阅. 安装后所有线程的每次组装都会多一次ThreadLocal读取, 不要在生产环境常开
+ * Created by Nuclear on 2026/10/17
+ */
+public class AssemblyProfiler implements AutoCloseable {
+
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private static final ThreadLocal<Window> CURRENT = new ThreadLocal<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    //本身就是延迟构造的边界, 没被订阅也不算浪费
+    private static final Set<String> DEFERRED = Set.of("MonoDefer", "FluxDefer", "MonoDeferWithContext", "FluxDeferWithContext",
+            "MonoSupplier", "MonoCallable", "FluxCallable");
+
+    private final String hookKey = "assembly-profiler-" + IDS.incrementAndGet();
+    private final Map<String, LabelStats> labels = new ConcurrentHashMap<>();
+    private final Map<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    private AssemblyProfiler() {
+    }
+
+    /**
+     * 注册全局的组装钩子, 用完后close
+     */
+    public static AssemblyProfiler install() {
+        AssemblyProfiler profiler = new AssemblyProfiler();
+        Hooks.onEachOperator(profiler.hookKey, AssemblyProfiler::onAssembly);
+        return profiler;
+    }
+
+    private static Publisher<Object> onAssembly(Publisher<Object> publisher) {
+        Window window = CURRENT.get();
+        if (window == null) {
+            return publisher;
+        }
+        long nanos = System.nanoTime();
+        long bytes = allocatedBytes();
+        window.assembled(publisher, callSite(), nanos, bytes);
+        Publisher<Object> lifted = Operators.<Object, Object>lift((scannable, subscriber) -> {
+            window.subscribed(publisher);
+            return subscriber;
+        }).apply(publisher);
+        //栈遍历和lift本身的开销不算到下一个操作符上
+        window.overhead(nanos, bytes);
+        return lifted;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //调用栈上第一个不属于reactor和本包的位置, 以及它的调用者
+    private static String[] callSite() {
+        List<String> frames = WALKER.walk(stream -> stream
+                .filter(frame -> !isInternal(frame.getClassName()))
+                .limit(2)
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .collect(Collectors.toList()));
+        return new String[]{frames.isEmpty() ? "unknown" : frames.get(0), frames.size() > 1 ? frames.get(1) : ""};
+    }
+
+    private static boolean isInternal(String className) {
+        return className.startsWith("reactor.") || className.startsWith("java.") || className.startsWith("jdk.")
+                || className.startsWith(AssemblyProfiler.class.getPackageName() + ".");
+    }
+
+    /**
+     * 分析一次Mono请求, assembly在当前线程上立即执行, 返回的Mono结束(完成、出错或取消)时统计未被订阅的操作符.
+     * 统计在结束信号传给下游之前完成, 下游收到完成信号时就能看到结果
+     */
+    public <T> Mono<T> profile(String label, Supplier<? extends Mono<T>> assembly) {
+        Window window = new Window(label);
+        Mono<T> mono = window.run(assembly);
+        return mono.doOnTerminate(() -> finish(window)).doOnCancel(() -> finish(window));
+    }
+
+    public <T> Flux<T> profileMany(String label, Supplier<? extends Publisher<T>> assembly) {
+        Window window = new Window(label);
+        Publisher<T> publisher = window.run(assembly);
+        return Flux.from(publisher).doOnTerminate(() -> finish(window)).doOnCancel(() -> finish(window));
+    }
+
+    private void finish(Window window) {
+        if (!window.finish()) {
+            return;
+        }
+        List<Map.Entry<Publisher<?>, Assembly>> unused = window.unused();
+        labels.computeIfAbsent(window.label, LabelStats::new).add(window, unused.size());
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<Publisher<?>, Assembly> entry : unused) {
+            Assembly assembly = entry.getValue();
+            String[] site = assembly.site;
+            Offender offender = offenders.computeIfAbsent(site[0] + " <- " + site[1], key -> new Offender(site[0], site[1]));
+            offender.add(entry.getKey().getClass().getSimpleName(), assembly, seen.add(site[0] + site[1]));
+        }
+    }
+
+    /**
+     * 按浪费的分配字节数排序的前top个代码位置, 字节数相同时按耗时. 分配量不受JIT和调度影响, 比耗时稳定
+     */
+    public List<Offender> offenders(int top) {
+        return offenders.values().stream()
+                .sorted(Comparator.comparingLong(Offender::getWastedBytes)
+                        .thenComparingLong(Offender::getWastedNanos)
+                        .reversed())
+                .limit(top)
+                .collect(Collectors.toList());
+    }
+
+    public Collection<LabelStats> labels() {
+        return Collections.unmodifiableCollection(labels.values());
+    }
+
+    public String report(int top) {
+        StringBuilder builder = new StringBuilder("assembly profile\n");
+        labels.values().stream()
+                .sorted(Comparator.comparing(LabelStats::getLabel))
+                .forEach(stats -> builder.append("  ").append(stats).append('\n'));
+        List<Offender> list = offenders(top);
+        if (!list.isEmpty()) {
+            builder.append("eagerly built and never subscribed:\n");
+            list.forEach(offender -> builder.append("  ").append(offender).append('\n'));
+        }
+        return builder.toString();
+    }
+
+    public void reset() {
+        labels.clear();
+        offenders.clear();
+    }
+
+    @Override
+    public void close() {
+        Hooks.resetOnEachOperator(hookKey);
+    }
+
+    /**
+     * 一个操作符的组装位置和开销
+     */
+    private static final class Assembly {
+        final String[] site;
+        final long nanos;
+        final long bytes;
+
+        Assembly(String[] site, long nanos, long bytes) {
+            this.site = site;
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Window {
+        final String label;
+        final Map<Publisher<?>, Assembly> assembled = new IdentityHashMap<>();
+        final Set<Publisher<?>> subscribed = Collections.newSetFromMap(new IdentityHashMap<>());
+        long nanos;
+        long bytes;
+        boolean finished;
+        //以下只在组装线程上使用: 上一个操作符组装完的时刻, 以及分析本身的累计开销
+        private long markNanos;
+        private long markBytes;
+        private long overheadNanos;
+        private long overheadBytes;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        <P> P run(Supplier<? extends P> assembly) {
+            Window previous = CURRENT.get();
+            CURRENT.set(this);
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            markNanos = start;
+            markBytes = bytes;
+            try {
+                return assembly.get();
+            } finally {
+                this.nanos = System.nanoTime() - start - overheadNanos;
+                this.bytes = allocatedBytes() - bytes - overheadBytes;
+                CURRENT.set(previous);
+            }
+        }
+
+        //只在组装线程上调用, 从上一个操作符到现在的开销算在这个操作符上
+        void assembled(Publisher<?> publisher, String[] site, long nanos, long bytes) {
+            Assembly assembly = new Assembly(site, nanos - markNanos, bytes - markBytes);
+            synchronized (this) {
+                assembled.put(publisher, assembly);
+            }
+        }
+
+        //只在组装线程上调用, start是进入钩子的时刻
+        void overhead(long startNanos, long startBytes) {
+            markBytes = allocatedBytes();
+            markNanos = System.nanoTime();
+            overheadNanos += markNanos - startNanos;
+            overheadBytes += markBytes - startBytes;
+        }
+
+        //可能在任意线程上调用
+        void subscribed(Publisher<?> publisher) {
+            synchronized (this) {
+                subscribed.add(publisher);
+            }
+        }
+
+        synchronized List<Map.Entry<Publisher<?>, Assembly>> unused() {
+            return assembled.entrySet().stream()
+                    .filter(entry -> !subscribed.contains(entry.getKey()))
+                    .filter(entry -> !DEFERRED.contains(entry.getKey().getClass().getSimpleName()))
+                    .collect(Collectors.toList());
+        }
+
+        //只统计一次
+        synchronized boolean finish() {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+
+        synchronized int operators() {
+            return assembled.size();
+        }
+    }
+
+    /**
+     * 一类请求的组装开销
+     */
+    @Getter
+    public static final class LabelStats {
+        private final String label;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder operators = new LongAdder();
+        private final LongAdder unusedOperators = new LongAdder();
+
+        LabelStats(String label) {
+            this.label = label;
+        }
+
+        void add(Window window, int unused) {
+            requests.increment();
+            nanos.add(window.nanos);
+            bytes.add(window.bytes);
+            operators.add(window.operators());
+            unusedOperators.add(unused);
+        }
+
+        @Override
+        public String toString() {
+            long count = Math.max(requests.sum(), 1);
+            return String.format("%s: requests=%d, avgAssemblyMicros=%.2f, avgAllocatedBytes=%d, avgOperators=%.1f, avgUnused=%.1f",
+                    label, requests.sum(), nanos.sum() / 1000.0 / count, bytes.sum() / count,
+                    (double) operators.sum() / count, (double) unusedOperators.sum() / count);
+        }
+    }
+
+    /**
+     * 构造了却没有被订阅的操作符所在的位置
+     */
+    @Getter
+    public static final class Offender {
+        //创建操作符的位置
+        private final String site;
+        //调用site的位置, 通常就是把它作为参数传进去的那一行
+        private final String caller;
+        private final LongAdder unused = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        //这些操作符组装时的耗时和分配, 全部是浪费
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final Set<String> operatorTypes = ConcurrentHashMap.newKeySet();
+
+        Offender(String site, String caller) {
+            this.site = site;
+            this.caller = caller;
+        }
+
+        void add(String operatorType, Assembly assembly, boolean newRequest) {
+            unused.increment();
+            nanos.add(assembly.nanos);
+            bytes.add(assembly.bytes);
+            if (newRequest) {
+                requests.increment();
+            }
+            operatorTypes.add(operatorType);
+        }
+
+        public long getUnusedOperators() {
+            return unused.sum();
+        }
+
+        public long getWastedNanos() {
+            return nanos.sum();
+        }
+
+        public long getWastedBytes() {
+            return bytes.sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s <- %s: wastedBytes=%d, wastedMicros=%.2f, unused=%d in %d requests, operators=%s", site, caller,
+                    bytes.sum(), nanos.sum() / 1000.0, unused.sum(), requests.sum(), new TreeSet<>(operatorTypes));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.yxy.reactive.operator;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 延迟构造的兜底操作符, 配合transform使用:
+ * <pre>
+ * mono.transform(Fallbacks.switchIfEmpty(() -> method()))
+ * </pre>
+ * {@code switchIfEmpty(method())}的参数是一个表达式, java在调用switchIfEmpty之前就会先执行method(),
+ * 每次组装都会构造一条兜底的流水线, 即使上游从来不为空. 这里的参数都是Supplier, 只有真正需要兜底时才会调用
+ * Created by Nuclear on 2026/10/17
+ */
+public final class Fallbacks {
+
+    private Fallbacks() {
+    }
+
+    /**
+     * 上游为空时才调用fallback
+     */
+    public static <T> Function<Mono<T>, Mono<T>> switchIfEmpty(Supplier<? extends Mono<? extends T>> fallback) {
+        return mono -> mono.switchIfEmpty(Mono.defer(fallback));
+    }
+
+    public static <T> Function<Flux<T>, Flux<T>> switchIfEmptyMany(Supplier<? extends Publisher<? extends T>> fallback) {
+        return flux -> flux.switchIfEmpty(Flux.defer(() -> Flux.<T>from(fallback.get())));
+    }
+
+    /**
+     * 上游为空时才计算默认值, supplier返回null时结果仍然为空
+     */
+    public static <T> Function<Mono<T>, Mono<T>> defaultIfEmpty(Supplier<? extends T> value) {
+        return mono -> mono.switchIfEmpty(Mono.fromSupplier(value));
+    }
+
+    /**
+     * 出错时才调用fallback, 不关心是什么错误
+     */
+    public static <T> Function<Mono<T>, Mono<T>> onErrorResume(Supplier<? extends Mono<? extends T>> fallback) {
+        return mono -> mono.onErrorResume(e -> fallback.get());
+    }
+
+    /**
+     * 超时才调用fallback
+     */
+    public static <T> Function<Mono<T>, Mono<T>> timeout(Duration timeout, Supplier<? extends Mono<? extends T>> fallback) {
+        return mono -> mono.timeout(timeout, Mono.defer(fallback));
+    }
+}
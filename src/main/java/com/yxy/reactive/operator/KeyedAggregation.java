@@ -0,0 +1,272 @@
+package com.yxy.reactive.operator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * 按key分组并按时间窗口聚合, 代替{@code groupBy(key).flatMap(group -> group.window(...).reduce(...))}
+ * <pre>
+ * flux.transform(KeyedAggregation.builder(Person::getName)
+ *         .sliding(Duration.ofSeconds(10), Duration.ofSeconds(1))
+ *         .maxKeys(100_000)
+ *         .build(Collectors.counting()))
+ * </pre>
+ * groupBy每个key一个GroupedFlux和一组订阅者, 同时打开的组超过prefetch后会卡住. 这里所有key的状态放在一张HashMap里,
+ * 每个值用{@link Collector}的accumulator折叠进key当前的累加器, 每个窗口结束时发出一个{@link KeyedWindow}, 包含窗口内所有key的结果.
+ * <ul>
+ * <li>tumbling: 窗口首尾相接, 每个key一个累加器</li>
+ * <li>sliding: 窗口长size, 每slide发出一次. 每个key保存size/slide个分片的累加器, 发出时用combiner合并成新的累加器,
+ * 所以Collector的combiner要能把右边合并进左边</li>
+ * <li>idleTimeout: 超过这个时间没有新值的key在窗口结束时移除, 默认等于窗口长度. 设得更长可以让断续出现的key复用条目</li>
+ * <li>maxKeys: 状态里最多保存的key数, 满了以后新key的值被丢弃并计入{@link KeyedWindow#getDroppedCount()}, 已有的key不受影响</li>
+ * </ul>
+ * 窗口从订阅时开始计时, 时钟和定时都来自scheduler, 测试时可以用VirtualTimeScheduler. 源结束时发出最后一个不完整的窗口.
+ * 值和定时信号经过merge串行化, 状态不需要加锁. 下游长时间不请求时定时信号会积压, 超过merge的prefetch后报Overflow错误
+ * Created by Nuclear on 2026/10/17
+ */
+public final class KeyedAggregation {
+
+    public static final int DEFAULT_MAX_KEYS = 1_000_000;
+
+    //merge之后用来区分定时信号和源的结束
+    private static final Object TICK = new Object();
+    private static final Object END = new Object();
+
+    private KeyedAggregation() {
+    }
+
+    public static <T, K> Builder<T, K> builder(Function<? super T, ? extends K> classifier) {
+        return new Builder<>(Objects.requireNonNull(classifier, "classifier"));
+    }
+
+    public static final class Builder<T, K> {
+        private final Function<? super T, ? extends K> classifier;
+        private Duration size = Duration.ofSeconds(1);
+        private Duration slide = size;
+        private Duration idleTimeout;
+        private int maxKeys = DEFAULT_MAX_KEYS;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        private Builder(Function<? super T, ? extends K> classifier) {
+            this.classifier = classifier;
+        }
+
+        public Builder<T, K> tumbling(Duration size) {
+            return sliding(size, size);
+        }
+
+        /**
+         * @param size  窗口长度, 必须是slide的整数倍
+         * @param slide 每隔多久发出一个窗口
+         */
+        public Builder<T, K> sliding(Duration size, Duration slide) {
+            if (slide.isNegative() || slide.isZero()) {
+                throw new IllegalArgumentException("slide must be positive: " + slide);
+            }
+            if (size.toNanos() % slide.toNanos() != 0) {
+                throw new IllegalArgumentException("size must be a multiple of slide: " + size + ", " + slide);
+            }
+            this.size = size;
+            this.slide = slide;
+            return this;
+        }
+
+        /**
+         * 不能短于窗口长度, 否则窗口内还有数据的key会被移除
+         */
+        public Builder<T, K> idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder<T, K> maxKeys(int maxKeys) {
+            if (maxKeys <= 0) {
+                throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+            }
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        public Builder<T, K> scheduler(Scheduler scheduler) {
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            return this;
+        }
+
+        public <A, R> Function<Flux<T>, Flux<KeyedWindow<K, R>>> build(Collector<? super T, A, R> collector) {
+            Objects.requireNonNull(collector, "collector");
+            Duration idle = idleTimeout == null ? size : idleTimeout;
+            if (idle.compareTo(size) < 0) {
+                throw new IllegalArgumentException("idleTimeout must not be shorter than the window: " + idle + ", " + size);
+            }
+            int panes = (int) (size.toNanos() / slide.toNanos());
+            //向上取整, 保证空闲的key在窗口里已经没有数据
+            long idlePanes = (idle.toNanos() + slide.toNanos() - 1) / slide.toNanos();
+            Function<? super T, ? extends K> classifier = this.classifier;
+            Duration slide = this.slide;
+            int maxKeys = this.maxKeys;
+            Scheduler scheduler = this.scheduler;
+            return source -> Flux.defer(() -> {
+                State<T, K, A, R> state = new State<>(classifier, collector, panes, idlePanes, maxKeys,
+                        scheduler.now(TimeUnit.MILLISECONDS), slide.toMillis());
+                Flux<Object> ticks = Flux.interval(slide, slide, scheduler).map(tick -> TICK);
+                return Flux.<Object>merge(Flux.<Object>concat(source, Mono.just(END)), ticks)
+                        .handle((signal, sink) -> {
+                            if (signal == TICK) {
+                                sink.next(state.close(state.paneEnd()));
+                            } else if (signal == END) {
+                                sink.next(state.close(scheduler.now(TimeUnit.MILLISECONDS)));
+                                sink.complete();
+                            } else {
+                                @SuppressWarnings("unchecked")
+                                T value = (T) signal;
+                                state.add(value);
+                            }
+                        });
+            });
+        }
+    }
+
+    /**
+     * 所有key的状态, 只在merge之后串行访问
+     */
+    private static final class State<T, K, A, R> {
+        private final Function<? super T, ? extends K> classifier;
+        private final Supplier<A> supplier;
+        private final BiConsumer<A, ? super T> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final int panes;
+        private final long idlePanes;
+        private final int maxKeys;
+        private final long origin;
+        private final long slideMillis;
+
+        private final HashMap<K, Entry> entries = new HashMap<>();
+        //当前正在写入的分片序号, 每次close加1
+        private long pane;
+        private long dropped;
+
+        State(Function<? super T, ? extends K> classifier, Collector<? super T, A, R> collector, int panes, long idlePanes,
+              int maxKeys, long origin, long slideMillis) {
+            this.classifier = classifier;
+            this.supplier = collector.supplier();
+            this.accumulator = collector.accumulator();
+            this.combiner = collector.combiner();
+            this.finisher = collector.finisher();
+            this.panes = panes;
+            this.idlePanes = idlePanes;
+            this.maxKeys = maxKeys;
+            this.origin = origin;
+            this.slideMillis = slideMillis;
+        }
+
+        void add(T value) {
+            K key = classifier.apply(value);
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                if (entries.size() >= maxKeys) {
+                    dropped++;
+                    return;
+                }
+                entry = new Entry(panes);
+                entries.put(key, entry);
+            }
+            int slot = (int) (pane % panes);
+            //分片槽位里是更早的分片时懒惰地换成新的累加器, 不用在每次close时遍历重置
+            if (entry.panes[slot] != pane) {
+                entry.accumulators[slot] = supplier.get();
+                entry.panes[slot] = pane;
+            }
+            @SuppressWarnings("unchecked")
+            A container = (A) entry.accumulators[slot];
+            accumulator.accept(container, value);
+            entry.lastPane = pane;
+        }
+
+        /**
+         * 当前分片按计划的结束时间
+         */
+        long paneEnd() {
+            return origin + (pane + 1) * slideMillis;
+        }
+
+        /**
+         * 关闭当前分片, 发出以它结尾的窗口
+         *
+         * @param end 窗口结束时间, 源提前结束时是当前时间
+         */
+        KeyedWindow<K, R> close(long end) {
+            long first = pane - panes + 1;
+            //这个分片之后就不在任何窗口里了, 释放累加器
+            int expiring = Math.floorMod(first, panes);
+            Map<K, R> results = new HashMap<>(Math.max(16, entries.size() * 4 / 3 + 1));
+            int evicted = 0;
+            for (Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator(); iterator.hasNext(); ) {
+                Map.Entry<K, Entry> mapEntry = iterator.next();
+                Entry entry = mapEntry.getValue();
+                if (pane - entry.lastPane >= idlePanes) {
+                    iterator.remove();
+                    evicted++;
+                    continue;
+                }
+                A merged = merge(entry, first);
+                if (merged != null) {
+                    results.put(mapEntry.getKey(), finisher.apply(merged));
+                }
+                if (entry.panes[expiring] == first) {
+                    entry.accumulators[expiring] = null;
+                    entry.panes[expiring] = -1;
+                }
+            }
+            long start = origin + Math.max(0, first) * slideMillis;
+            KeyedWindow<K, R> window = new KeyedWindow<>(start, end, results, dropped, evicted, entries.size());
+            pane++;
+            dropped = 0;
+            return window;
+        }
+
+        @SuppressWarnings("unchecked")
+        private A merge(Entry entry, long first) {
+            if (panes == 1) {
+                //滚动窗口的累加器不会再被写入, 直接交给finisher
+                return entry.panes[0] == pane ? (A) entry.accumulators[0] : null;
+            }
+            A merged = null;
+            for (long p = Math.max(0, first); p <= pane; p++) {
+                int slot = (int) (p % panes);
+                if (entry.panes[slot] == p) {
+                    merged = combiner.apply(merged == null ? supplier.get() : merged, (A) entry.accumulators[slot]);
+                }
+            }
+            return merged;
+        }
+    }
+
+    private static final class Entry {
+        //按分片序号取模存放, panes[i]是accumulators[i]所属的分片, -1表示空
+        final Object[] accumulators;
+        final long[] panes;
+        long lastPane;
+
+        Entry(int panes) {
+            this.accumulators = new Object[panes];
+            this.panes = new long[panes];
+            Arrays.fill(this.panes, -1);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.yxy.reactive.operator;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link KeyedAggregation}一个窗口的结果: 窗口内出现过的每个key的聚合值
+ * Created by Nuclear on 2026/10/17
+ */
+@Getter
+public class KeyedWindow<K, R> {
+
+    //窗口起止时间, Scheduler的毫秒时钟, [start, end)
+    private final long start;
+    private final long end;
+    private final Map<K, R> results;
+    //这个窗口内因为key数达到maxKeys而丢弃的值
+    private final long droppedCount;
+    //这次关闭窗口时因空闲而移除的key
+    private final int evictedCount;
+    //关闭窗口后还保留状态的key数
+    private final int keyCount;
+
+    public KeyedWindow(long start, long end, Map<K, R> results, long droppedCount, int evictedCount, int keyCount) {
+        this.start = start;
+        this.end = end;
+        this.results = Collections.unmodifiableMap(results);
+        this.droppedCount = droppedCount;
+        this.evictedCount = evictedCount;
+        this.keyCount = keyCount;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyedWindow{start=" + start + ", end=" + end + ", results=" + results + ", droppedCount=" + droppedCount
+                + ", evictedCount=" + evictedCount + ", keyCount=" + keyCount + "}";
+    }
+}
@@ -0,0 +1,324 @@
+package com.yxy.reactive.operator;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.ParallelFlux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 用{@link Spliterator#trySplit()}把数据源切成若干段, 每个rail在自己的Worker上直接遍历分到的段
+ * <p>
+ * {@code Flux.fromIterable(list).parallel().runOn(scheduler)}由一个线程顺序拉取, 再经过每个rail的队列逐个交给其他线程.
+ * 这里没有这个中转: 所有段放在一个共享队列里, rail取到一段后先把它对半切, 前半段放回队列, 直到剩下的不超过batchSize,
+ * 然后在本线程上遍历这一小段. 某个rail的数据先用完时会从队列里取到别的rail切出来的部分, 最后各rail相差不超过一个batch.
+ * 大小未知的段(比如{@link java.util.Spliterators#spliteratorUnknownSize})每次只切一批, 不会一口气读完整个迭代器;
+ * 不能切分的段(比如有序流的limit)只能由一个rail遍历.
+ * <p>
+ * 下游请求无限时整段用forEachRemaining发出, 每段之间检查取消; 有限请求时逐个tryAdvance, 并且提前取一个元素,
+ * 请求量刚好用完时如果数据也结束了, 立即发出完成信号.
+ * 元素没有顺序保证, 订阅一次遍历一次, Spliterator不能重复使用, 所以只能订阅一次, 再次订阅时每个rail都收到IllegalStateException
+ * Created by Nuclear on 2026/10/17
+ */
+public class SpliteratorParallelFlux<T> extends ParallelFlux<T> {
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final Spliterator<? extends T> source;
+    private final int parallelism;
+    private final Scheduler scheduler;
+    private final int batchSize;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    public SpliteratorParallelFlux(Spliterator<? extends T> source, int parallelism, Scheduler scheduler, int batchSize) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.source = Objects.requireNonNull(source, "source");
+        this.parallelism = parallelism;
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 默认rail数与Schedulers.parallel()的线程数相同
+     */
+    public static <T> SpliteratorParallelFlux<T> from(Spliterator<? extends T> source) {
+        return new SpliteratorParallelFlux<>(source, Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel(), DEFAULT_BATCH_SIZE);
+    }
+
+    public static <T> SpliteratorParallelFlux<T> fromIterable(Iterable<? extends T> iterable) {
+        return from(iterable.spliterator());
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> SpliteratorParallelFlux<T> fromArray(T... array) {
+        return from(Arrays.spliterator(array));
+    }
+
+    /**
+     * 流的终端操作, 调用后stream不能再用
+     */
+    public static <T> SpliteratorParallelFlux<T> fromStream(Stream<? extends T> stream) {
+        return from(stream.spliterator());
+    }
+
+    /**
+     * 与Flux.range相同, 最后一个值start + count - 1不能超过Integer.MAX_VALUE
+     */
+    public static SpliteratorParallelFlux<Integer> range(int start, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        if ((long) start + count > Integer.MAX_VALUE + 1L) {
+            throw new IllegalArgumentException("start + count must not exceed Integer.MAX_VALUE + 1: " + start + " + " + count);
+        }
+        IntStream range = count == 0 ? IntStream.empty() : IntStream.rangeClosed(start, start + count - 1);
+        return from(range.spliterator());
+    }
+
+    @Override
+    public int parallelism() {
+        return parallelism;
+    }
+
+    @Override
+    protected void subscribe(CoreSubscriber<? super T>[] subscribers) {
+        if (!validate(subscribers)) {
+            return;
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            for (CoreSubscriber<? super T> subscriber : subscribers) {
+                Operators.error(subscriber, new IllegalStateException("SpliteratorParallelFlux allows only a single subscriber"));
+            }
+            return;
+        }
+        Chunks<T> chunks = new Chunks<>(source, parallelism, batchSize);
+        for (CoreSubscriber<? super T> subscriber : subscribers) {
+            subscriber.onSubscribe(new Rail<>(subscriber, chunks, scheduler.createWorker()));
+        }
+    }
+
+    /**
+     * 所有rail共享的待处理段
+     */
+    static final class Chunks<T> {
+        private final Queue<Spliterator<? extends T>> queue = new ConcurrentLinkedQueue<>();
+        //正在切分的rail数, 切出来的段还没放回队列, 这时队列空了不代表数据已经取完
+        private final AtomicInteger splitting = new AtomicInteger();
+        private final int batchSize;
+
+        Chunks(Spliterator<? extends T> source, int parallelism, int batchSize) {
+            this.batchSize = batchSize;
+            //先在订阅线程上切出至少parallelism段, 各rail一开始就有事做
+            Queue<Spliterator<? extends T>> pending = new ArrayDeque<>();
+            pending.add(source);
+            int rounds = 32 - Integer.numberOfLeadingZeros(parallelism - 1);
+            for (int i = 0; i < rounds; i++) {
+                for (int n = pending.size(); n > 0; n--) {
+                    Spliterator<? extends T> chunk = pending.poll();
+                    Spliterator<? extends T> prefix = chunk.estimateSize() > batchSize ? chunk.trySplit() : null;
+                    if (prefix != null) {
+                        pending.add(prefix);
+                    }
+                    pending.add(chunk);
+                }
+            }
+            queue.addAll(pending);
+        }
+
+        /**
+         * @return 不超过batchSize(或者无法再切)的一段, 所有数据都已经被取走时返回null
+         */
+        Spliterator<? extends T> take() {
+            for (; ; ) {
+                splitting.incrementAndGet();
+                Spliterator<? extends T> chunk = queue.poll();
+                if (chunk != null) {
+                    Spliterator<? extends T> prefix;
+                    if (chunk.estimateSize() == Long.MAX_VALUE) {
+                        //大小未知(比如迭代器), 切一次就够了: 自己拿前面切出来的一批, 剩下的放回队列
+                        prefix = chunk.trySplit();
+                        if (prefix != null) {
+                            queue.offer(chunk);
+                            chunk = prefix;
+                        }
+                    } else {
+                        while (chunk.estimateSize() > batchSize && (prefix = chunk.trySplit()) != null) {
+                            queue.offer(prefix);
+                        }
+                    }
+                    splitting.decrementAndGet();
+                    return chunk;
+                }
+                splitting.decrementAndGet();
+                //先确认没有rail在切分, 再确认队列为空; 切分的rail放回队列之后才减计数
+                if (splitting.get() == 0 && queue.isEmpty()) {
+                    return null;
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    static final class Rail<T> implements Subscription, Runnable {
+        private final CoreSubscriber<? super T> actual;
+        private final Chunks<T> chunks;
+        private final Scheduler.Worker worker;
+
+        private volatile long requested;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicLongFieldUpdater<Rail> REQUESTED = AtomicLongFieldUpdater.newUpdater(Rail.class, "requested");
+        private volatile int wip;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Rail> WIP = AtomicIntegerFieldUpdater.newUpdater(Rail.class, "wip");
+        private volatile boolean cancelled;
+
+        //只在worker上访问
+        private Spliterator<? extends T> current;
+        //有限请求时提前取出的下一个元素, 用来在请求量刚好用完时判断数据是否已经结束
+        private T pending;
+        private final Consumer<T> lookahead = value -> pending = value;
+        private boolean done;
+
+        Rail(CoreSubscriber<? super T> actual, Chunks<T> chunks, Scheduler.Worker worker) {
+            this.actual = actual;
+            this.chunks = chunks;
+            this.worker = worker;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                Operators.addCap(REQUESTED, this, n);
+                if (WIP.getAndIncrement(this) == 0) {
+                    worker.schedule(this);
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            worker.dispose();
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (requested == Long.MAX_VALUE) {
+                    fastPath();
+                } else {
+                    slowPath();
+                }
+            } catch (Throwable e) {
+                if (!done) {
+                    done = true;
+                    worker.dispose();
+                    actual.onError(Operators.onOperatorError(this, e, actual.currentContext()));
+                }
+            }
+        }
+
+        private void fastPath() {
+            if (pending != null) {
+                T value = pending;
+                pending = null;
+                actual.onNext(value);
+            }
+            for (; ; ) {
+                if (cancelled) {
+                    return;
+                }
+                Spliterator<? extends T> chunk = current != null ? current : chunks.take();
+                current = null;
+                if (chunk == null) {
+                    complete();
+                    return;
+                }
+                chunk.forEachRemaining(actual::onNext);
+            }
+        }
+
+        private void slowPath() {
+            int missed = 1;
+            for (; ; ) {
+                long r = requested;
+                long e = 0;
+                while (e != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (exhausted()) {
+                        complete();
+                        return;
+                    }
+                    T value = pending;
+                    pending = null;
+                    actual.onNext(value);
+                    e++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                //请求量用完时数据也可能正好结束, 不等下一次request就完成
+                if (exhausted()) {
+                    complete();
+                    return;
+                }
+                if (e != 0 && r != Long.MAX_VALUE) {
+                    REQUESTED.addAndGet(this, -e);
+                }
+                missed = WIP.addAndGet(this, -missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 保证pending里有下一个元素, 所有数据都已经取完时返回true
+         */
+        private boolean exhausted() {
+            while (pending == null) {
+                if (current == null) {
+                    current = chunks.take();
+                    if (current == null) {
+                        return true;
+                    }
+                }
+                if (!current.tryAdvance(lookahead)) {
+                    current = null;
+                }
+            }
+            return false;
+        }
+
+        private void complete() {
+            if (!done) {
+                done = true;
+                worker.dispose();
+                actual.onComplete();
+            }
+        }
+    }
+}
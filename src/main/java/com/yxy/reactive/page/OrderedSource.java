@@ -0,0 +1,60 @@
+package com.yxy.reactive.page;
+
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Flux;
+
+import java.util.NavigableMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 按key有序、可以直接定位到某个key之后的数据源, 供{@link Paginator}做keyset分页
+ * Created by Nuclear on 2026/10/17
+ */
+public interface OrderedSource<K, T> {
+
+    /**
+     * key之后(不含key)的最多limit个元素, key为null时从头开始
+     */
+    Flux<T> after(@Nullable K key, int limit);
+
+    /**
+     * 元素的key, 作为下一页的游标
+     */
+    K keyOf(T item);
+
+    /**
+     * 由定位函数构造
+     */
+    static <K, T> OrderedSource<K, T> of(BiFunction<K, Integer, Flux<T>> after, Function<T, K> keyOf) {
+        return new OrderedSource<>() {
+            @Override
+            public Flux<T> after(K key, int limit) {
+                return after.apply(key, limit);
+            }
+
+            @Override
+            public K keyOf(T item) {
+                return keyOf.apply(item);
+            }
+        };
+    }
+
+    /**
+     * 有序Map, 用tailMap定位, 元素是value. 并发读写时用ConcurrentSkipListMap
+     */
+    static <K, T> OrderedSource<K, T> of(NavigableMap<K, T> map, Function<T, K> keyOf) {
+        return of((key, limit) -> Flux.fromIterable((key == null ? map : map.tailMap(key, false)).values()).take(limit), keyOf);
+    }
+
+    /**
+     * [start, start + count)的整数, 元素本身就是key
+     */
+    static OrderedSource<Integer, Integer> range(int start, int count) {
+        int end = start + count;
+        return of((key, limit) -> {
+            long from = key == null ? start : Math.max(start, (long) key + 1);
+            return from >= end ? Flux.empty() : Flux.range((int) from, (int) Math.min(limit, end - from));
+        }, Function.identity());
+    }
+}
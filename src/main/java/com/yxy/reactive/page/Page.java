@@ -0,0 +1,34 @@
+package com.yxy.reactive.page;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一页数据和下一页的游标
+ * Created by Nuclear on 2026/10/17
+ */
+@Getter
+public class Page<T> {
+
+    private final List<T> items;
+    //下一页的游标, 最后一页为null
+    @Nullable
+    private final String next;
+
+    public Page(List<T> items, @Nullable String next) {
+        this.items = Collections.unmodifiableList(items);
+        this.next = next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{items=" + items + ", next=" + next + "}";
+    }
+}
@@ -0,0 +1,169 @@
+package com.yxy.reactive.page;
+
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * keyset(游标)分页
+ * <p>
+ * skip((num - 1) * size).take(size)要先生成再丢弃前面所有的元素, 越往后越慢.
+ * 这里游标记录上一页最后一个元素的key, 翻页时直接在{@link OrderedSource}里定位到这个key之后, 每一页的耗时与页码无关.
+ * 游标对调用方是不透明的字符串(base64url), 只能原样传回.
+ * <p>
+ * 开启预取时, 每返回一页就在后台加载下一页并缓存, 客户端顺序翻页时下一页通常已经准备好了.
+ * 预取的页是加载那一刻的快照, 被取走或者被挤出缓存(最多{@link #MAX_PREFETCHED}页)后失效
+ * Created by Nuclear on 2026/10/17
+ */
+public class Paginator<K, T> {
+
+    public static final int MAX_PREFETCHED = 1024;
+
+    private static final String VERSION = "1:";
+
+    private final OrderedSource<K, T> source;
+    private final Function<K, String> keyWriter;
+    private final Function<String, K> keyReader;
+    @Nullable
+    private final Scheduler prefetchOn;
+
+    //游标+页大小 -> 后台加载中或者已经加载好的页
+    private final Map<String, Mono<Page<T>>> prefetched = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Mono<Page<T>>> eldest) {
+            return size() > MAX_PREFETCHED;
+        }
+    };
+
+    /**
+     * @param keyWriter key转成字符串, 写进游标
+     * @param keyReader 从游标里的字符串还原key
+     */
+    public Paginator(OrderedSource<K, T> source, Function<K, String> keyWriter, Function<String, K> keyReader) {
+        this(source, keyWriter, keyReader, null);
+    }
+
+    /**
+     * @param prefetchOn 预取下一页使用的Scheduler, null表示不预取
+     */
+    public Paginator(OrderedSource<K, T> source, Function<K, String> keyWriter, Function<String, K> keyReader,
+                     @Nullable Scheduler prefetchOn) {
+        this.source = source;
+        this.keyWriter = keyWriter;
+        this.keyReader = keyReader;
+        this.prefetchOn = prefetchOn;
+    }
+
+    public static <T> Paginator<Integer, T> ofIntKeys(OrderedSource<Integer, T> source, @Nullable Scheduler prefetchOn) {
+        return new Paginator<>(source, String::valueOf, Integer::valueOf, prefetchOn);
+    }
+
+    public static <T> Paginator<Long, T> ofLongKeys(OrderedSource<Long, T> source, @Nullable Scheduler prefetchOn) {
+        return new Paginator<>(source, String::valueOf, Long::valueOf, prefetchOn);
+    }
+
+    public static <T> Paginator<String, T> ofStringKeys(OrderedSource<String, T> source, @Nullable Scheduler prefetchOn) {
+        return new Paginator<>(source, Function.identity(), Function.identity(), prefetchOn);
+    }
+
+    /**
+     * 第一页
+     */
+    public Mono<Page<T>> first(int size) {
+        return page(null, size);
+    }
+
+    /**
+     * @param cursor 上一页的{@link Page#getNext()}, null表示第一页
+     * @throws IllegalArgumentException 游标不合法或者size不是正数(以Mono.error的形式)
+     */
+    public Mono<Page<T>> page(@Nullable String cursor, int size) {
+        if (size <= 0) {
+            return Mono.error(new IllegalArgumentException("page size must be positive: " + size));
+        }
+        return Mono.defer(() -> {
+            K key = cursor == null ? null : decode(cursor);
+            if (prefetchOn == null) {
+                return load(key, size);
+            }
+            Mono<Page<T>> page;
+            synchronized (prefetched) {
+                page = prefetched.remove(cursor + "/" + size);
+            }
+            if (page == null) {
+                page = load(key, size);
+            } else {
+                //预取失败时重新加载
+                page = page.onErrorResume(e -> load(key, size));
+            }
+            return page.doOnNext(loaded -> prefetch(loaded.getNext(), size));
+        });
+    }
+
+    private Mono<Page<T>> load(@Nullable K key, int size) {
+        return source.after(key, size + 1)
+                .collectList()
+                .map(items -> {
+                    if (items.size() <= size) {
+                        return new Page<>(items, null);
+                    }
+                    List<T> page = new ArrayList<>(items.subList(0, size));
+                    return new Page<>(page, encode(source.keyOf(page.get(size - 1))));
+                });
+    }
+
+    private void prefetch(@Nullable String cursor, int size) {
+        if (cursor == null) {
+            return;
+        }
+        String id = cursor + "/" + size;
+        Mono<Page<T>> page;
+        synchronized (prefetched) {
+            if (prefetched.containsKey(id)) {
+                return;
+            }
+            page = load(decode(cursor), size).subscribeOn(prefetchOn).cache();
+            prefetched.put(id, page);
+        }
+        page.subscribe(null, e -> {
+        });
+    }
+
+    private String encode(K key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((VERSION + keyWriter.apply(key)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private K decode(String cursor) {
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+        if (!text.startsWith(VERSION)) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        try {
+            return keyReader.apply(text.substring(VERSION.length()));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * 当前缓存中已经预取(或正在预取)的页数
+     */
+    public int prefetchedPages() {
+        synchronized (prefetched) {
+            return prefetched.size();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.yxy.reactive.repository;
+
+import com.yxy.reactive.model.Person;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存中的Person仓库
+ * <ul>
+ * <li>主索引: name -> Person</li>
+ * <li>二级索引: sex -> (name -> Person), 插入、修改、删除时在主索引的compute里同步维护</li>
+ * </ul>
+ * 查询直接从索引取结果, 耗时只与结果的大小有关, 不需要每次扫描全部数据再groupingBy.
+ * 同一个name的写入在compute里串行, 不同name的写入互不阻塞; 读不加锁, 修改sex的瞬间按sex查询可能短暂看到新旧两个值之一.
+ * Person是可变对象, 存入和取出时都会复制一份, 外部修改不会影响索引
+ * Created by Nuclear on 2026/10/17
+ */
+public class PersonRepository {
+
+    //ConcurrentHashMap不能存null, sex为null的放在这个key下
+    private static final Object NULL_SEX = new Object();
+
+    private final ConcurrentHashMap<String, Person> byName = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Object, ConcurrentHashMap<String, Person>> bySex = new ConcurrentHashMap<>();
+
+    /**
+     * 插入或者覆盖, 返回之前的值
+     */
+    public Mono<Person> save(Person person) {
+        return Mono.fromSupplier(() -> put(person));
+    }
+
+    public Flux<Person> saveAll(Flux<Person> people) {
+        return people.doOnNext(this::put);
+    }
+
+    /**
+     * 同步版本, 返回之前的值, 没有时返回null
+     */
+    public Person put(Person person) {
+        String name = requireName(person);
+        Person copy = copy(person);
+        Person[] previous = new Person[1];
+        byName.compute(name, (key, old) -> {
+            if (old != null) {
+                previous[0] = copy(old);
+                if (!Objects.equals(old.getSex(), copy.getSex())) {
+                    unindex(old);
+                }
+            }
+            bySex.computeIfAbsent(sexKey(copy.getSex()), sex -> new ConcurrentHashMap<>()).put(name, copy);
+            return copy;
+        });
+        return previous[0];
+    }
+
+    /**
+     * 删除, 返回被删除的值
+     */
+    public Mono<Person> deleteByName(String name) {
+        return Mono.fromSupplier(() -> {
+            if (name == null) {
+                return null;
+            }
+            Person[] removed = new Person[1];
+            byName.computeIfPresent(name, (key, old) -> {
+                unindex(old);
+                removed[0] = copy(old);
+                return null;
+            });
+            return removed[0];
+        });
+    }
+
+    public Mono<Person> findByName(String name) {
+        return Mono.fromSupplier(() -> name == null ? null : copy(byName.get(name)));
+    }
+
+    /**
+     * 按sex查询, 直接遍历二级索引, 按需复制
+     */
+    public Flux<Person> findBySex(String sex) {
+        return Flux.defer(() -> {
+            Map<String, Person> people = bySex.get(sexKey(sex));
+            return people == null ? Flux.empty() : Flux.fromIterable(people.values()).map(PersonRepository::copy);
+        });
+    }
+
+    public Mono<Long> countBySex(String sex) {
+        return Mono.fromSupplier(() -> {
+            Map<String, Person> people = bySex.get(sexKey(sex));
+            return people == null ? 0L : people.size();
+        });
+    }
+
+    /**
+     * 所有sex的计数, 只读每个二级索引的大小
+     */
+    public Mono<Map<String, Long>> countGroupBySex() {
+        return Mono.fromSupplier(() -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            bySex.forEach((sex, people) -> {
+                long count = people.size();
+                if (count > 0) {
+                    counts.put(sex == NULL_SEX ? null : (String) sex, count);
+                }
+            });
+            return Collections.unmodifiableMap(counts);
+        });
+    }
+
+    public Flux<Person> findAll() {
+        return Flux.defer(() -> Flux.fromIterable(byName.values())).map(PersonRepository::copy);
+    }
+
+    public Mono<Long> count() {
+        return Mono.fromSupplier(byName::mappingCount);
+    }
+
+    //在主索引的compute里调用
+    private void unindex(Person old) {
+        Map<String, Person> people = bySex.get(sexKey(old.getSex()));
+        if (people != null) {
+            people.remove(old.getName());
+        }
+    }
+
+    private static String requireName(Person person) {
+        if (person.getName() == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+        return person.getName();
+    }
+
+    private static Object sexKey(String sex) {
+        return sex == null ? NULL_SEX : sex;
+    }
+
+    private static Person copy(Person person) {
+        return person == null ? null : new Person(person.getName(), person.getSex());
+    }
+}
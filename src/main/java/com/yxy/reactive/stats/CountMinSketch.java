@@ -0,0 +1,158 @@
+package com.yxy.reactive.stats;
+
+import java.util.Arrays;
+
+/**
+ * 计数最小草图(count-min sketch), 用固定内存估算任意key出现的次数
+ * <p>
+ * width = e / epsilon(向上取到2的幂), depth = ln(1 / delta). 估计值不会偏小, 以1 - delta的概率偏大不超过epsilon * 总数.
+ * 与cache包里用于TinyLFU的FrequencySketch不同, 这里的计数器是long, 不衰减, 两个参数相同的草图可以逐格相加合并. 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class CountMinSketch {
+
+    private final long[][] table;
+    private final long[] seeds;
+    private final int mask;
+    private final double epsilon;
+    private final double delta;
+    private long total;
+
+    /**
+     * @param epsilon 相对总数的误差, 比如0.001
+     * @param delta   误差超过epsilon的概率, 比如0.01
+     */
+    public CountMinSketch(double epsilon, double delta) {
+        checkArguments(epsilon, delta);
+        int width = Integer.highestOneBit((int) Math.ceil(Math.E / epsilon) * 2 - 1);
+        int depth = Math.max(1, (int) Math.ceil(Math.log(1 / delta)));
+        this.table = new long[depth][width];
+        this.seeds = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = (i + 1) * 0x9E3779B97F4A7C15L | 1;
+        }
+        this.mask = width - 1;
+        this.epsilon = epsilon;
+        this.delta = delta;
+    }
+
+    private CountMinSketch(CountMinSketch other) {
+        this.table = new long[other.table.length][];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = other.table[i].clone();
+        }
+        this.seeds = other.seeds;
+        this.mask = other.mask;
+        this.epsilon = other.epsilon;
+        this.delta = other.delta;
+        this.total = other.total;
+    }
+
+    static void checkArguments(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("epsilon must be in (0, 1): " + epsilon);
+        }
+        if (!(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("delta must be in (0, 1): " + delta);
+        }
+    }
+
+    public void add(Object key, long count) {
+        addHash(spread(key.hashCode()), count);
+    }
+
+    public long estimate(Object key) {
+        return estimateHash(spread(key.hashCode()));
+    }
+
+    /**
+     * 加上count, 返回加完之后的估计值, 比先add再estimate少算一遍哈希
+     */
+    long addHash(int hash, long count) {
+        total += count;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < table.length; i++) {
+            int index = index(hash, i);
+            min = Math.min(min, table[i][index] += count);
+        }
+        return min;
+    }
+
+    long estimateHash(int hash) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < table.length; i++) {
+            min = Math.min(min, table[i][index(hash, i)]);
+        }
+        return min;
+    }
+
+    /**
+     * 逐格相加, 两边的epsilon和delta必须相同
+     */
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.table.length != table.length || other.mask != mask) {
+            throw new IllegalArgumentException("sketches have different dimensions: " + table.length + "x" + (mask + 1)
+                    + " vs " + other.table.length + "x" + (other.mask + 1));
+        }
+        for (int i = 0; i < table.length; i++) {
+            long[] row = table[i];
+            long[] otherRow = other.table[i];
+            for (int j = 0; j < row.length; j++) {
+                row[j] += otherRow[j];
+            }
+        }
+        total += other.total;
+        return this;
+    }
+
+    public CountMinSketch copy() {
+        return new CountMinSketch(this);
+    }
+
+    /**
+     * 加入的总次数
+     */
+    public long total() {
+        return total;
+    }
+
+    public int width() {
+        return mask + 1;
+    }
+
+    public int depth() {
+        return table.length;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    public void clear() {
+        for (long[] row : table) {
+            Arrays.fill(row, 0);
+        }
+        total = 0;
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + seeds[row]) * seeds[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch{width=" + width() + ", depth=" + depth() + ", total=" + total + "}";
+    }
+}
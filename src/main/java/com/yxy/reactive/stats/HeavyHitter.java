@@ -0,0 +1,34 @@
+package com.yxy.reactive.stats;
+
+import lombok.Getter;
+
+/**
+ * {@link HeavyHitters}里的一个key: 真实次数在[count - error, count]之间
+ * Created by Nuclear on 2026/10/17
+ */
+@Getter
+public class HeavyHitter<T> {
+
+    private final T item;
+    //真实次数的上界
+    private final long count;
+    private final long error;
+
+    public HeavyHitter(T item, long count, long error) {
+        this.item = item;
+        this.count = count;
+        this.error = error;
+    }
+
+    /**
+     * 真实次数的下界
+     */
+    public long lowerBound() {
+        return count - error;
+    }
+
+    @Override
+    public String toString() {
+        return item + "=" + count + (error == 0 ? "" : "(-" + error + ")");
+    }
+}
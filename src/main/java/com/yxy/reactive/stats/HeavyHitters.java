@@ -0,0 +1,248 @@
+package com.yxy.reactive.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 出现次数最多的key(top-K), 内存固定, 用于无限流, 代替{@code groupingBy(s -> s, counting())}
+ * <p>
+ * Space-Saving算法: 最多监视capacity = 1 / epsilon个key, 用最小堆按计数排列. 新key在监视列表满了以后替换计数最小的key,
+ * 继承它的计数作为上界. 另外所有key都计入一个{@link CountMinSketch}:
+ * 新key只有在草图估计值超过堆顶计数时才替换, 继承的计数也不超过草图的估计值, 大量只出现一两次的key不会把监视列表冲掉.
+ * <p>
+ * 保证(N为总数): 真实次数超过epsilon * N的key一定在监视列表里(草图部分以1 - delta的概率), 每个key的计数偏大不超过epsilon * N,
+ * {@link HeavyHitter#getError()}给出每个key具体的误差上界. 两个参数相同的实例可以{@link #merge}, 用于并行流或ParallelFlux的各个rail.
+ * 非线程安全
+ * Created by Nuclear on 2026/10/17
+ */
+public class HeavyHitters<T> {
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final HashMap<T, Slot<T>> slots;
+    //按count的最小堆
+    private Slot<T>[] heap;
+    private int size;
+
+    /**
+     * @param epsilon 相对总数的误差, 同时决定监视的key数1 / epsilon
+     * @param delta   草图估计失败的概率
+     */
+    public HeavyHitters(double epsilon, double delta) {
+        this(new CountMinSketch(epsilon, delta), (int) Math.ceil(1 / epsilon));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private HeavyHitters(CountMinSketch sketch, int capacity) {
+        this.sketch = sketch;
+        this.capacity = capacity;
+        this.slots = new HashMap<>(capacity * 2);
+        this.heap = new Slot[capacity];
+    }
+
+    public void add(T item) {
+        add(item, 1);
+    }
+
+    public void add(T item, long count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        long estimate = sketch.addHash(CountMinSketch.spread(item.hashCode()), count);
+        Slot<T> slot = slots.get(item);
+        if (slot != null) {
+            slot.count += count;
+            siftDown(slot.index);
+            return;
+        }
+        if (size < capacity) {
+            //还没满时的计数是精确的
+            slot = new Slot<>(item, count, 0);
+            slots.put(item, slot);
+            heap[size] = slot;
+            slot.index = size++;
+            siftUp(slot.index);
+            return;
+        }
+        Slot<T> min = heap[0];
+        if (estimate <= min.count) {
+            return;
+        }
+        slots.remove(min.item);
+        long upper = Math.min(min.count + count, estimate);
+        min.item = item;
+        min.count = upper;
+        min.error = upper - count;
+        slots.put(item, min);
+        siftDown(0);
+    }
+
+    /**
+     * 监视中的key返回它的计数, 其他key返回草图的估计值, 都不会偏小
+     */
+    public long estimate(T item) {
+        Slot<T> slot = slots.get(item);
+        if (slot != null) {
+            return slot.count;
+        }
+        //没满时没被监视的key一定没出现过; 满了以后不超过堆顶计数
+        return size < capacity ? 0 : Math.min(sketch.estimate(item), heap[0].count);
+    }
+
+    /**
+     * 计数最大的n个key, 从大到小
+     */
+    public List<HeavyHitter<T>> top(int n) {
+        Slot<T>[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingLong((Slot<T> slot) -> slot.count).reversed());
+        List<HeavyHitter<T>> top = new ArrayList<>(Math.min(n, size));
+        for (int i = 0; i < sorted.length && i < n; i++) {
+            top.add(new HeavyHitter<>(sorted[i].item, sorted[i].count, sorted[i].error));
+        }
+        return top;
+    }
+
+    /**
+     * 合并另一个实例(比如另一个rail的), other不变
+     * <p>
+     * 一边没有监视的key, 在那一边的次数上界是它的堆顶计数(没满时是0), 下界是0; 合并后的上界再用合并后的草图收紧, 保留上界最大的capacity个
+     */
+    public HeavyHitters<T> merge(HeavyHitters<T> other) {
+        if (other.capacity != capacity) {
+            throw new IllegalArgumentException("capacity differs: " + capacity + " vs " + other.capacity);
+        }
+        sketch.merge(other.sketch);
+        long thisMissing = size < capacity ? 0 : heap[0].count;
+        long otherMissing = other.size < other.capacity ? 0 : other.heap[0].count;
+        Map<T, long[]> bounds = new HashMap<>((size + other.size) * 2);
+        for (int i = 0; i < size; i++) {
+            Slot<T> slot = heap[i];
+            Slot<T> match = other.slots.get(slot.item);
+            long upper = slot.count + (match == null ? otherMissing : match.count);
+            long lower = slot.count - slot.error + (match == null ? 0 : match.count - match.error);
+            bounds.put(slot.item, new long[]{upper, lower});
+        }
+        for (int i = 0; i < other.size; i++) {
+            Slot<T> slot = other.heap[i];
+            if (!slots.containsKey(slot.item)) {
+                bounds.put(slot.item, new long[]{slot.count + thisMissing, slot.count - slot.error});
+            }
+        }
+        List<Slot<T>> merged = new ArrayList<>(bounds.size());
+        bounds.forEach((item, bound) -> {
+            long upper = Math.min(bound[0], sketch.estimate(item));
+            merged.add(new Slot<>(item, upper, upper - bound[1]));
+        });
+        merged.sort(Comparator.comparingLong((Slot<T> slot) -> slot.count).reversed());
+        slots.clear();
+        size = 0;
+        for (Slot<T> slot : merged) {
+            if (size == capacity) {
+                break;
+            }
+            slots.put(slot.item, slot);
+            heap[size] = slot;
+            slot.index = size++;
+        }
+        //从大到小排列的数组反过来就是最小堆
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            swap(i, j);
+        }
+        return this;
+    }
+
+    /**
+     * 深拷贝, 用于在写入线程之外取快照
+     */
+    public HeavyHitters<T> copy() {
+        HeavyHitters<T> copy = new HeavyHitters<>(sketch.copy(), capacity);
+        for (int i = 0; i < size; i++) {
+            Slot<T> slot = new Slot<>(heap[i].item, heap[i].count, heap[i].error);
+            slot.index = i;
+            copy.heap[i] = slot;
+            copy.slots.put(slot.item, slot);
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 加入的总次数
+     */
+    public long total() {
+        return sketch.total();
+    }
+
+    /**
+     * 监视的key数上限
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        sketch.clear();
+        slots.clear();
+        Arrays.fill(heap, null);
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= heap[index].count) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        for (; ; ) {
+            int smallest = index;
+            int left = index * 2 + 1;
+            if (left < size && heap[left].count < heap[smallest].count) {
+                smallest = left;
+            }
+            if (left + 1 < size && heap[left + 1].count < heap[smallest].count) {
+                smallest = left + 1;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        Slot<T> slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    @Override
+    public String toString() {
+        return top(10).toString();
+    }
+
+    private static final class Slot<T> {
+        T item;
+        long count;
+        long error;
+        int index;
+
+        Slot(T item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.yxy.reactive.stats;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.ParallelFlux;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * 可以被多个线程同时写入的{@link HeavyHitters}, 用于运行中的无限流: 元素照常往下游走, 定时取快照看当前的top-K
+ * <pre>
+ * HeavyHittersRecorder&lt;String&gt; recorder = new HeavyHittersRecorder&lt;&gt;(0.001, 0.01);
+ * words.transform(recorder.recording()).subscribe(...);
+ * recorder.intervals(Duration.ofSeconds(10), 20).subscribe(log::info);
+ * </pre>
+ * 与{@link HistogramRecorder}一样每个写入线程一份(ThreadLocal), ParallelFlux的每个rail只写自己的那份.
+ * HeavyHitters里有HashMap和堆, 不能在写入的同时读取, 所以每份用自己的锁保护: 平时只有所在的线程加锁, 没有竞争;
+ * 取快照时逐个加锁复制, 然后合并.
+ * <p>
+ * {@link #snapshots}是从开始到现在的累计值; {@link #intervals}是每个周期内的top-K, 即"现在"的热点:
+ * 每个周期把各线程的实例换成空的, 换下来的合并成这个周期的结果, 再并入累计值.
+ * <p>
+ * 内存是(活着的写入线程数 + 2) * 单份的大小, 用了intervals后每个线程多一份备用, 与key数无关. 写入线程结束后, 它的数据在下一次取快照时并入累计值, 那一份随之释放,
+ * 所以boundedElastic这类会不断新建线程的调度器也不会让内存一直增长
+ * Created by Nuclear on 2026/10/17
+ */
+public class HeavyHittersRecorder<T> {
+
+    private final double epsilon;
+    private final double delta;
+    private final ThreadLocal<Shard<T>> local = ThreadLocal.withInitial(this::register);
+    private final Queue<Shard<T>> shards = new ConcurrentLinkedQueue<>();
+    //已经结束的线程和已经发出的周期的数据, 只在持有this的锁时访问
+    private final HeavyHitters<T> retired;
+
+    public HeavyHittersRecorder(double epsilon, double delta) {
+        CountMinSketch.checkArguments(epsilon, delta);
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.retired = new HeavyHitters<>(epsilon, delta);
+    }
+
+    public void record(T item) {
+        Shard<T> shard = local.get();
+        synchronized (shard) {
+            shard.current.add(item);
+        }
+    }
+
+    /**
+     * 所有线程从开始到现在的数据合并后的副本
+     */
+    public synchronized HeavyHitters<T> snapshot() {
+        HeavyHitters<T> merged = retired.copy();
+        for (Iterator<Shard<T>> iterator = shards.iterator(); iterator.hasNext(); ) {
+            Shard<T> shard = iterator.next();
+            if (!shard.isAlive()) {
+                //线程已经结束, 不会再写入, 数据移到累计值里
+                iterator.remove();
+                retired.merge(shard.current);
+                merged.merge(shard.current);
+                continue;
+            }
+            HeavyHitters<T> copy;
+            synchronized (shard) {
+                copy = shard.current.copy();
+            }
+            merged.merge(copy);
+        }
+        return merged;
+    }
+
+    /**
+     * 上次调用到现在所有线程记录的数据, 各线程的实例被换成空的. 取出的数据仍然计入{@link #snapshot()}.
+     * 多个调用方会瓜分同一段数据, 所以同时只应该有一个{@link #intervals}订阅者
+     */
+    public synchronized HeavyHitters<T> drain() {
+        HeavyHitters<T> interval = new HeavyHitters<>(epsilon, delta);
+        for (Iterator<Shard<T>> iterator = shards.iterator(); iterator.hasNext(); ) {
+            Shard<T> shard = iterator.next();
+            boolean alive = shard.isAlive();
+            HeavyHitters<T> taken;
+            synchronized (shard) {
+                taken = shard.current;
+                shard.current = shard.spare != null ? shard.spare : new HeavyHitters<>(epsilon, delta);
+            }
+            interval.merge(taken);
+            if (alive) {
+                //换下来的清空后作为下一次的备用, 不用每个周期重新分配
+                taken.clear();
+                shard.spare = taken;
+            } else {
+                iterator.remove();
+            }
+        }
+        retired.merge(interval);
+        return interval;
+    }
+
+    public List<HeavyHitter<T>> top(int n) {
+        return snapshot().top(n);
+    }
+
+    /**
+     * 每个元素经过时记录, 元素原样发往下游
+     */
+    public Function<Flux<T>, Flux<T>> recording() {
+        return flux -> flux.doOnNext(this::record);
+    }
+
+    public Function<ParallelFlux<T>, ParallelFlux<T>> recordingRails() {
+        return rails -> rails.doOnNext(this::record);
+    }
+
+    /**
+     * 每隔period发出一次从开始到现在的top n, 不影响被记录的流
+     */
+    public Flux<List<HeavyHitter<T>>> snapshots(Duration period, int n) {
+        return Flux.interval(period).map(tick -> top(n));
+    }
+
+    /**
+     * 每隔period发出一次这段时间内的top n, 见{@link #drain()}
+     */
+    public Flux<List<HeavyHitter<T>>> intervals(Duration period, int n) {
+        return Flux.interval(period).map(tick -> drain().top(n));
+    }
+
+    private Shard<T> register() {
+        Shard<T> shard = new Shard<>(new HeavyHitters<>(epsilon, delta));
+        shards.add(shard);
+        return shard;
+    }
+
+    /**
+     * 一个写入线程的数据, current在持有Shard的锁时访问, spare只在持有recorder的锁时访问
+     */
+    private static final class Shard<T> {
+        private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread());
+        private HeavyHitters<T> current;
+        //第一次drain之后才有
+        private HeavyHitters<T> spare;
+
+        Shard(HeavyHitters<T> current) {
+            this.current = current;
+        }
+
+        boolean isAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return top(10).toString();
+    }
+
+    /**
+     * 流结束时给出top-K, 内存固定
+     */
+    public static <T> Function<Flux<T>, Mono<HeavyHitters<T>>> heavyHitters(double epsilon, double delta) {
+        return flux -> flux.reduceWith(() -> new HeavyHitters<T>(epsilon, delta), (sketch, item) -> {
+            sketch.add(item);
+            return sketch;
+        });
+    }
+
+    /**
+     * 每个rail写自己的实例, 结束后合并
+     */
+    public static <T> Function<ParallelFlux<T>, Mono<HeavyHitters<T>>> heavyHittersRails(double epsilon, double delta) {
+        return rails -> rails.reduce(() -> new HeavyHitters<T>(epsilon, delta), (HeavyHitters<T> sketch, T item) -> {
+            sketch.add(item);
+            return sketch;
+        }).reduce(HeavyHitters::merge);
+    }
+}
@@ -0,0 +1,118 @@
+package com.yxy.reactive.stats;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.ParallelFlux;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 可以被多个线程同时写入的直方图, 用于运行中的流水线: 元素照常往下游走, 另外随时或定时取快照看分位数
+ * <pre>
+ * HistogramRecorder recorder = new HistogramRecorder();
+ * flux.elapsed().transform(recorder.recording(Tuple2::getT1)).subscribe(...);
+ * recorder.intervals(Duration.ofSeconds(10)).subscribe(log::info);
+ * </pre>
+ * 每个写入线程有一个自己的{@link LogHistogram}(ThreadLocal), 写入不加锁也不CAS; 快照时把所有线程的直方图按桶相加,
+ * 同样不加锁. ParallelFlux的一个rail固定在一个线程上执行, 所以每个rail也只写自己的那份.
+ * <p>
+ * 内存是线程数 * 29KB, 与元素个数无关. 如果写入线程会不断新建(比如boundedElastic), 旧线程的直方图会一直保留到recorder被回收
+ * Created by Nuclear on 2026/10/17
+ */
+public class HistogramRecorder {
+
+    private final ThreadLocal<LogHistogram> local = ThreadLocal.withInitial(this::register);
+    private final Queue<LogHistogram> histograms = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @throws IllegalArgumentException value小于0
+     */
+    public void record(long value) {
+        local.get().record(value);
+    }
+
+    /**
+     * 当前所有线程记录的值
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[LogHistogram.BUCKETS];
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (LogHistogram histogram : histograms) {
+            histogram.addTo(counts);
+            sum += histogram.sum();
+            min = Math.min(min, histogram.min());
+            max = Math.max(max, histogram.max());
+        }
+        return new HistogramSnapshot(counts, sum, min, max);
+    }
+
+    /**
+     * 每个元素经过时记录mapper取出的值, 元素原样发往下游
+     */
+    public <T> Function<Flux<T>, Flux<T>> recording(ToLongFunction<? super T> mapper) {
+        return flux -> flux.doOnNext(t -> record(mapper.applyAsLong(t)));
+    }
+
+    public <T> Function<ParallelFlux<T>, ParallelFlux<T>> recordingRails(ToLongFunction<? super T> mapper) {
+        return rails -> rails.doOnNext(t -> record(mapper.applyAsLong(t)));
+    }
+
+    /**
+     * 每隔period发出一次从开始到现在的累计快照, 不影响被记录的流
+     */
+    public Flux<HistogramSnapshot> snapshots(Duration period) {
+        return Flux.interval(period).map(tick -> snapshot());
+    }
+
+    /**
+     * 每隔period发出一次这段时间内新记录的值
+     */
+    public Flux<HistogramSnapshot> intervals(Duration period) {
+        return Flux.defer(() -> {
+            HistogramSnapshot[] previous = {snapshot()};
+            return snapshots(period).map(current -> {
+                HistogramSnapshot delta = current.since(previous[0]);
+                previous[0] = current;
+                return delta;
+            });
+        });
+    }
+
+    private LogHistogram register() {
+        LogHistogram histogram = new LogHistogram();
+        histograms.add(histogram);
+        return histogram;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * 流结束时给出全部值的直方图, 相当于IntSummaryStatistics加上分位数. 只用一个直方图, 内存固定.
+     * 结果是Mono, 所以用{@code flux.as(...)}而不是transform
+     */
+    public static <T> Function<Flux<T>, Mono<HistogramSnapshot>> summarizing(ToLongFunction<? super T> mapper) {
+        return flux -> flux.reduceWith(LogHistogram::new, (histogram, t) -> {
+            histogram.record(mapper.applyAsLong(t));
+            return histogram;
+        }).map(LogHistogram::snapshot);
+    }
+
+    /**
+     * 每个rail记录到自己的直方图, 所有rail结束后按桶相加, rail之间没有共享的写入
+     */
+    public static <T> Function<ParallelFlux<T>, Mono<HistogramSnapshot>> summarizingRails(ToLongFunction<? super T> mapper) {
+        return rails -> rails.reduce(LogHistogram::new, (LogHistogram histogram, T t) -> {
+            histogram.record(mapper.applyAsLong(t));
+            return histogram;
+        }).reduce(LogHistogram::merge).map(LogHistogram::snapshot);
+    }
+}
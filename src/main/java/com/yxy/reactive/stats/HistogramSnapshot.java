@@ -0,0 +1,147 @@
+package com.yxy.reactive.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link LogHistogram}某一时刻的不可变副本
+ * <p>
+ * 分位数返回所在桶的上界(不超过记录到的最大值), 所以只会高估, 相对误差不超过1/64.
+ * {@link #since(HistogramSnapshot)}得到两次快照之间新增的部分, 用来看最近一段时间的分位数
+ * Created by Nuclear on 2026/10/17
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long min, long max) {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.counts = counts;
+        //count按桶重新加一遍, 和分位数用的是同一份数据
+        this.count = total;
+        this.sum = sum;
+        this.min = total == 0 ? 0 : min;
+        this.max = total == 0 ? 0 : max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param quantile 0到1之间, 比如0.99
+     * @return 至少有quantile比例的值不超过这个值, 没有数据时返回0
+     */
+    public long valueAtQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be in [0, 1]: " + quantile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long value = LogHistogram.highestValue(i);
+                //min > max说明min/max还没跟上计数, 不能用来截断
+                return min > max ? value : Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    public long p50() {
+        return valueAtQuantile(0.5);
+    }
+
+    public long p99() {
+        return valueAtQuantile(0.99);
+    }
+
+    public long p999() {
+        return valueAtQuantile(0.999);
+    }
+
+    /**
+     * 这个快照减去更早的快照, 即两次快照之间记录的值
+     * <p>
+     * 区间内的最小/最大值无法精确得到, 用第一个/最后一个非空桶的边界代替
+     */
+    public HistogramSnapshot since(HistogramSnapshot previous) {
+        long[] delta = new long[counts.length];
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = counts[i] - previous.counts[i];
+            if (delta[i] != 0) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (first < 0) {
+            return new HistogramSnapshot(delta, 0, 0, 0);
+        }
+        long low = Math.max(min, LogHistogram.lowestValue(first));
+        long high = Math.min(max, LogHistogram.highestValue(last));
+        return new HistogramSnapshot(delta, sum - previous.sum, low, high);
+    }
+
+    /**
+     * 合并多个快照
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        long[] merged = counts.clone();
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] += other.counts[i];
+        }
+        long low = count == 0 ? other.min : other.count == 0 ? min : Math.min(min, other.min);
+        long high = Math.max(max, other.max);
+        return new HistogramSnapshot(merged, sum + other.sum, low, high);
+    }
+
+    /**
+     * 非空的桶, key是桶的上界, 用于展示
+     */
+    public Map<Long, Long> toMap() {
+        Map<Long, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                map.put(LogHistogram.highestValue(i), counts[i]);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HistogramSnapshot{count=%d, sum=%d, min=%d, average=%f, p50=%d, p99=%d, p99.9=%d, max=%d}",
+                count, sum, min, getAverage(), p50(), p99(), p999(), max);
+    }
+}
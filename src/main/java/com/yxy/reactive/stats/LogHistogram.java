@@ -0,0 +1,164 @@
+package com.yxy.reactive.stats;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 对数分桶的直方图, 记录非负long(比如纳秒延迟), 可以查询p50/p99/p99.9
+ * <p>
+ * 小于128的值每个值一个桶; 更大的值按2的幂分段, 每段64个桶, 相对误差不超过1/64(约1.6%).
+ * 整个long范围一共3712个桶, 约29KB, 内存固定, 与记录了多少值无关.
+ * <p>
+ * 单写者: 同一时刻只能有一个线程调用record/merge, 比如ParallelFlux的一个rail. 计数器用opaque读写,
+ * 其他线程随时可以{@link #snapshot()}而不需要加锁, 看到的是某个接近当前时刻的状态(各个桶不保证是同一时刻)
+ * Created by Nuclear on 2026/10/17
+ */
+public class LogHistogram {
+
+    static final int SUB_BITS = 7;
+    static final int SUB_COUNT = 1 << SUB_BITS;
+    static final int HALF = SUB_COUNT >> 1;
+    //最高位在第7~62位时shift为1~56, 每个shift一段
+    static final int BUCKETS = SUB_COUNT + (Long.SIZE - 1 - SUB_BITS) * HALF;
+
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle TOTAL;
+    private static final VarHandle SUM;
+    private static final VarHandle MIN;
+    private static final VarHandle MAX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOTAL = lookup.findVarHandle(LogHistogram.class, "total", long.class);
+            SUM = lookup.findVarHandle(LogHistogram.class, "sum", long.class);
+            MIN = lookup.findVarHandle(LogHistogram.class, "min", long.class);
+            MAX = lookup.findVarHandle(LogHistogram.class, "max", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * @throws IllegalArgumentException value小于0
+     */
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    public void record(long value, long count) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+        //先更新min/max, 再用release发布桶计数, 读到计数的线程一定也能看到对应的min/max
+        if (value < min) {
+            MIN.setOpaque(this, value);
+        }
+        if (value > max) {
+            MAX.setOpaque(this, value);
+        }
+        SUM.setOpaque(this, sum + value * count);
+        TOTAL.setOpaque(this, total + count);
+        int index = index(value);
+        COUNTS.setRelease(counts, index, counts[index] + count);
+    }
+
+    /**
+     * 把other的数据加到这个直方图上, other可以正在被其他线程写入
+     */
+    public LogHistogram merge(LogHistogram other) {
+        long[] added = new long[BUCKETS];
+        other.addTo(added);
+        MIN.setOpaque(this, Math.min(min, (long) MIN.getOpaque(other)));
+        MAX.setOpaque(this, Math.max(max, (long) MAX.getOpaque(other)));
+        SUM.setOpaque(this, sum + (long) SUM.getOpaque(other));
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (added[i] != 0) {
+                total += added[i];
+                COUNTS.setRelease(counts, i, counts[i] + added[i]);
+            }
+        }
+        TOTAL.setOpaque(this, this.total + total);
+        return this;
+    }
+
+    public long count() {
+        return (long) TOTAL.getOpaque(this);
+    }
+
+    /**
+     * 当前状态的不可变副本, 任何线程都可以调用
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        addTo(copy);
+        return new HistogramSnapshot(copy, (long) SUM.getOpaque(this), (long) MIN.getOpaque(this), (long) MAX.getOpaque(this));
+    }
+
+    /**
+     * 把各个桶的计数加到target上, 之后读到的min/max至少覆盖这些计数
+     */
+    void addTo(long[] target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            target[i] += (long) COUNTS.getAcquire(counts, i);
+        }
+    }
+
+    long sum() {
+        return (long) SUM.getOpaque(this);
+    }
+
+    long min() {
+        return (long) MIN.getOpaque(this);
+    }
+
+    long max() {
+        return (long) MAX.getOpaque(this);
+    }
+
+    static int index(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        //保留最高的SUB_BITS位
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return SUB_COUNT + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    /**
+     * 桶里最小的值
+     */
+    static long lowestValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long mantissa = (index - SUB_COUNT) % HALF + HALF;
+        return mantissa << shift;
+    }
+
+    /**
+     * 桶里最大的值
+     */
+    static long highestValue(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long mantissa = (index - SUB_COUNT) % HALF + HALF;
+        //最后一个桶是128 << 56 = Long.MIN_VALUE, 减1正好回到Long.MAX_VALUE
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,187 @@
+package com.yxy.reactive.store;
+
+import com.yxy.reactive.utils.ShortId;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * name到日志偏移量的堆外哈希索引, 开放寻址(线性探测)
+ * <p>
+ * 所有数据都在一块direct ByteBuffer里, 每个槽16字节: [long key][long value].
+ * key是{@link ShortId#decode(CharSequence)}的结果加1, 0表示空槽; value是偏移量加1, 0表示还没写入.
+ * 所以name必须是合法的8位短ID. 一千万条只占约256MB堆外内存, 堆上只有这一个对象.
+ * <ul>
+ * <li>读: 不加锁, 用acquire读取key和value, 与写入的release配对</li>
+ * <li>写: 按key的哈希分段加锁, 同一个key的写入串行; 不同key可能抢同一个空槽, 用CAS占位</li>
+ * </ul>
+ * 容量在创建时固定, 不支持删除和扩容, 超过容量时put抛出{@link IllegalStateException}
+ * Created by Nuclear on 2026/10/17
+ */
+public class OffHeapPersonIndex {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int SLOT = 16;
+    private static final int STRIPES = 64;
+
+    //单个ByteBuffer最大2GB
+    private static final int MAX_SLOTS = 1 << 26;
+
+    private final ByteBuffer slots;
+    private final int mask;
+    private final int maxSize;
+    private final AtomicInteger size = new AtomicInteger();
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * @param capacity 最多存放的条数, 实际槽数是capacity / 0.75向上取2的幂
+     */
+    public OffHeapPersonIndex(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        long required = (long) capacity * 4 / 3 + 1;
+        if (required > MAX_SLOTS) {
+            throw new IllegalArgumentException("capacity too large: " + capacity);
+        }
+        int slotCount = Integer.highestOneBit((int) required - 1) << 1;
+        this.slots = ByteBuffer.allocateDirect(slotCount * SLOT).order(ByteOrder.nativeOrder());
+        this.mask = slotCount - 1;
+        this.maxSize = capacity;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return name对应的偏移量, 不存在或者name不是合法的短ID时返回-1
+     */
+    public long get(CharSequence name) {
+        if (name == null || !ShortId.isValid(name)) {
+            return -1;
+        }
+        return get(ShortId.decode(name));
+    }
+
+    /**
+     * @param id {@link ShortId#decode(CharSequence)}的结果
+     */
+    public long get(long id) {
+        long key = id + 1;
+        for (int slot = slot(key), probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+            long current = (long) LONGS.getAcquire(slots, slot * SLOT);
+            if (current == 0) {
+                return -1;
+            }
+            if (current == key) {
+                //槽已经被占但value还没写入, 视为不存在
+                return (long) LONGS.getAcquire(slots, slot * SLOT + 8) - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return 之前的偏移量, 没有时返回-1
+     * @throws IllegalArgumentException name不是合法的短ID
+     * @throws IllegalStateException    超过容量
+     */
+    public long put(CharSequence name, long offset) {
+        if (name == null) {
+            throw new IllegalArgumentException("name must not be null");
+        }
+        return put(ShortId.decode(name), offset);
+    }
+
+    public long put(long id, long offset) {
+        if (id < 0 || id >= ShortId.SPACE) {
+            throw new IllegalArgumentException("id out of range: " + id);
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative: " + offset);
+        }
+        long key = id + 1;
+        int start = slot(key);
+        synchronized (locks[start & (STRIPES - 1)]) {
+            for (int slot = start, probes = 0; probes <= mask; slot = (slot + 1) & mask, probes++) {
+                int position = slot * SLOT;
+                long current = (long) LONGS.getAcquire(slots, position);
+                if (current == 0) {
+                    if (size.incrementAndGet() > maxSize) {
+                        size.decrementAndGet();
+                        throw new IllegalStateException("index is full, capacity " + maxSize);
+                    }
+                    if (!LONGS.compareAndSet(slots, position, 0L, key)) {
+                        //被其他分段的key抢先占用了, 重新检查这个槽
+                        size.decrementAndGet();
+                        current = (long) LONGS.getAcquire(slots, position);
+                    } else {
+                        LONGS.setRelease(slots, position + 8, offset + 1);
+                        return -1;
+                    }
+                }
+                if (current == key) {
+                    long previous = (long) LONGS.getAcquire(slots, position + 8) - 1;
+                    LONGS.setRelease(slots, position + 8, offset + 1);
+                    return previous;
+                }
+            }
+        }
+        throw new IllegalStateException("index is full, capacity " + maxSize);
+    }
+
+    /**
+     * 遍历所有条目, 不保证顺序, 遍历期间的并发写入可能看到也可能看不到
+     */
+    public void scan(EntryConsumer consumer) {
+        for (int slot = 0; slot <= mask; slot++) {
+            int position = slot * SLOT;
+            long key = (long) LONGS.getAcquire(slots, position);
+            if (key != 0) {
+                long value = (long) LONGS.getAcquire(slots, position + 8);
+                if (value != 0) {
+                    consumer.accept(key - 1, value - 1);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return maxSize;
+    }
+
+    //堆外占用的字节数
+    public long offHeapBytes() {
+        return (long) slots.capacity();
+    }
+
+    //key是随机的, 但有序ID的低位是序号和分段号, 还是需要打散一下
+    private int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * @param id     name对应的{@link ShortId}数值, 用{@link ShortId#encode(long)}还原
+         * @param offset 日志偏移量
+         */
+        void accept(long id, long offset);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapPersonIndex{size=" + size() + ", capacity=" + maxSize + ", offHeapBytes=" + offHeapBytes() + "}";
+    }
+}
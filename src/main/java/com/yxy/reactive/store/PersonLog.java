@@ -0,0 +1,546 @@
+package com.yxy.reactive.store;
+
+import com.yxy.reactive.codec.PersonBinaryCodec;
+import com.yxy.reactive.model.Person;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 只追加的Person日志, 按段(segment)存放在一个目录下
+ * <p>
+ * 每条记录: [int 长度][int CRC32C][{@link PersonBinaryCodec}编码的内容]. 段文件名是段起始偏移量,
+ * 创建时预分配到固定大小(稀疏文件), 全0的长度表示数据结束. 偏移量在所有段之间是连续的.
+ * <ul>
+ * <li>写: 所有append先进入队列, 由单独的线程批量取出, 一次FileChannel.write写入, 每批只force一次(group commit),
+ * 返回的Mono在数据落盘后才完成</li>
+ * <li>读: 段文件整个mmap, {@link #read()}按下游的request(n)逐条从映射区域解码, 回放多大的日志堆内存都基本不变</li>
+ * </ul>
+ * 打开时会从头扫描并校验每条记录, 第一条不完整或者校验失败的记录之后的内容都视为无效:
+ * 最后一个有效段在这之后的字节被截掉, 后面的段文件被删除, 不会在之后的写入后重新出现.
+ * <p>
+ * 一批写入或force失败时, 先把这一批从文件末尾截掉再让它们失败, 重启后不会被回放; 截断也失败时这一批的结果无法确定,
+ * 日志不再接受写入
+ * Created by Nuclear on 2026/10/17
+ */
+@Log4j2
+public class PersonLog implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    //每批最多合并的记录数
+    public static final int DEFAULT_MAX_BATCH = 1024;
+
+    private static final int HEADER = 8;
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final int maxBatch;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    //只有写线程修改
+    private Segment active;
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Scheduler scheduler;
+    private final ByteBuffer writeBuffer;
+    //上一批取出但没放进去的记录, 只有写线程使用
+    private Pending carry;
+    private volatile boolean closed;
+    //写入失败且无法回滚, 之后的写入都直接失败
+    private volatile Exception failure;
+
+    public PersonLog(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, true, DEFAULT_MAX_BATCH);
+    }
+
+    /**
+     * @param segmentSize 每个段的字节数, 一条记录不能超过它
+     * @param fsync       每批写入后是否force到磁盘
+     * @param maxBatch    每批最多合并的记录数
+     */
+    public PersonLog(Path directory, int segmentSize, boolean fsync, int maxBatch) {
+        if (segmentSize <= HEADER) {
+            throw new IllegalArgumentException("segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.maxBatch = maxBatch;
+        this.writeBuffer = ByteBuffer.allocateDirect(Math.min(segmentSize, 1024 * 1024));
+        this.scheduler = Schedulers.newSingle("person-log");
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            scheduler.dispose();
+            throw new UncheckedIOException("failed to open person log " + directory, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .forEach(name -> bases.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length()))));
+        }
+        bases.sort(Long::compare);
+        long expected = 0;
+        int recovered = 0;
+        for (long base : bases) {
+            if (base != expected) {
+                log.warn("person log segment {} does not follow {}, ignore the rest", base, expected);
+                break;
+            }
+            Segment segment = Segment.open(directory, base, segmentSize);
+            segment.end = segment.scan();
+            segments.put(base, segment);
+            active = segment;
+            expected = base + segment.end;
+            recovered++;
+        }
+        //无效的段删掉, 否则roll到同一个偏移量时会打开旧文件, 旧记录在下次扫描时又会出现
+        for (long base : bases.subList(recovered, bases.size())) {
+            log.warn("person log segment {} deleted", base);
+            Files.delete(segmentPath(directory, base));
+        }
+        if (active == null) {
+            active = Segment.create(directory, 0, segmentSize);
+            segments.put(0L, active);
+        } else {
+            //有效数据之后可能是写了一半的记录, 截掉后新写入的记录后面不会跟着旧数据
+            active.truncate(fsync);
+        }
+        log.info("person log {} opened, {} segments, {} bytes", directory, segments.size(), endOffset());
+    }
+
+    /**
+     * 追加一条记录, 落盘后返回它的偏移量
+     */
+    public Mono<Long> append(Person person) {
+        int size = recordSize(person);
+        if (size > segmentSize) {
+            return Mono.error(new IllegalArgumentException("record of " + size + " bytes exceeds segment size " + segmentSize));
+        }
+        return Mono.create(sink -> {
+            if (closed) {
+                sink.error(new IllegalStateException("person log closed"));
+                return;
+            }
+            Pending pending = new Pending(person, size, sink);
+            queue.offer(pending);
+            //与close竞争: close已经清空过队列时, 这条不会再被取出
+            if (closed) {
+                if (queue.remove(pending)) {
+                    sink.error(new IllegalStateException("person log closed"));
+                }
+                return;
+            }
+            drain();
+        });
+    }
+
+    /**
+     * 追加多条记录, 按顺序返回偏移量. 最多maxBatch条同时等待落盘, 它们会被合并成一批写入
+     */
+    public Flux<Long> appendAll(Flux<Person> people) {
+        return people.flatMapSequential(this::append, maxBatch);
+    }
+
+    /**
+     * 从头读取全部已经落盘的记录
+     */
+    public Flux<Person> read() {
+        return read(0);
+    }
+
+    /**
+     * 从offset开始读取, offset必须是某条记录的开始位置. 读取的范围在订阅时确定, 之后追加的记录不会被读到
+     */
+    public Flux<Person> read(long offset) {
+        return Flux.defer(() -> {
+            List<Flux<Person>> parts = new ArrayList<>();
+            for (Map.Entry<Long, Segment> entry : segments.tailMap(segments.floorKey(Math.max(offset, 0))).entrySet()) {
+                Segment segment = entry.getValue();
+                int from = (int) Math.max(0, offset - segment.base);
+                int end = segment.end;
+                if (from < end) {
+                    parts.add(segment.read(from, end));
+                }
+            }
+            return Flux.concat(parts);
+        });
+    }
+
+    /**
+     * 随机读取offset处的一条记录, 直接从映射区域解码
+     *
+     * @throws IllegalArgumentException offset超出已经落盘的范围
+     */
+    public Person get(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (offset < 0 || entry == null) {
+            throw new IllegalArgumentException("offset out of range: " + offset);
+        }
+        Segment segment = entry.getValue();
+        int position = (int) (offset - segment.base);
+        if (position + HEADER > segment.end) {
+            throw new IllegalArgumentException("offset out of range: " + offset);
+        }
+        return segment.get(position);
+    }
+
+    /**
+     * 一条记录在日志里占用的字节数, 与偏移量的增量一致
+     */
+    public static int recordSize(Person person) {
+        return HEADER + PersonBinaryCodec.encodedSize(person);
+    }
+
+    public int maxBatch() {
+        return maxBatch;
+    }
+
+    /**
+     * 下一条记录将要写入的偏移量
+     */
+    public long endOffset() {
+        Segment last = segments.lastEntry().getValue();
+        return last.base + last.end;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() == 0) {
+            scheduler.schedule(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        for (; ; ) {
+            while (carry != null || !queue.isEmpty()) {
+                if (failure != null) {
+                    failAll(new IllegalStateException("person log failed", failure));
+                } else {
+                    writeBatch();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+
+    private void writeBatch() {
+        List<Pending> batch = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        //只用poll取出, append在close时可以安全地remove自己的记录
+        Pending pending = next();
+        try {
+            writeBuffer.clear();
+            while (pending != null) {
+                if (active.position() + writeBuffer.position() + pending.size > active.capacity) {
+                    if (!batch.isEmpty()) {
+                        break;
+                    }
+                    roll();
+                }
+                if (pending.size > writeBuffer.remaining()) {
+                    if (!batch.isEmpty()) {
+                        break;
+                    }
+                    //单条记录比写缓冲还大
+                    ByteBuffer large = ByteBuffer.allocate(pending.size);
+                    batch.add(pending);
+                    offsets.add(active.base + active.position());
+                    encode(pending, large);
+                    large.flip();
+                    active.write(large);
+                    pending = null;
+                    break;
+                }
+                batch.add(pending);
+                offsets.add(active.base + active.position() + writeBuffer.position());
+                encode(pending, writeBuffer);
+                pending = batch.size() < maxBatch ? queue.poll() : null;
+            }
+            carry = pending;
+            if (writeBuffer.position() > 0) {
+                writeBuffer.flip();
+                active.write(writeBuffer);
+            }
+            if (fsync) {
+                active.channel.force(false);
+            }
+            active.end = active.position();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).sink.success(offsets.get(i));
+            }
+        } catch (Exception e) {
+            log.error("person log write failed", e);
+            if (batch.isEmpty() && pending != null) {
+                //还没放进这一批就失败了(比如创建新段失败), 也要让它失败, 否则会一直重试
+                batch.add(pending);
+                carry = null;
+            }
+            try {
+                //已经写进文件的部分截掉, 这一批不能在重启后被回放
+                active.truncate(fsync);
+            } catch (Exception truncateFailed) {
+                log.error("person log {} rollback failed, no more writes accepted", directory, truncateFailed);
+                e.addSuppressed(truncateFailed);
+                failure = e;
+            }
+            batch.forEach(p -> p.sink.error(e));
+        }
+    }
+
+    private Pending next() {
+        Pending pending = carry;
+        if (pending != null) {
+            carry = null;
+            return pending;
+        }
+        return queue.poll();
+    }
+
+    private void failAll(Exception e) {
+        Pending pending;
+        while ((pending = next()) != null) {
+            pending.sink.error(e);
+        }
+    }
+
+    private static void encode(Pending pending, ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.position(start + HEADER);
+        PersonBinaryCodec.write(pending.person, buffer);
+        int end = buffer.position();
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(start + HEADER).limit(end));
+        buffer.putInt(start, pending.size - HEADER);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void roll() throws IOException {
+        active.end = active.position();
+        Segment next = Segment.create(directory, active.base + active.end, segmentSize);
+        segments.put(next.base, next);
+        active = next;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        //排在已经提交的写入之后执行
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.schedule(() -> {
+            failAll(new IllegalStateException("person log closed"));
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            done.countDown();
+        });
+        try {
+            if (!done.await(10, TimeUnit.SECONDS)) {
+                log.warn("person log {} close timed out", directory);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.dispose();
+    }
+
+    private static Path segmentPath(Path directory, long base) {
+        return directory.resolve(String.format("%020d%s", base, SUFFIX));
+    }
+
+    private static final class Pending {
+        final Person person;
+        final int size;
+        final MonoSink<Long> sink;
+
+        Pending(Person person, int size, MonoSink<Long> sink) {
+            this.person = person;
+            this.size = size;
+            this.sink = sink;
+        }
+    }
+
+    static final class Segment {
+        final long base;
+        final FileChannel channel;
+        final int capacity;
+        //已经落盘的末尾位置, 读者只读到这里
+        volatile int end;
+        //只有写线程使用
+        private int position = -1;
+        private volatile MappedByteBuffer mapped;
+
+        private Segment(long base, FileChannel channel, int capacity) {
+            this.base = base;
+            this.channel = channel;
+            this.capacity = capacity;
+        }
+
+        static Segment open(Path directory, long base, int capacity) throws IOException {
+            return open(directory, base, capacity, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * 新的空段, 同名的文件会被清空
+         */
+        static Segment create(Path directory, long base, int capacity) throws IOException {
+            return open(directory, base, capacity, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        private static Segment open(Path directory, long base, int capacity, StandardOpenOption... options) throws IOException {
+            FileChannel channel = FileChannel.open(segmentPath(directory, base), options);
+            if (channel.size() < capacity) {
+                //预分配, 稀疏文件不占实际空间, 之后可以整段mmap
+                channel.write(ByteBuffer.wrap(new byte[1]), capacity - 1);
+            }
+            return new Segment(base, channel, (int) Math.min(channel.size(), Integer.MAX_VALUE));
+        }
+
+        MappedByteBuffer mapped() {
+            MappedByteBuffer buffer = mapped;
+            if (buffer == null) {
+                synchronized (this) {
+                    buffer = mapped;
+                    if (buffer == null) {
+                        try {
+                            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, capacity);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        mapped = buffer;
+                    }
+                }
+            }
+            return buffer;
+        }
+
+        //找到最后一条完整的记录
+        int scan() {
+            ByteBuffer buffer = mapped().duplicate();
+            int position = 0;
+            CRC32C crc = new CRC32C();
+            while (position + HEADER <= capacity) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER + length > capacity) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.duplicate().position(position + HEADER).limit(position + HEADER + length));
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+                position += HEADER + length;
+            }
+            return position;
+        }
+
+        int position() {
+            if (position < 0) {
+                position = end;
+            }
+            return position;
+        }
+
+        /**
+         * 丢弃end之后的内容, 包括没有成功落盘的写入, 文件重新扩展回原来的大小
+         */
+        void truncate(boolean fsync) throws IOException {
+            position = end;
+            channel.truncate(end);
+            if (end < capacity) {
+                channel.write(ByteBuffer.wrap(new byte[1]), capacity - 1);
+            }
+            if (fsync) {
+                channel.force(true);
+            }
+        }
+
+        void write(ByteBuffer buffer) throws IOException {
+            int position = position();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            this.position = position;
+        }
+
+        /**
+         * [from, end)范围内的记录, 按request逐条解码
+         */
+        Flux<Person> read(int from, int end) {
+            return Flux.generate(() -> {
+                ByteBuffer view = mapped().duplicate();
+                view.position(from).limit(end);
+                return view;
+            }, (view, sink) -> {
+                if (!view.hasRemaining()) {
+                    sink.complete();
+                    return view;
+                }
+                int length = view.getInt();
+                view.getInt();
+                int next = view.position() + length;
+                sink.next(PersonBinaryCodec.read(view));
+                view.position(next);
+                return view;
+            });
+        }
+
+        Person get(int position) {
+            ByteBuffer view = mapped().duplicate();
+            int length = view.getInt(position);
+            if (length <= 0 || position + HEADER + length > end) {
+                throw new IllegalArgumentException("no record at offset " + (base + position));
+            }
+            view.position(position + HEADER).limit(position + HEADER + length);
+            return PersonBinaryCodec.read(view);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("failed to close person log segment {}", base, e);
+            }
+        }
+    }
+}
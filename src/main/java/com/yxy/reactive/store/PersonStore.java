@@ -0,0 +1,106 @@
+package com.yxy.reactive.store;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.ShortId;
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+
+/**
+ * Person存储: {@link PersonLog}保存数据, {@link OffHeapPersonIndex}按name索引到最新一条记录的偏移量
+ * <p>
+ * 同一个name保存多次时日志里有多条记录, 索引只指向最后一条. 索引不持久化, 打开时从日志重建.
+ * name必须是8位短ID({@link com.yxy.reactive.utils.UUIDUtil#shortUUID()})
+ * Created by Nuclear on 2026/10/17
+ */
+@Log4j2
+public class PersonStore implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private final PersonLog personLog;
+    private final OffHeapPersonIndex index;
+
+    public PersonStore(Path directory) {
+        this(new PersonLog(directory), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 索引最多存放的不同name数
+     */
+    public PersonStore(PersonLog personLog, int capacity) {
+        this.personLog = personLog;
+        this.index = new OffHeapPersonIndex(capacity);
+        rebuild();
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        long[] offset = {0};
+        personLog.read().doOnNext(person -> {
+            index.put(person.getName(), offset[0]);
+            offset[0] += PersonLog.recordSize(person);
+        }).blockLast();
+        log.info("person index rebuilt, {} names in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 写入日志, 落盘后更新索引
+     */
+    public Mono<Person> save(Person person) {
+        if (!isValidName(person.getName())) {
+            return Mono.error(new IllegalArgumentException("name must be a short id: " + person.getName()));
+        }
+        return personLog.append(person)
+                .doOnNext(offset -> index.put(person.getName(), offset))
+                .thenReturn(person);
+    }
+
+    /**
+     * 批量保存, 按顺序返回已经落盘的Person. 同时等待落盘的记录会被合并成批写入
+     */
+    public Flux<Person> saveAll(Flux<Person> people) {
+        return people.flatMapSequential(this::save, personLog.maxBatch());
+    }
+
+    public Mono<Person> findByName(String name) {
+        return Mono.fromSupplier(() -> {
+            long offset = index.get(name);
+            return offset < 0 ? null : personLog.get(offset);
+        });
+    }
+
+    /**
+     * 按写入顺序返回每个name的最新记录, 被覆盖的旧记录会跳过
+     */
+    public Flux<Person> findAll() {
+        return Flux.defer(() -> {
+            long[] offset = {0};
+            return personLog.read().filter(person -> {
+                long current = offset[0];
+                offset[0] += PersonLog.recordSize(person);
+                return index.get(person.getName()) == current;
+            });
+        });
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public PersonLog personLog() {
+        return personLog;
+    }
+
+    public static boolean isValidName(String name) {
+        return name != null && ShortId.isValid(name);
+    }
+
+    @Override
+    public void close() {
+        personLog.close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.yxy.reactive.text;
+
+import java.util.function.IntPredicate;
+
+/**
+ * CharSequence(String, CharBuffer, StringBuilder)上的游标, 直接用charAt读取, 不复制
+ * Created by Nuclear on 2026/10/17
+ */
+final class CharSequenceCursor extends TextCursor {
+
+    private final CharSequence text;
+    private int position;
+    private final int end;
+
+    CharSequenceCursor(CharSequence text, int start, int end) {
+        this.text = text;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    int next() {
+        if (position >= end) {
+            return END;
+        }
+        char c = text.charAt(position++);
+        if (Character.isHighSurrogate(c) && position < end) {
+            char low = text.charAt(position);
+            if (Character.isLowSurrogate(low)) {
+                position++;
+                return Character.toCodePoint(c, low);
+            }
+        }
+        return c;
+    }
+
+    @Override
+    TextCursor trySplit(IntPredicate boundary, int minSize) {
+        if (end - position < minSize * 2) {
+            return null;
+        }
+        int mid = (position + end) >>> 1;
+        //不把代理对拆开
+        if (Character.isLowSurrogate(text.charAt(mid)) && Character.isHighSurrogate(text.charAt(mid - 1))) {
+            mid++;
+        }
+        if (boundary != null) {
+            while (mid < end) {
+                int codePoint = codePointAt(mid);
+                if (boundary.test(codePoint)) {
+                    break;
+                }
+                mid += Character.charCount(codePoint);
+            }
+            if (mid >= end) {
+                return null;
+            }
+        }
+        TextCursor prefix = new CharSequenceCursor(text, position, mid);
+        position = mid;
+        return prefix;
+    }
+
+    @Override
+    long remaining() {
+        return end - position;
+    }
+
+    private int codePointAt(int index) {
+        char c = text.charAt(index);
+        if (Character.isHighSurrogate(c) && index + 1 < end) {
+            char low = text.charAt(index + 1);
+            if (Character.isLowSurrogate(low)) {
+                return Character.toCodePoint(c, low);
+            }
+        }
+        return c;
+    }
+}
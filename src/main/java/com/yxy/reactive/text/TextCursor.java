@@ -0,0 +1,32 @@
+package com.yxy.reactive.text;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 按码点顺序读取一段文本, 可以在码点边界(或者分隔符前)切成两半
+ * Created by Nuclear on 2026/10/17
+ */
+abstract class TextCursor {
+
+    static final int END = -1;
+    //无法解码的UTF-8字节
+    static final int REPLACEMENT = 0xFFFD;
+
+    /**
+     * @return 下一个码点, 没有了返回{@link #END}
+     */
+    abstract int next();
+
+    /**
+     * 从中间切开, 返回前半段, 自己保留后半段
+     *
+     * @param boundary 后半段的第一个码点要满足的条件, null表示任意码点边界
+     * @return 剩余不足minSize或者找不到切分点时返回null
+     */
+    abstract TextCursor trySplit(IntPredicate boundary, int minSize);
+
+    /**
+     * 剩余的char数或者字节数, 是码点数的上限
+     */
+    abstract long remaining();
+}
@@ -0,0 +1,80 @@
+package com.yxy.reactive.text;
+
+import java.util.Arrays;
+
+/**
+ * 可复用的token视图, 内容是已经转换过大小写的char
+ * <p>
+ * {@link Tokenizer#tokens}的每个Spliterator只有一个Token对象, 每次tryAdvance覆盖它的内容,
+ * 需要保留时调用{@link #toString()}复制一份
+ * Created by Nuclear on 2026/10/17
+ */
+public final class Token implements CharSequence {
+
+    private char[] chars = new char[32];
+    private int length;
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new String(chars, start, end - start);
+    }
+
+    /**
+     * 与内容相同的String的hashCode一致
+     */
+    public int contentHashCode() {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    public boolean contentEquals(CharSequence other) {
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 复制到dst的offset处
+     */
+    public void getChars(char[] dst, int offset) {
+        System.arraycopy(chars, 0, dst, offset, length);
+    }
+
+    void clear() {
+        length = 0;
+    }
+
+    void append(int codePoint) {
+        if (length + 2 > chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        length += Character.toChars(codePoint, chars, length);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,71 @@
+package com.yxy.reactive.text;
+
+import com.yxy.reactive.collect.IntList;
+
+import java.nio.CharBuffer;
+
+/**
+ * 一批连续的token, 所有token的char放在同一个数组里, 另有一个数组记录每个token的结束位置
+ * <pre>
+ * tokenizer.tokenChunks(text, 8192).subscribe(batch -> batch.forEach(counter::add));
+ * </pre>
+ * 每批只分配这两个数组和一个CharBuffer视图, 与token数无关
+ * Created by Nuclear on 2026/10/17
+ */
+public final class TokenBatch {
+
+    private final char[] chars;
+    private final int length;
+    private final IntList ends;
+    private final CharBuffer text;
+
+    TokenBatch(char[] chars, int length, IntList ends) {
+        this.chars = chars;
+        this.length = length;
+        this.ends = ends;
+        this.text = CharBuffer.wrap(chars, 0, length);
+    }
+
+    public int size() {
+        return ends.size();
+    }
+
+    /**
+     * 复制成String
+     */
+    public String get(int index) {
+        int start = index == 0 ? 0 : ends.get(index - 1);
+        return new String(chars, start, ends.get(index) - start);
+    }
+
+    /**
+     * 按顺序遍历, 每个token是text的[start, end)
+     */
+    public void forEach(TokenConsumer consumer) {
+        int start = 0;
+        for (int i = 0; i < ends.size(); i++) {
+            int end = ends.get(i);
+            consumer.accept(text, start, end);
+            start = end;
+        }
+    }
+
+    /**
+     * 所有token的char数
+     */
+    public int charCount() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        forEach((text, start, end) -> builder.append(builder.length() > 1 ? ", " : "").append(text, start, end));
+        return builder.append(']').toString();
+    }
+
+    @FunctionalInterface
+    public interface TokenConsumer {
+        void accept(CharSequence text, int start, int end);
+    }
+}
@@ -0,0 +1,276 @@
+package com.yxy.reactive.text;
+
+import com.yxy.reactive.collect.IntList;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * 直接在CharSequence/CharBuffer或者UTF-8字节(比如映射的文件)上切分字符和token, 不复制输入
+ * <pre>
+ * Tokenizer tokenizer = Tokenizer.builder().lowerCase(true).build();
+ * //代替 str.replaceAll(" ", "").toLowerCase().split("")
+ * StreamSupport.intStream(tokenizer.codePoints(str), true).forEach(...);
+ * tokenizer.tokenChunks(Utf8Text.map(path), 8192).subscribe(batch -> batch.forEach(counter::add));
+ * </pre>
+ * 大小写转换和分隔符过滤在遍历时逐个码点完成. 码点模式跳过分隔符; token模式下token是分隔符之间的非空片段.
+ * <ul>
+ * <li>{@link #codePoints}/{@link #tokens}返回Spliterator, 可以用StreamSupport生成并行流, 切分时不拆开代理对/UTF-8序列/token</li>
+ * <li>{@link #codePointChunks}/{@link #tokenChunks}返回按块发出的Flux, 每块只分配一个IntList或{@link TokenBatch}</li>
+ * </ul>
+ * Tokenizer不可变, 可以共享
+ * Created by Nuclear on 2026/10/17
+ */
+public final class Tokenizer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    //小于这个长度(char数或字节数)不再切分
+    private static final int MIN_SPLIT = 4096;
+
+    private final boolean lowerCase;
+    private final IntPredicate separator;
+
+    private Tokenizer(Builder builder) {
+        this.lowerCase = builder.lowerCase;
+        this.separator = builder.separator;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Spliterator.OfInt codePoints(CharSequence text) {
+        return new CodePoints(new CharSequenceCursor(text, 0, text.length()));
+    }
+
+    public Spliterator.OfInt codePoints(Utf8Text text) {
+        return new CodePoints(new Utf8Cursor(text, 0, text.length()));
+    }
+
+    /**
+     * 每次发出的都是同一个{@link Token}对象
+     */
+    public Spliterator<Token> tokens(CharSequence text) {
+        return new Tokens(new CharSequenceCursor(text, 0, text.length()));
+    }
+
+    public Spliterator<Token> tokens(Utf8Text text) {
+        return new Tokens(new Utf8Cursor(text, 0, text.length()));
+    }
+
+    /**
+     * 每块最多chunkSize个码点, 每次订阅从头读取
+     */
+    public Flux<IntList> codePointChunks(CharSequence text, int chunkSize) {
+        return codePointChunks(() -> new CharSequenceCursor(text, 0, text.length()), chunkSize);
+    }
+
+    public Flux<IntList> codePointChunks(Utf8Text text, int chunkSize) {
+        return codePointChunks(() -> new Utf8Cursor(text, 0, text.length()), chunkSize);
+    }
+
+    /**
+     * 每块最多chunkSize个token
+     */
+    public Flux<TokenBatch> tokenChunks(CharSequence text, int chunkSize) {
+        return tokenChunks(() -> new CharSequenceCursor(text, 0, text.length()), chunkSize);
+    }
+
+    public Flux<TokenBatch> tokenChunks(Utf8Text text, int chunkSize) {
+        return tokenChunks(() -> new Utf8Cursor(text, 0, text.length()), chunkSize);
+    }
+
+    private Flux<IntList> codePointChunks(Supplier<TextCursor> cursor, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return Flux.generate(() -> new CodePoints(cursor.get()), (codePoints, sink) -> {
+            IntList chunk = new IntList(chunkSize);
+            while (chunk.size() < chunkSize && codePoints.tryAdvance((IntConsumer) chunk::add)) {
+            }
+            if (!chunk.isEmpty()) {
+                sink.next(chunk);
+            }
+            if (chunk.size() < chunkSize) {
+                sink.complete();
+            }
+            return codePoints;
+        });
+    }
+
+    private Flux<TokenBatch> tokenChunks(Supplier<TextCursor> cursor, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return Flux.generate(() -> new Tokens(cursor.get()), (tokens, sink) -> {
+            BatchBuilder batch = new BatchBuilder(chunkSize);
+            while (batch.ends.size() < chunkSize && tokens.tryAdvance(batch)) {
+            }
+            if (!batch.ends.isEmpty()) {
+                sink.next(new TokenBatch(batch.chars, batch.length, batch.ends));
+            }
+            if (batch.ends.size() < chunkSize) {
+                sink.complete();
+            }
+            return tokens;
+        });
+    }
+
+    private static void checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+    }
+
+    private int fold(int codePoint) {
+        if (!lowerCase) {
+            return codePoint;
+        }
+        if (codePoint < 0x80) {
+            return codePoint >= 'A' && codePoint <= 'Z' ? codePoint + ('a' - 'A') : codePoint;
+        }
+        return Character.toLowerCase(codePoint);
+    }
+
+    private final class CodePoints implements Spliterator.OfInt {
+        private final TextCursor cursor;
+
+        CodePoints(TextCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            for (int codePoint = cursor.next(); codePoint != TextCursor.END; codePoint = cursor.next()) {
+                if (!separator.test(codePoint)) {
+                    action.accept(fold(codePoint));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int codePoint = cursor.next(); codePoint != TextCursor.END; codePoint = cursor.next()) {
+                if (!separator.test(codePoint)) {
+                    action.accept(fold(codePoint));
+                }
+            }
+        }
+
+        @Override
+        public OfInt trySplit() {
+            TextCursor prefix = cursor.trySplit(null, MIN_SPLIT);
+            return prefix == null ? null : new CodePoints(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return cursor.remaining();
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    private final class Tokens implements Spliterator<Token> {
+        private final TextCursor cursor;
+        private final Token token = new Token();
+
+        Tokens(TextCursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Token> action) {
+            token.clear();
+            for (int codePoint = cursor.next(); codePoint != TextCursor.END; codePoint = cursor.next()) {
+                if (!separator.test(codePoint)) {
+                    token.append(fold(codePoint));
+                } else if (token.length() > 0) {
+                    break;
+                }
+            }
+            if (token.length() == 0) {
+                return false;
+            }
+            action.accept(token);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Token> trySplit() {
+            TextCursor prefix = cursor.trySplit(separator, MIN_SPLIT);
+            return prefix == null ? null : new Tokens(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return cursor.remaining();
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * 把Token的内容追加到一批的char数组里
+     */
+    private static final class BatchBuilder implements Consumer<Token> {
+        private char[] chars;
+        private int length;
+        private final IntList ends;
+
+        BatchBuilder(int chunkSize) {
+            this.chars = new char[chunkSize * 8];
+            this.ends = new IntList(chunkSize);
+        }
+
+        @Override
+        public void accept(Token token) {
+            int n = token.length();
+            if (length + n > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + n));
+            }
+            token.getChars(chars, length);
+            length += n;
+            ends.add(length);
+        }
+    }
+
+    public static final class Builder {
+        private boolean lowerCase;
+        private IntPredicate separator = Character::isWhitespace;
+
+        private Builder() {
+        }
+
+        /**
+         * 转成小写, 相当于逐个码点Character.toLowerCase
+         */
+        public Builder lowerCase(boolean lowerCase) {
+            this.lowerCase = lowerCase;
+            return this;
+        }
+
+        /**
+         * 分隔符, 默认Character::isWhitespace. 码点模式下被跳过, token模式下用来切分token
+         */
+        public Builder separator(IntPredicate separator) {
+            this.separator = Objects.requireNonNull(separator, "separator");
+            return this;
+        }
+
+        public Tokenizer build() {
+            return new Tokenizer(this);
+        }
+    }
+}
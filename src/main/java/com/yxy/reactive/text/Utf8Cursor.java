@@ -0,0 +1,151 @@
+package com.yxy.reactive.text;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntPredicate;
+
+/**
+ * UTF-8字节上的游标, 边读边解码, 不生成String或CharBuffer
+ * <p>
+ * 位置是long, 按{@link Utf8Text}的分段找到所在的ByteBuffer, 跨段的码点也能正确解码.
+ * 非法或被截断的字节序列每个字节解码成U+FFFD, 不检查超长编码
+ * Created by Nuclear on 2026/10/17
+ */
+final class Utf8Cursor extends TextCursor {
+
+    private final ByteBuffer[] regions;
+    private final int shift;
+    private final int mask;
+    private long position;
+    private final long end;
+
+    Utf8Cursor(Utf8Text text, long start, long end) {
+        this.regions = text.regions();
+        this.shift = text.regionShift();
+        this.mask = (1 << shift) - 1;
+        this.position = start;
+        this.end = end;
+    }
+
+    private Utf8Cursor(Utf8Cursor parent, long start, long end) {
+        this.regions = parent.regions;
+        this.shift = parent.shift;
+        this.mask = parent.mask;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    int next() {
+        if (position >= end) {
+            return END;
+        }
+        int b = at(position);
+        if (b >= 0) {
+            position++;
+            return b;
+        }
+        int codePoint = decode(position);
+        position += codePoint == REPLACEMENT ? replacementLength(position) : length(b);
+        return codePoint;
+    }
+
+    @Override
+    TextCursor trySplit(IntPredicate boundary, int minSize) {
+        if (end - position < minSize * 2L) {
+            return null;
+        }
+        long mid = (position + end) >>> 1;
+        //跳过续字节(10xxxxxx), 停在码点开头
+        while (mid < end && (at(mid) & 0xC0) == 0x80) {
+            mid++;
+        }
+        if (boundary != null) {
+            while (mid < end) {
+                int b = at(mid);
+                int codePoint = b >= 0 ? b : decode(mid);
+                if (boundary.test(codePoint)) {
+                    break;
+                }
+                mid += b >= 0 ? 1 : codePoint == REPLACEMENT ? replacementLength(mid) : length(b);
+            }
+        }
+        if (mid >= end) {
+            return null;
+        }
+        TextCursor prefix = new Utf8Cursor(this, position, mid);
+        position = mid;
+        return prefix;
+    }
+
+    @Override
+    long remaining() {
+        return end - position;
+    }
+
+    private byte at(long index) {
+        return regions[(int) (index >>> shift)].get((int) (index & mask));
+    }
+
+    /**
+     * 解码从index开始的多字节序列, 非法时返回REPLACEMENT: 续字节不对, 过长编码, 代理区, 超过U+10FFFF
+     */
+    private int decode(long index) {
+        int b = at(index);
+        int n;
+        int codePoint;
+        int min;
+        if ((b & 0xE0) == 0xC0) {
+            n = 1;
+            codePoint = b & 0x1F;
+            min = 0x80;
+        } else if ((b & 0xF0) == 0xE0) {
+            n = 2;
+            codePoint = b & 0x0F;
+            min = 0x800;
+        } else if ((b & 0xF8) == 0xF0 && (b & 0xFF) <= 0xF4) {
+            n = 3;
+            codePoint = b & 0x07;
+            min = 0x10000;
+        } else {
+            return REPLACEMENT;
+        }
+        if (index + n >= end) {
+            return REPLACEMENT;
+        }
+        for (int i = 1; i <= n; i++) {
+            int c = at(index + i);
+            if ((c & 0xC0) != 0x80) {
+                return REPLACEMENT;
+            }
+            codePoint = (codePoint << 6) | (c & 0x3F);
+        }
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            return REPLACEMENT;
+        }
+        return codePoint;
+    }
+
+    /**
+     * 首字节决定的序列长度
+     */
+    private static int length(int b) {
+        if ((b & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((b & 0xF0) == 0xE0) {
+            return 3;
+        }
+        return 4;
+    }
+
+    /**
+     * 合法的U+FFFD本身是3个字节(EF BF BD), 其他情况是非法序列, 只跳过一个字节
+     */
+    private int replacementLength(long index) {
+        if (index + 2 < end && at(index) == (byte) 0xEF && at(index + 1) == (byte) 0xBF && at(index + 2) == (byte) 0xBD) {
+            return 3;
+        }
+        return 1;
+    }
+}
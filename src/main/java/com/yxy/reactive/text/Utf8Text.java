@@ -0,0 +1,94 @@
+package com.yxy.reactive.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 一段UTF-8字节, 可以超过2GB: 按固定大小(2的幂, 默认1GB)分段, 每段一个ByteBuffer
+ * <p>
+ * {@link #map(Path)}把文件只读映射进内存, 读取由操作系统按页加载, 不经过堆. 映射建立后文件通道就关闭了,
+ * 映射在ByteBuffer被回收时释放
+ * Created by Nuclear on 2026/10/17
+ */
+public final class Utf8Text {
+
+    public static final int DEFAULT_REGION_SIZE = 1 << 30;
+
+    private final ByteBuffer[] regions;
+    private final int regionShift;
+    private final long length;
+
+    private Utf8Text(ByteBuffer[] regions, int regionShift, long length) {
+        this.regions = regions;
+        this.regionShift = regionShift;
+        this.length = length;
+    }
+
+    /**
+     * buffer的position到limit之间的字节, 不复制, 也不改变buffer的position
+     */
+    public static Utf8Text of(ByteBuffer buffer) {
+        return of(buffer, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * @param regionSize 每段的字节数, 2的幂
+     */
+    public static Utf8Text of(ByteBuffer buffer, int regionSize) {
+        int shift = shift(regionSize);
+        int length = buffer.remaining();
+        ByteBuffer[] regions = new ByteBuffer[Math.max(1, (int) ((length + (long) regionSize - 1) >>> shift))];
+        for (int i = 0; i < regions.length; i++) {
+            ByteBuffer region = buffer.duplicate();
+            int start = buffer.position() + (i << shift);
+            region.limit((int) Math.min(buffer.limit(), start + (long) regionSize)).position(start);
+            regions[i] = region.slice();
+        }
+        return new Utf8Text(regions, shift, length);
+    }
+
+    public static Utf8Text map(Path path) throws IOException {
+        return map(path, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * @param regionSize 每次映射的字节数, 2的幂
+     */
+    public static Utf8Text map(Path path, int regionSize) throws IOException {
+        int shift = shift(regionSize);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            ByteBuffer[] regions = new ByteBuffer[Math.max(1, (int) ((length + regionSize - 1) >>> shift))];
+            for (int i = 0; i < regions.length; i++) {
+                long start = (long) i << shift;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, length - start));
+            }
+            return new Utf8Text(regions, shift, length);
+        }
+    }
+
+    /**
+     * 字节数
+     */
+    public long length() {
+        return length;
+    }
+
+    ByteBuffer[] regions() {
+        return regions;
+    }
+
+    int regionShift() {
+        return regionShift;
+    }
+
+    private static int shift(int regionSize) {
+        if (regionSize <= 0 || Integer.bitCount(regionSize) != 1) {
+            throw new IllegalArgumentException("regionSize must be a power of two: " + regionSize);
+        }
+        return Integer.numberOfTrailingZeros(regionSize);
+    }
+}
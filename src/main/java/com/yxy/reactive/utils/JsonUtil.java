@@ -0,0 +1,55 @@
+package com.yxy.reactive.utils;
+
+/**
+ * JSON字符串转义, 与codec.PersonJsonWriter的输出一致
+ * Created by Nuclear on 2026/10/17
+ */
+public final class JsonUtil {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JsonUtil() {
+    }
+
+    /**
+     * 追加带引号并转义的字符串, null追加为null
+     */
+    public static StringBuilder appendString(String value, StringBuilder builder) {
+        if (value == null) {
+            return builder.append("null");
+        }
+        builder.append('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    builder.append('\\').append(c);
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\b':
+                    builder.append("\\b");
+                    break;
+                case '\f':
+                    builder.append("\\f");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"');
+    }
+}
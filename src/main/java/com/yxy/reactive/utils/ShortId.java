@@ -0,0 +1,240 @@
+package com.yxy.reactive.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 8位62进制短ID的long编解码
+ * <p>
+ * 62^8 < 2^48, 所以一个短ID可以无损地放进一个long里, 只有在需要展示或者传输的时候才转成文本.
+ * 字母表按ASCII顺序排列(0-9A-Za-z), 并且长度固定, 因此两个ID的long大小关系与文本的字典序完全一致,
+ * {@code Long.compare(a, b)}和{@code encode(a).compareTo(encode(b))}的符号相同, 相等关系也一一对应.
+ * <p>
+ * 有两种生成方式:
+ * <ul>
+ * <li>{@link #next()} 均匀随机</li>
+ * <li>{@link #nextOrdered()} 按时间递增(k-sortable), 高位是秒级时间戳, 然后是序号和分段号.
+ * 同一进程内保证不重复, 适合作为有序索引的key</li>
+ * </ul>
+ * Created by Nuclear on 2026/10/17
+ */
+public final class ShortId {
+
+    //文本长度
+    public static final int LENGTH = 8;
+
+    //ID的取值范围 [0, SPACE)
+    public static final long SPACE;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private static final int RADIX = ALPHABET.length;
+
+    //字符到数值的反查表, 非法字符为-1
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        long space = 1;
+        for (int i = 0; i < LENGTH; i++) {
+            space *= RADIX;
+        }
+        SPACE = space;
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DIGITS[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    //有序ID的布局(共47位, 2^47 < 62^8): [秒 30位][序号 13位][分段 4位]
+    private static final int STRIPE_BITS = 4;
+    private static final int SEQUENCE_BITS = 13;
+    private static final int TIME_BITS = 30;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final long MAX_SECOND = (1L << TIME_BITS) - 1;
+
+    //时间戳起点 2020-01-01T00:00:00Z, 30位秒可以用到2054年
+    public static final long ORDERED_EPOCH_MILLIS = 1577836800000L;
+
+    //每个分段一个 (秒 << SEQUENCE_BITS | 序号) 的状态, 间隔16个long(128字节)避免伪共享
+    private static final int PADDING = 16;
+    private static final AtomicLongArray ORDERED_STATE = new AtomicLongArray(STRIPES * PADDING);
+
+    private ShortId() {
+    }
+
+    /**
+     * 生成一个均匀分布的随机ID
+     */
+    public static long next() {
+        return ThreadLocalRandom.current().nextLong(SPACE);
+    }
+
+    /**
+     * 批量生成随机ID的文本, 连续写入dst, 共count * {@link #LENGTH}个字符
+     * <p>
+     * 每个64位随机数切成10个6位的片段, 落在[0, 62)的直接作为一个字符, 62和63丢弃(拒绝采样, 无偏),
+     * 平均一次随机数可以产出9.7个字符, 比一个ID需要的8个更多.
+     */
+    public static void nextChars(char[] dst, int offset, int count) {
+        int end = offset + count * LENGTH;
+        if (offset < 0 || count < 0 || end > dst.length || end < offset) {
+            throw new IndexOutOfBoundsException("need " + count * LENGTH + " chars at offset " + offset + ", length " + dst.length);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long bits = 0;
+        int remaining = 0;
+        int i = offset;
+        while (i < end) {
+            if (remaining == 0) {
+                bits = random.nextLong();
+                remaining = Long.SIZE / 6;
+            }
+            int value = (int) (bits & 0x3F);
+            bits >>>= 6;
+            remaining--;
+            if (value < RADIX) {
+                dst[i++] = ALPHABET[value];
+            }
+        }
+    }
+
+    /**
+     * 生成一个按时间递增的ID
+     * <p>
+     * 线程按id散列到16个分段, 每个分段内用CAS推进自己的(秒, 序号), 不同分段之间没有任何共享写,
+     * 分段号写在最低位, 所以同一秒内并发生成的ID在索引里也是相邻的.
+     * 同一分段每秒最多8192个, 超出后序号进位借用下一秒, 因此分段内严格递增、永不重复,
+     * 持续超速时ID的时间戳会略微领先于真实时间.
+     *
+     * @throws IllegalStateException 时间戳超出30位(2054年以后)
+     */
+    public static long nextOrdered() {
+        int stripe = stripe();
+        int index = stripe * PADDING;
+        long floor = currentSecond() << SEQUENCE_BITS;
+        long state;
+        for (; ; ) {
+            long current = ORDERED_STATE.get(index);
+            state = Math.max(current + 1, floor);
+            if (ORDERED_STATE.compareAndSet(index, current, state)) {
+                break;
+            }
+        }
+        if ((state >>> SEQUENCE_BITS) > MAX_SECOND) {
+            throw new IllegalStateException("ordered short id timestamp overflow");
+        }
+        return (state << STRIPE_BITS) | stripe;
+    }
+
+    /**
+     * 有序ID中的时间戳(毫秒, 精确到秒), 只对{@link #nextOrdered()}生成的ID有意义
+     */
+    public static long timestamp(long orderedId) {
+        return ORDERED_EPOCH_MILLIS + (orderedId >>> (SEQUENCE_BITS + STRIPE_BITS)) * 1000;
+    }
+
+    public static String encode(long id) {
+        char[] buffer = new char[LENGTH];
+        encode(id, buffer, 0);
+        return new String(buffer);
+    }
+
+    public static void encode(long id, char[] dst, int offset) {
+        checkId(id);
+        if (offset < 0 || dst.length - offset < LENGTH) {
+            throw new IndexOutOfBoundsException("need " + LENGTH + " chars at offset " + offset + ", length " + dst.length);
+        }
+        for (int i = offset + LENGTH - 1; i >= offset; i--) {
+            dst[i] = ALPHABET[(int) (id % RADIX)];
+            id /= RADIX;
+        }
+    }
+
+    /**
+     * 写入到CharBuffer的当前位置, 写完后position前进{@link #LENGTH}
+     */
+    public static void encode(long id, CharBuffer dst) {
+        if (dst.remaining() < LENGTH) {
+            throw new BufferOverflowException();
+        }
+        int position = dst.position();
+        if (dst.hasArray()) {
+            encode(id, dst.array(), dst.arrayOffset() + position);
+        } else {
+            checkId(id);
+            for (int i = position + LENGTH - 1; i >= position; i--) {
+                dst.put(i, ALPHABET[(int) (id % RADIX)]);
+                id /= RADIX;
+            }
+        }
+        dst.position(position + LENGTH);
+    }
+
+    public static long decode(CharSequence text) {
+        if (text.length() != LENGTH) {
+            throw new IllegalArgumentException("short id must be " + LENGTH + " chars: " + text);
+        }
+        return decode(text, 0);
+    }
+
+    /**
+     * 从text的offset处读取{@link #LENGTH}个字符
+     */
+    public static long decode(CharSequence text, int offset) {
+        long id = 0;
+        for (int i = offset; i < offset + LENGTH; i++) {
+            int digit = digit(text.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("illegal short id char '" + text.charAt(i) + "' in: " + text);
+            }
+            id = id * RADIX + digit;
+        }
+        return id;
+    }
+
+    public static long decode(char[] src, int offset) {
+        long id = 0;
+        for (int i = offset; i < offset + LENGTH; i++) {
+            int digit = digit(src[i]);
+            if (digit < 0) {
+                throw new IllegalArgumentException("illegal short id char '" + src[i] + "' at " + i);
+            }
+            id = id * RADIX + digit;
+        }
+        return id;
+    }
+
+    public static boolean isValid(CharSequence text) {
+        if (text == null || text.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (digit(text.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long currentSecond() {
+        return (System.currentTimeMillis() - ORDERED_EPOCH_MILLIS) / 1000;
+    }
+
+    private static int stripe() {
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> (Long.SIZE - STRIPE_BITS));
+    }
+
+    private static int digit(char c) {
+        return c < DIGITS.length ? DIGITS[c] : -1;
+    }
+
+    private static void checkId(long id) {
+        if (id < 0 || id >= SPACE) {
+            throw new IllegalArgumentException("short id out of range: " + id);
+        }
+    }
+}
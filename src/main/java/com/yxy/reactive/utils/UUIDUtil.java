@@ -1,6 +1,10 @@
 package com.yxy.reactive.utils;
 
-import java.util.UUID;
+import reactor.core.publisher.Flux;
+import reactor.util.concurrent.Queues;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
 
 /**
  * Created by Nuclear on 2020/6/22
@@ -12,14 +16,80 @@ public class UUIDUtil {
             "A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M",
             "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"};
 
+    //短ID的长度
+    public static final int SHORT_UUID_LENGTH = ShortId.LENGTH;
+
     public static String shortUUID() {
-        StringBuilder buffer = new StringBuilder();
-        String uuid = UUID.randomUUID().toString().replace("-", "");
-        for (int i = 0; i < 8; i++) {
-            String str = uuid.substring(i * 4, i * 4 + 4);
-            int x = Integer.parseInt(str, 16);
-            buffer.append(chars[x % 0x3E]);
+        return ShortId.encode(ShortId.next());
+    }
+
+    /**
+     * 直接写入调用方提供的数组, 不产生任何中间对象
+     *
+     * @param dst    目标数组
+     * @param offset 起始位置, 需要预留{@link #SHORT_UUID_LENGTH}个字符
+     */
+    public static void shortUUID(char[] dst, int offset) {
+        ShortId.encode(ShortId.next(), dst, offset);
+    }
+
+    /**
+     * 写入到CharBuffer的当前位置, 写完后position前进{@link #SHORT_UUID_LENGTH}
+     */
+    public static void shortUUID(CharBuffer dst) {
+        ShortId.encode(ShortId.next(), dst);
+    }
+
+    /**
+     * 按时间递增的短ID, 字母表和长度与{@link #shortUUID()}相同, 字典序即生成顺序(秒级)
+     *
+     * @see ShortId#nextOrdered()
+     */
+    public static String orderedShortUUID() {
+        return ShortId.encode(ShortId.nextOrdered());
+    }
+
+    public static void orderedShortUUID(char[] dst, int offset) {
+        ShortId.encode(ShortId.nextOrdered(), dst, offset);
+    }
+
+    /**
+     * 批量生成, 填满整个数组
+     */
+    public static String[] shortUUIDs(String[] dst) {
+        char[] buffer = new char[Math.min(dst.length, 1024) * SHORT_UUID_LENGTH];
+        int batch = buffer.length / SHORT_UUID_LENGTH;
+        for (int i = 0; i < dst.length; i += batch) {
+            int count = Math.min(batch, dst.length - i);
+            ShortId.nextChars(buffer, 0, count);
+            for (int j = 0; j < count; j++) {
+                dst[i + j] = new String(buffer, j * SHORT_UUID_LENGTH, SHORT_UUID_LENGTH);
+            }
         }
-        return buffer.toString();
+        return dst;
+    }
+
+    /**
+     * 批量生成, 紧凑地写入dst, 第i个ID位于 offset + i * {@link #SHORT_UUID_LENGTH}
+     */
+    public static void shortUUIDs(char[] dst, int offset, int count) {
+        ShortId.nextChars(dst, offset, count);
+    }
+
+    /**
+     * 无限的短ID流, 每次按prefetch个一批生成, 下游request(n)只会触发按批的生成
+     *
+     * @param prefetch 每批的数量
+     */
+    public static Flux<String> shortUUIDFlux(int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+        }
+        return Flux.<String[]>generate(sink -> sink.next(shortUUIDs(new String[prefetch])))
+                .concatMapIterable(Arrays::asList, 1);
+    }
+
+    public static Flux<String> shortUUIDFlux() {
+        return shortUUIDFlux(Queues.SMALL_BUFFER_SIZE);
     }
 }
@@ -0,0 +1,42 @@
+package com.yxy.reactive.web;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * 批量导入时每一批的统计
+ * Created by Nuclear on 2026/10/17
+ */
+@Getter
+public class IngestStats {
+
+    //第几批, 从1开始
+    private final long batch;
+    //这一批的条数
+    private final int count;
+    //到目前为止的总条数
+    private final long total;
+    //这一批从交给存储到全部落盘的耗时
+    private final double latencyMillis;
+    //从开始到现在的平均速率, 条/秒
+    private final long ratePerSecond;
+
+    public IngestStats(long batch, int count, long total, long latencyNanos, long elapsedNanos) {
+        this.batch = batch;
+        this.count = count;
+        this.total = total;
+        this.latencyMillis = latencyNanos / 1_000_000.0;
+        this.ratePerSecond = elapsedNanos > 0 ? total * 1_000_000_000L / elapsedNanos : 0;
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"batch\":%d,\"count\":%d,\"total\":%d,\"latencyMillis\":%.3f,\"ratePerSecond\":%d}",
+                batch, count, total, latencyMillis, ratePerSecond);
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
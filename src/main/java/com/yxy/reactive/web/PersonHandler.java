@@ -0,0 +1,173 @@
+package com.yxy.reactive.web;
+
+import com.yxy.reactive.codec.PersonJsonEncoder;
+import com.yxy.reactive.codec.PersonJsonWriter;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.store.PersonStore;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Person的HTTP接口
+ * <p>
+ * 列表和生成接口按Accept返回application/x-ndjson(默认)或者text/event-stream, 每条记录单独写出.
+ * 数据源只在netty的channel可写、下游request的时候才继续产生数据, 慢客户端会直接限制读日志的速度, 不会在内存里堆积
+ * Created by Nuclear on 2026/10/17
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "reactive.store", name = "enabled", matchIfMissing = true)
+public class PersonHandler {
+
+    //生成接口单次最多的条数
+    static final long MAX_GENERATE = 100_000_000L;
+
+    static final int DEFAULT_BULK_BATCH = 1000;
+    static final int MAX_BULK_BATCH = 100_000;
+
+    private final PersonStore store;
+
+    public PersonHandler(PersonStore store) {
+        this.store = store;
+    }
+
+    /**
+     * POST /persons, name为空时自动生成
+     */
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(Person.class)
+                .map(person -> person.getName() == null ? new Person(UUIDUtil.shortUUID(), person.getSex()) : person)
+                .flatMap(store::save)
+                .flatMap(person -> ServerResponse.created(URI.create("/persons/" + person.getName()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(person))
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+    }
+
+    /**
+     * GET /persons/{name}
+     */
+    public Mono<ServerResponse> get(ServerRequest request) {
+        return store.findByName(request.pathVariable("name"))
+                .flatMap(person -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(person))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build()));
+    }
+
+    /**
+     * GET /persons, 按写入顺序返回每个name的最新记录
+     */
+    public Mono<ServerResponse> list(ServerRequest request) {
+        return stream(request, store.findAll());
+    }
+
+    /**
+     * GET /persons/generate?count=n, 随机生成n条Person(不保存), 用于压测流式输出
+     */
+    public Mono<ServerResponse> generate(ServerRequest request) {
+        long count = count(request);
+        if (count < 0) {
+            return ServerResponse.badRequest().bodyValue("count must be a number in [0, " + MAX_GENERATE + "]");
+        }
+        return stream(request, random(count));
+    }
+
+    /**
+     * POST /persons/generate?count=n, 随机生成n条Person并保存, 返回保存的条数
+     */
+    public Mono<ServerResponse> seed(ServerRequest request) {
+        long count = count(request);
+        if (count < 0) {
+            return ServerResponse.badRequest().bodyValue("count must be a number in [0, " + MAX_GENERATE + "]");
+        }
+        long start = System.nanoTime();
+        return store.saveAll(random(count))
+                .count()
+                .doOnNext(saved -> log.info("seeded {} persons in {} ms", saved, (System.nanoTime() - start) / 1_000_000))
+                .flatMap(saved -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue("{\"count\":" + saved + "}"))
+                .onErrorResume(IllegalStateException.class, e -> ServerResponse.status(507).bodyValue(e.getMessage()));
+    }
+
+    /**
+     * POST /persons/bulk?batchSize=n, body是NDJSON(Content-Type: application/x-ndjson)
+     * <p>
+     * body由{@link com.yxy.reactive.codec.PersonJsonDecoder}按行切分并逐条解码, 每batchSize条写入一次存储,
+     * 同一时间只有一批在写, 写完才会继续request, 背压一直传到netty的读取(按行切分时只预取一个chunk), 上传再快堆内存也只有一两批数据.
+     * 响应是NDJSON, 每写完一批输出一行{@link IngestStats}, 出错时最后一行是{"error":"..."}
+     */
+    public Mono<ServerResponse> bulk(ServerRequest request) {
+        int batchSize;
+        try {
+            batchSize = Integer.parseInt(request.queryParam("batchSize").orElse(String.valueOf(DEFAULT_BULK_BATCH)));
+        } catch (NumberFormatException e) {
+            batchSize = -1;
+        }
+        if (batchSize <= 0 || batchSize > MAX_BULK_BATCH) {
+            return ServerResponse.badRequest().bodyValue("batchSize must be a number in [1, " + MAX_BULK_BATCH + "]");
+        }
+        int size = batchSize;
+        Flux<String> stats = Flux.defer(() -> {
+            long start = System.nanoTime();
+            long[] total = {0};
+            return request.bodyToFlux(Person.class)
+                    .buffer(size)
+                    .index()
+                    //出错时先让正在写的那一批写完, 统计里的total才是准确的
+                    .concatMapDelayError(batch -> {
+                        long batchStart = System.nanoTime();
+                        return store.saveAll(Flux.fromIterable(batch.getT2()))
+                                .then(Mono.fromSupplier(() -> {
+                                    long now = System.nanoTime();
+                                    total[0] += batch.getT2().size();
+                                    return new IngestStats(batch.getT1() + 1, batch.getT2().size(), total[0], now - batchStart, now - start);
+                                }));
+                    }, false, 1)
+                    .doOnNext(batch -> log.info("bulk ingest {}", batch))
+                    .doOnComplete(() -> log.info("bulk ingest done, {} persons in {} ms", total[0], (System.nanoTime() - start) / 1_000_000))
+                    .map(batch -> batch.toJson() + "\n")
+                    .onErrorResume(e -> {
+                        log.warn("bulk ingest failed after {} persons", total[0], e);
+                        return Mono.just("{\"error\":\"" + e.getClass().getSimpleName() + "\",\"total\":" + total[0] + "}\n");
+                    });
+        });
+        return ServerResponse.ok().contentType(PersonJsonEncoder.APPLICATION_NDJSON).body(stats, String.class);
+    }
+
+    //count参数, 默认1000, 不合法时返回-1
+    private static long count(ServerRequest request) {
+        try {
+            long count = Long.parseLong(request.queryParam("count").orElse("1000"));
+            return count <= MAX_GENERATE ? count : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Flux<Person> random(long count) {
+        return UUIDUtil.shortUUIDFlux()
+                .take(count)
+                .index((i, name) -> new Person(name, i % 2 == 0 ? "Male" : "Female"));
+    }
+
+    private static Mono<ServerResponse> stream(ServerRequest request, Flux<Person> people) {
+        if (request.headers().accept().stream().anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype)) {
+            //SSE的data直接用Person的JSON文本, 不依赖全局的SSE编码器(默认是Jackson)
+            Flux<ServerSentEvent<String>> events = people.map(person -> ServerSentEvent.<String>builder()
+                    .id(person.getName())
+                    .data(PersonJsonWriter.toJson(person))
+                    .build());
+            return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM)
+                    .body(events, ServerSentEvent.class);
+        }
+        return ServerResponse.ok().contentType(PersonJsonEncoder.APPLICATION_NDJSON).body(people, Person.class);
+    }
+}
@@ -0,0 +1,33 @@
+package com.yxy.reactive.web;
+
+import com.yxy.reactive.codec.PersonJsonEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Person相关的路由
+ * Created by Nuclear on 2026/10/17
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "reactive.store", name = "enabled", matchIfMissing = true)
+public class PersonRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> personRoutes(PersonHandler handler) {
+        return route(GET("/persons/generate"), handler::generate)
+                .andRoute(POST("/persons/generate"), handler::seed)
+                .andRoute(POST("/persons/bulk").and(contentType(PersonJsonEncoder.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON)), handler::bulk)
+                .andRoute(GET("/persons/{name}"), handler::get)
+                .andRoute(GET("/persons"), handler::list)
+                .andRoute(POST("/persons"), handler::create);
+    }
+}
@@ -0,0 +1,96 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.collect.AdaptiveGrouping;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 低基数分组收集器
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class AdaptiveGroupingTest {
+
+    private static List<Person> people(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"))
+                .collect(Collectors.toList());
+    }
+
+    //StreamTest.test_02_0的写法换成AdaptiveGrouping
+    @Test
+    void test_00_0() {
+        List<Person> people = people(10);
+        Map<String, List<Person>> map = people.stream().collect(AdaptiveGrouping.groupingBy(Person::getSex));
+        System.out.println(map);
+        assertEquals(5, map.get("Male").size());
+        assertEquals(5, map.get("Female").size());
+    }
+
+    //并行流, 与groupingBy的结果相同(不比较顺序)
+    @Test
+    void test_00_1() {
+        List<Person> people = people(200_000);
+        Map<String, List<Person>> expected = people.stream().collect(Collectors.groupingBy(Person::getSex));
+        Map<String, List<Person>> actual = people.parallelStream().collect(AdaptiveGrouping.groupingBy(Person::getSex));
+        assertSameGroups(expected, actual);
+    }
+
+    //key多于lowCardinalityLimit时改为并发写入, 已经写进线程map的数据也不会丢
+    @Test
+    void test_00_2() {
+        List<Person> people = people(100_000);
+        Map<String, List<Person>> expected = people.stream().collect(Collectors.groupingBy(p -> p.getName().substring(0, 2)));
+        Map<String, List<Person>> parallel = people.parallelStream()
+                .collect(AdaptiveGrouping.groupingBy(p -> p.getName().substring(0, 2), 16));
+        assertSameGroups(expected, parallel);
+        Map<String, List<Person>> sequential = people.stream()
+                .collect(AdaptiveGrouping.groupingBy(p -> p.getName().substring(0, 2), 0));
+        assertSameGroups(expected, sequential);
+    }
+
+    @Test
+    void test_00_3() {
+        assertThrows(NullPointerException.class, () -> people(3).stream().collect(AdaptiveGrouping.groupingBy(p -> null)));
+        assertTrue(Collections.<Person>emptyList().parallelStream().collect(AdaptiveGrouping.groupingBy(Person::getSex)).isEmpty());
+    }
+
+    //并行收集结束后, 公共池线程上的ThreadLocal条目不再引用元素
+    @Test
+    void test_00_4() throws InterruptedException {
+        List<Person> people = people(100_000);
+        List<WeakReference<Person>> refs = people.stream().limit(1000).map(WeakReference::new).collect(Collectors.toList());
+        Map<String, List<Person>> groups = people.parallelStream().collect(AdaptiveGrouping.groupingBy(Person::getSex));
+        assertEquals(100_000, groups.values().stream().mapToInt(List::size).sum());
+        people = null;
+        groups = null;
+        for (int i = 0; i < 10 && refs.stream().anyMatch(ref -> ref.get() != null); i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertTrue(refs.stream().allMatch(ref -> ref.get() == null));
+    }
+
+    private static void assertSameGroups(Map<String, List<Person>> expected, Map<String, List<Person>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        Comparator<Person> byName = Comparator.comparing(Person::getName);
+        expected.forEach((key, list) -> {
+            List<Person> sortedExpected = new ArrayList<>(list);
+            List<Person> sortedActual = new ArrayList<>(actual.get(key));
+            sortedExpected.sort(byName);
+            sortedActual.sort(byName);
+            assertEquals(sortedExpected, sortedActual, key);
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.operator.AssemblyProfiler;
+import com.yxy.reactive.operator.Fallbacks;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 延迟兜底操作符和组装开销分析
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class AssemblyProfilerTest {
+
+    private final AtomicInteger fallbackCalls = new AtomicInteger();
+
+    private Mono<String> fallback() {
+        fallbackCalls.incrementAndGet();
+        return Mono.just("fallback").map(String::toUpperCase).filter(s -> !s.isEmpty());
+    }
+
+    //Fallbacks只在需要时调用supplier
+    @Test
+    void test_00_0() {
+        StepVerifier.create(Mono.just("1").transform(Fallbacks.switchIfEmpty(this::fallback))).expectNext("1").verifyComplete();
+        StepVerifier.create(Mono.<String>empty().transform(Fallbacks.switchIfEmpty(this::fallback))).expectNext("FALLBACK").verifyComplete();
+        assertEquals(1, fallbackCalls.get());
+
+        StepVerifier.create(Flux.just("1", "2").transform(Fallbacks.switchIfEmptyMany(() -> Flux.just("3")))).expectNext("1", "2").verifyComplete();
+        StepVerifier.create(Flux.<String>empty().transform(Fallbacks.switchIfEmptyMany(() -> Flux.just("3")))).expectNext("3").verifyComplete();
+
+        AtomicInteger defaults = new AtomicInteger();
+        StepVerifier.create(Mono.just(1).transform(Fallbacks.defaultIfEmpty(defaults::incrementAndGet))).expectNext(1).verifyComplete();
+        StepVerifier.create(Mono.<Integer>empty().transform(Fallbacks.defaultIfEmpty(defaults::incrementAndGet))).expectNext(1).verifyComplete();
+        assertEquals(1, defaults.get());
+
+        StepVerifier.create(Mono.<String>error(new IllegalStateException()).transform(Fallbacks.onErrorResume(this::fallback)))
+                .expectNext("FALLBACK").verifyComplete();
+        StepVerifier.create(Mono.<String>never().transform(Fallbacks.timeout(Duration.ofMillis(50), this::fallback)))
+                .expectNext("FALLBACK").verifyComplete();
+        StepVerifier.create(Mono.just("1").transform(Fallbacks.timeout(Duration.ofMillis(50), this::fallback)))
+                .expectNext("1").verifyComplete();
+        assertEquals(3, fallbackCalls.get());
+    }
+
+    //switchIfEmpty(fallback())构造了却没用上的流水线会被标记出来, Fallbacks的写法不会
+    @Test
+    void test_01_0() {
+        try (AssemblyProfiler profiler = AssemblyProfiler.install()) {
+            for (int i = 0; i < 10; i++) {
+                StepVerifier.create(profiler.profile("eager", () -> Mono.just("1").map(s -> s + "2").switchIfEmpty(fallback())))
+                        .expectNext("12").verifyComplete();
+                StepVerifier.create(profiler.profile("lazy", () -> Mono.just("1").map(s -> s + "2")
+                        .transform(Fallbacks.switchIfEmpty(this::fallback))))
+                        .expectNext("12").verifyComplete();
+            }
+            log.info(profiler.report(5));
+
+            List<AssemblyProfiler.Offender> offenders = profiler.offenders(5);
+            assertEquals(1, offenders.size());
+            AssemblyProfiler.Offender offender = offenders.get(0);
+            assertTrue(offender.getSite().startsWith("AssemblyProfilerTest.fallback:"), offender.getSite());
+            assertTrue(offender.getCaller().startsWith("AssemblyProfilerTest.lambda$test_01_0$"), offender.getCaller());
+            //just, map, filter
+            assertEquals(30, offender.getUnusedOperators());
+            assertEquals(10, offender.getRequests().sum());
+            assertTrue(offender.getWastedBytes() > 0);
+            assertTrue(offender.getWastedNanos() > 0);
+
+            AssemblyProfiler.LabelStats eager = profiler.labels().stream().filter(s -> s.getLabel().equals("eager")).findFirst().orElseThrow();
+            AssemblyProfiler.LabelStats lazy = profiler.labels().stream().filter(s -> s.getLabel().equals("lazy")).findFirst().orElseThrow();
+            assertEquals(10, eager.getRequests().sum());
+            assertEquals(30, eager.getUnusedOperators().sum());
+            assertEquals(0, lazy.getUnusedOperators().sum());
+            assertTrue(eager.getOperators().sum() > lazy.getOperators().sum());
+        }
+        //eager写法每次组装都调用了fallback()
+        assertEquals(10, fallbackCalls.get());
+    }
+
+    //异步订阅和Flux
+    @Test
+    void test_01_1() {
+        try (AssemblyProfiler profiler = AssemblyProfiler.install()) {
+            StepVerifier.create(profiler.profileMany("flux", () -> Flux.range(0, 10)
+                    .delayElements(Duration.ofMillis(1))
+                    .switchIfEmpty(Flux.just(-1).map(i -> i * 2))))
+                    .expectNextCount(10).verifyComplete();
+            List<AssemblyProfiler.Offender> offenders = profiler.offenders(5);
+            assertEquals(1, offenders.size());
+            assertEquals(2, offenders.get(0).getUnusedOperators());
+            log.info(profiler.report(5));
+        }
+    }
+
+    //按浪费的分配量排序: 一个提前分配了大数组的操作符排在几个小操作符前面
+    @Test
+    void test_01_2() {
+        try (AssemblyProfiler profiler = AssemblyProfiler.install()) {
+            for (int i = 0; i < 5; i++) {
+                StepVerifier.create(profiler.profile("mixed", () -> Mono.just(1)
+                        .switchIfEmpty(Mono.just(2).map(n -> n + 1).filter(n -> n > 0).map(n -> n * 2))
+                        .switchIfEmpty(Mono.just(new byte[1 << 20]).map(bytes -> bytes.length))))
+                        .expectNext(1).verifyComplete();
+            }
+            log.info(profiler.report(5));
+            List<AssemblyProfiler.Offender> offenders = profiler.offenders(5);
+            assertEquals(2, offenders.size());
+            assertTrue(offenders.get(0).getUnusedOperators() < offenders.get(1).getUnusedOperators());
+            assertTrue(offenders.get(0).getWastedBytes() > 5 << 20);
+            assertTrue(offenders.get(1).getWastedBytes() < 1 << 20);
+            //分析本身的开销不算在组装里
+            AssemblyProfiler.LabelStats mixed = profiler.labels().iterator().next();
+            assertTrue(mixed.getBytes().sum() < 6 << 20);
+        }
+    }
+}
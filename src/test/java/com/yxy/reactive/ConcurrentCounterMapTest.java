@@ -0,0 +1,114 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.collect.ConcurrentCounterMap;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 并发计数Map
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class ConcurrentCounterMapTest {
+
+    private static final String STR = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+
+    //MapTest.test_05_1的并发版本, ParallelFlux的每个rail计数到同一个map
+    @Test
+    void test_00_0() {
+        ConcurrentCounterMap<Character> counters = new ConcurrentCounterMap<>();
+        Flux.range(0, 1000)
+                .parallel(4)
+                .runOn(Schedulers.parallel())
+                .doOnNext(i -> {
+                    for (char c : STR.replaceAll(" ", "").toLowerCase().toCharArray()) {
+                        counters.increment(c);
+                    }
+                })
+                .sequential()
+                .blockLast();
+        System.out.println(counters.top(3));
+        //[n=16000, t=12000, a=11000]
+        assertEquals(16_000, counters.get('n'));
+        assertEquals(0, counters.get('z'));
+        assertEquals(20, counters.size());
+        assertEquals(STR.replaceAll(" ", "").length() * 1000L, counters.sum());
+        List<Map.Entry<Character, Long>> top = counters.top(3);
+        assertEquals(Map.entry('n', 16_000L), top.get(0));
+        assertEquals(Map.entry('t', 12_000L), top.get(1));
+        assertEquals(11_000L, top.get(2).getValue());
+    }
+
+    //同一个key被多个线程同时更新, 扩展成分条计数后不丢失
+    @Test
+    void test_00_1() throws Exception {
+        ConcurrentCounterMap<String> counters = new ConcurrentCounterMap<>();
+        int threads = 8;
+        int perThread = 500_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicBoolean decreased = new AtomicBoolean();
+        //读取不阻塞写入, 结果单调不减
+        Thread reader = new Thread(() -> {
+            long last = 0;
+            while (!stop.get()) {
+                long current = counters.get("hot");
+                if (current < last) {
+                    decreased.set(true);
+                }
+                last = current;
+                counters.snapshot();
+                counters.top(2);
+            }
+        });
+        reader.start();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    counters.increment("hot");
+                    if (i % 100 == 0) {
+                        counters.add("cold-" + id, 2);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        stop.set(true);
+        reader.join();
+        assertFalse(decreased.get());
+
+        assertEquals((long) threads * perThread, counters.get("hot"));
+        assertEquals(perThread / 100 * 2, counters.get("cold-0"));
+        assertEquals(threads + 1, counters.snapshot().size());
+        log.info("hot keys: {}", counters.hotKeys());
+        assertFalse(counters.hotKeys().containsKey("cold-0"));
+
+        assertEquals((long) threads * perThread, counters.remove("hot"));
+        assertEquals(0, counters.get("hot"));
+        counters.clear();
+        assertEquals(0, counters.size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.collect.FlatGrouping;
+import com.yxy.reactive.collect.GroupTable;
+import com.yxy.reactive.model.Person;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 平铺的多级分组
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class FlatGroupingTest {
+
+    //StreamTest.test_02_2的数据
+    private static List<Person> people() {
+        ArrayList<Person> people = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            people.add(new Person(String.valueOf(i % 3), i % 2 == 0 ? "Male" : "Female"));
+        }
+        return people;
+    }
+
+    @Test
+    void test_00_0() {
+        GroupTable<List<Person>> table = people().stream().collect(FlatGrouping.by(Person::getSex, Person::getName).toList());
+        Map<String, Map<String, List<Person>>> map = table.asMap();
+        System.out.println(map);
+        //{Male={0=[{"name":"0","sex":"Male"}, {"name":"0","sex":"Male"}], 2=[{"name":"2","sex":"Male"}, {"name":"2","sex":"Male"}], 1=[{"name":"1","sex":"Male"}]},
+        // Female={1=[{"name":"1","sex":"Female"}, {"name":"1","sex":"Female"}], 0=[{"name":"0","sex":"Female"}, {"name":"0","sex":"Female"}], 2=[{"name":"2","sex":"Female"}]}}
+        Map<String, Map<String, List<Person>>> expected = people().stream()
+                .collect(Collectors.groupingBy(Person::getSex, Collectors.groupingBy(Person::getName)));
+        assertEquals(expected, map);
+        assertEquals(6, table.size());
+        assertEquals(2, table.levels());
+        assertEquals(List.of(new Person("1", "Male")), table.get("Male", "1"));
+        assertNull(table.get("Male", "3"));
+        assertEquals(2, table.count("Female", "0"));
+        assertEquals(0, table.count("Other", "0"));
+        assertThrows(IllegalArgumentException.class, () -> table.get("Male"));
+        //视图按第一次出现的顺序
+        assertEquals(List.of("Male", "Female"), new ArrayList<>(map.keySet()));
+        assertEquals(List.of("0", "2", "1"), new ArrayList<>(map.get("Male").keySet()));
+        assertTrue(map.containsKey("Female"));
+        assertFalse(map.containsKey("Other"));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("Other", Map.of()));
+        //分组里的列表也是只读的
+        assertThrows(UnsupportedOperationException.class, () -> table.get("Male", "1").add(new Person("1", "Male")));
+        assertThrows(UnsupportedOperationException.class, () -> map.get("Female").get("0").clear());
+        assertEquals(2, table.count("Female", "0"));
+    }
+
+    //三级, 统计值, 并行流合并
+    @Test
+    void test_00_1() {
+        List<Person> people = IntStream.range(0, 100_000)
+                .mapToObj(i -> new Person(Integer.toString(i % 1000, 36), i % 2 == 0 ? "Male" : "Female"))
+                .collect(Collectors.toList());
+        GroupTable<Long> counts = people.parallelStream()
+                .collect(FlatGrouping.<Person>by(Person::getSex, p -> p.getName().charAt(0), p -> p.getName().length()).counting());
+        Map<String, Map<Character, Map<Integer, Long>>> expected = people.stream()
+                .collect(Collectors.groupingBy(Person::getSex, Collectors.groupingBy(p -> p.getName().charAt(0),
+                        Collectors.groupingBy(p -> p.getName().length(), Collectors.counting()))));
+        assertEquals(expected, counts.asMap());
+
+        GroupTable<LongSummaryStatistics> stats = people.parallelStream()
+                .collect(FlatGrouping.<Person>by(Person::getSex, p -> p.getName().length()).summarizing(p -> Long.parseLong(p.getName(), 36)));
+        Map<String, Map<Integer, LongSummaryStatistics>> expectedStats = people.stream()
+                .collect(Collectors.groupingBy(Person::getSex, Collectors.groupingBy(p -> p.getName().length(),
+                        Collectors.summarizingLong(p -> Long.parseLong(p.getName(), 36)))));
+        expectedStats.forEach((sex, byLength) -> byLength.forEach((length, expectedStat) -> {
+            LongSummaryStatistics actual = stats.get(sex, length);
+            assertEquals(expectedStat.getCount(), actual.getCount());
+            assertEquals(expectedStat.getSum(), actual.getSum());
+            assertEquals(expectedStat.getMin(), actual.getMin());
+            assertEquals(expectedStat.getMax(), actual.getMax());
+        }));
+
+        List<List<Object>> keys = new ArrayList<>();
+        stats.forEach((key, value) -> keys.add(key));
+        assertEquals(stats.size(), keys.size());
+        assertEquals(2, keys.get(0).size());
+    }
+
+    @Test
+    void test_00_2() {
+        assertThrows(NullPointerException.class, () -> people().stream().collect(FlatGrouping.<Person>by(p -> null).counting()));
+        assertThrows(IllegalArgumentException.class, FlatGrouping::by);
+        GroupTable<Long> empty = Collections.<Person>emptyList().stream().collect(FlatGrouping.<Person>by(Person::getSex).counting());
+        assertEquals(0, empty.size());
+        assertTrue(empty.asMap().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.collect.CharCounter;
+import com.yxy.reactive.collect.TokenCounter;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 字符和token计数
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class FrequencyCounterTest {
+
+    private static final String STR = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+
+    //与MapTest.test_00_1的结果一致
+    @Test
+    void test_00_0() {
+        CharCounter counter = new CharCounter();
+        for (int i = 0; i < STR.length(); i++) {
+            char c = STR.charAt(i);
+            if (c != ' ') {
+                counter.add(Character.toLowerCase(c));
+            }
+        }
+        System.out.println(counter);
+        //{a=11, b=2, c=4, d=1, e=11, g=2, h=4, i=7, k=1, l=7, m=6, n=16, o=5, p=2, r=4, s=9, t=12, u=9, v=1, y=2}
+
+        Map<Character, Long> expected = new TreeMap<>();
+        for (String s : STR.replaceAll(" ", "").toLowerCase().split("")) {
+            expected.merge(s.charAt(0), 1L, Long::sum);
+        }
+        assertEquals(expected, counter.toMap());
+        assertEquals(20, counter.distinct());
+        assertEquals(STR.replaceAll(" ", "").length(), counter.total());
+        assertEquals(16, counter.count('n'));
+        assertEquals(0, counter.count('z'));
+    }
+
+    //非ASCII字符, 合并
+    @Test
+    void test_00_1() {
+        CharCounter a = new CharCounter();
+        a.addAll("孙悟空花果山水帘洞");
+        CharCounter b = new CharCounter();
+        b.addAll("猪八戒天河孙悟空￿".toCharArray(), 0, 9);
+        a.merge(b);
+        assertEquals(2, a.count('孙'));
+        assertEquals(1, a.count('河'));
+        assertEquals(1, a.count('￿'));
+        assertEquals(18, a.total());
+        assertEquals(15, a.distinct());
+        a.clear();
+        assertEquals(0, a.total());
+        assertEquals(0, a.count('孙'));
+    }
+
+    @Test
+    void test_01_0() {
+        TokenCounter counter = new TokenCounter();
+        counter.addAll(STR.toLowerCase(), ' ');
+        System.out.println(counter);
+        Map<String, Long> expected = new HashMap<>();
+        for (String s : STR.toLowerCase().split(" ")) {
+            expected.merge(s, 1L, Long::sum);
+        }
+        assertEquals(expected, counter.toMap());
+        assertEquals(2, counter.count("null"));
+        assertEquals(0, counter.count("nul"));
+        assertEquals(STR.split(" ").length, counter.total());
+
+        List<Map.Entry<String, Long>> top = counter.top(2);
+        assertEquals(Map.entry("the", 2L), top.get(0));
+        assertEquals(Map.entry("null", 2L), top.get(1));
+    }
+
+    //扩容、子串作为key、合并, 与HashMap对照
+    @Test
+    void test_01_1() {
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder();
+        Map<String, Long> expected = new HashMap<>();
+        TokenCounter a = new TokenCounter(1);
+        TokenCounter b = new TokenCounter();
+        for (int i = 0; i < 200_000; i++) {
+            String word = Integer.toString(random.nextInt(50_000), 36);
+            int start = text.length();
+            text.append(word).append(',');
+            (i % 2 == 0 ? a : b).add(text, start, start + word.length());
+            expected.merge(word, 1L, Long::sum);
+        }
+        a.merge(b);
+        assertEquals(expected, a.toMap());
+        assertEquals(expected.size(), a.size());
+        assertEquals(200_000, a.total());
+
+        TokenCounter split = new TokenCounter();
+        split.addAll(text, ',');
+        assertEquals(expected, split.toMap());
+        split.clear();
+        assertEquals(0, split.size());
+        assertEquals(0, split.count("a"));
+    }
+}
@@ -0,0 +1,185 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.stats.CountMinSketch;
+import com.yxy.reactive.stats.HeavyHitter;
+import com.yxy.reactive.stats.HeavyHitters;
+import com.yxy.reactive.stats.HeavyHittersRecorder;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * top-K草图
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class HeavyHittersTest {
+
+    private static final String STR = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+
+    //StreamTest.test_03_3的计数, key数小于监视数时结果是精确的
+    @Test
+    void test_00_0() {
+        String[] strings = STR.replaceAll(" ", "").toLowerCase().split("");
+        Map<String, Long> expected = Arrays.stream(strings).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        HeavyHitters<String> sketch = Flux.fromArray(strings).as(HeavyHittersRecorder.heavyHitters(0.01, 0.01)).block();
+        assertNotNull(sketch);
+        List<HeavyHitter<String>> top = sketch.top(3);
+        System.out.println(top);
+        //[n=16, t=12, e=11]
+        assertEquals("n", top.get(0).getItem());
+        assertEquals(16, top.get(0).getCount());
+        assertEquals(0, top.get(0).getError());
+        expected.forEach((key, count) -> assertEquals(count, sketch.estimate(key)));
+        assertEquals(0, sketch.estimate("z"));
+        assertEquals(strings.length, sketch.total());
+
+        CountMinSketch cms = new CountMinSketch(0.001, 0.01);
+        assertEquals(4096, cms.width());
+        assertEquals(5, cms.depth());
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitters<String>(0, 0.1));
+    }
+
+    //Zipf分布, 10万个key, 监视1000个: 超过epsilon * N的key都在, 每个key的真实次数在给出的范围内
+    @Test
+    void test_00_1() {
+        String[] stream = zipf(100_000, 1_000_000, 1.1, 7);
+        Map<String, Long> exact = Arrays.stream(stream).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        double epsilon = 0.001;
+        HeavyHitters<String> sketch = new HeavyHitters<>(epsilon, 0.01);
+        for (String item : stream) {
+            sketch.add(item);
+        }
+        checkBounds(sketch, exact, epsilon * stream.length);
+        List<String> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(10).map(Map.Entry::getKey).collect(Collectors.toList());
+        List<HeavyHitter<String>> top = sketch.top(10);
+        log.info("exact: {}, sketch: {}", exactTop, top);
+        assertEquals(exactTop, top.stream().map(HeavyHitter::getItem).collect(Collectors.toList()));
+    }
+
+    //ParallelFlux每个rail一个实例, 结束后合并
+    @Test
+    void test_00_2() {
+        String[] stream = zipf(50_000, 400_000, 1.1, 11);
+        Map<String, Long> exact = Arrays.stream(stream).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        double epsilon = 0.002;
+        HeavyHitters<String> merged = Flux.fromArray(stream)
+                .parallel(4)
+                .runOn(Schedulers.parallel())
+                .as(HeavyHittersRecorder.heavyHittersRails(epsilon, 0.01))
+                .block();
+        assertNotNull(merged);
+        assertEquals(stream.length, merged.total());
+        //合并后的误差界是各部分之和, 仍然不超过epsilon * N
+        checkBounds(merged, exact, epsilon * stream.length);
+        assertEquals("key-0", merged.top(1).get(0).getItem());
+    }
+
+    //无限流运行中定时取快照
+    @Test
+    void test_00_3() {
+        String[] stream = zipf(1000, 1 << 16, 1.2, 3);
+        HeavyHittersRecorder<String> recorder = new HeavyHittersRecorder<>(0.01, 0.01);
+        Flux.interval(Duration.ofMillis(1))
+                .onBackpressureDrop()
+                .parallel(2)
+                .runOn(Schedulers.parallel())
+                .map(i -> stream[(int) (i & (stream.length - 1))])
+                .transform(recorder.recordingRails())
+                .sequential()
+                .take(Duration.ofMillis(500))
+                .subscribe();
+        List<List<HeavyHitter<String>>> snapshots = recorder.snapshots(Duration.ofMillis(100), 3)
+                .doOnNext(top -> log.info("{}", top))
+                .take(4)
+                .collectList()
+                .block();
+        assertNotNull(snapshots);
+        assertEquals(4, snapshots.size());
+        List<HeavyHitter<String>> last = snapshots.get(3);
+        assertFalse(last.isEmpty());
+        assertEquals("key-0", last.get(0).getItem());
+        assertTrue(last.get(0).getCount() >= snapshots.get(0).get(0).getCount());
+    }
+
+    //intervals只看每个周期内的数据, 结束的线程的数据并入累计值
+    @Test
+    void test_00_4() throws InterruptedException {
+        HeavyHittersRecorder<String> recorder = new HeavyHittersRecorder<>(0.01, 0.01);
+        for (int i = 0; i < 100; i++) {
+            recorder.record("old");
+        }
+        assertEquals("old", recorder.drain().top(1).get(0).getItem());
+        for (int i = 0; i < 10; i++) {
+            recorder.record("new");
+        }
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                recorder.record("other");
+            }
+        });
+        writer.start();
+        writer.join();
+        List<HeavyHitter<String>> interval = recorder.drain().top(5);
+        assertEquals(2, interval.size());
+        assertEquals("new", interval.get(0).getItem());
+        assertEquals(10, interval.get(0).getCount());
+        assertEquals("other", interval.get(1).getItem());
+        assertTrue(recorder.drain().top(5).isEmpty());
+
+        List<HeavyHitter<String>> total = recorder.top(5);
+        assertEquals(List.of("old", "new", "other"), total.stream().map(HeavyHitter::getItem).collect(Collectors.toList()));
+        assertEquals(115, recorder.snapshot().total());
+
+        StepVerifier.create(recorder.intervals(Duration.ofMillis(50), 1).take(2))
+                .assertNext(top -> assertTrue(top.isEmpty()))
+                .then(() -> recorder.record("late"))
+                .assertNext(top -> assertEquals("late", top.get(0).getItem()))
+                .verifyComplete();
+    }
+
+    private static void checkBounds(HeavyHitters<String> sketch, Map<String, Long> exact, double maxError) {
+        Set<String> reported = new HashSet<>();
+        for (HeavyHitter<String> hitter : sketch.top(sketch.capacity())) {
+            long count = exact.get(hitter.getItem());
+            assertTrue(hitter.lowerBound() <= count && count <= hitter.getCount(), hitter + " vs " + count);
+            assertTrue(hitter.getCount() - count <= maxError, hitter + " vs " + count);
+            reported.add(hitter.getItem());
+        }
+        exact.forEach((key, count) -> {
+            if (count > maxError) {
+                assertTrue(reported.contains(key), key + "=" + count);
+            }
+            assertTrue(sketch.estimate(key) >= count);
+        });
+    }
+
+    private static String[] zipf(int keys, int length, double s, long seed) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1 / Math.pow(i + 1, s);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(seed);
+        String[] stream = new String[length];
+        for (int i = 0; i < length; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            stream[i] = "key-" + (index < 0 ? -index - 1 : index);
+        }
+        return stream;
+    }
+}
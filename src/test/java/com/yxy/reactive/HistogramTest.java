@@ -0,0 +1,144 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.stats.HistogramRecorder;
+import com.yxy.reactive.stats.HistogramSnapshot;
+import com.yxy.reactive.stats.LogHistogram;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 对数分桶直方图
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class HistogramTest {
+
+    //StreamTest.test_03_7的reactive版本, 多了分位数
+    @Test
+    void test_00_0() {
+        String str = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+        String[] strings = str.replaceAll(" ", "").toLowerCase().split("");
+        IntSummaryStatistics expected = List.of(strings).stream().mapToInt(String::hashCode).summaryStatistics();
+
+        HistogramSnapshot snapshot = Flux.fromArray(strings)
+                .as(HistogramRecorder.summarizing(String::hashCode))
+                .block();
+        System.out.println(snapshot);
+        //HistogramSnapshot{count=116, sum=12579, min=97, average=108.439655, p50=110, p99=121, p99.9=121, max=121}
+        assertNotNull(snapshot);
+        assertEquals(expected.getCount(), snapshot.getCount());
+        assertEquals(expected.getSum(), snapshot.getSum());
+        assertEquals(expected.getMin(), snapshot.getMin());
+        assertEquals(expected.getMax(), snapshot.getMax());
+        assertEquals(expected.getAverage(), snapshot.getAverage(), 1e-9);
+        //小于128的值每个值一个桶, 分位数是精确的
+        int[] sorted = List.of(strings).stream().mapToInt(String::hashCode).sorted().toArray();
+        assertEquals(sorted[57], snapshot.p50());
+
+        HistogramSnapshot empty = Flux.<String>empty().as(HistogramRecorder.summarizing(String::hashCode)).block();
+        assertNotNull(empty);
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.p99());
+    }
+
+    //长尾分布, 分位数与排序后的精确值相比误差不超过1/64
+    @Test
+    void test_00_1() {
+        Random random = new Random(42);
+        long[] values = LongStream.range(0, 1_000_000)
+                .map(i -> (long) (Math.exp(random.nextGaussian() * 2 + 10)))
+                .toArray();
+        LogHistogram histogram = new LogHistogram();
+        for (long value : values) {
+            histogram.record(value);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        System.out.println(snapshot);
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999, 0.9999}) {
+            long exact = sorted[(int) Math.ceil(q * sorted.length) - 1];
+            long estimated = snapshot.valueAtQuantile(q);
+            log.info("q={} exact={} estimated={}", q, exact, estimated);
+            assertTrue(estimated >= exact);
+            assertTrue(estimated - exact <= exact / 64 + 1);
+        }
+        assertEquals(sorted[0], snapshot.getMin());
+        assertEquals(sorted[sorted.length - 1], snapshot.valueAtQuantile(1));
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.snapshot().getMax());
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+
+    //ParallelFlux每个rail一个直方图, 结束时合并
+    @Test
+    void test_00_2() {
+        HistogramSnapshot rails = Flux.range(0, 100_000)
+                .parallel(4)
+                .runOn(Schedulers.parallel())
+                .as(HistogramRecorder.summarizingRails(i -> i))
+                .block();
+        HistogramSnapshot single = Flux.range(0, 100_000)
+                .as(HistogramRecorder.summarizing(i -> i))
+                .block();
+        System.out.println(rails);
+        assertNotNull(rails);
+        assertNotNull(single);
+        assertEquals(100_000, rails.getCount());
+        assertEquals(single.toMap(), rails.toMap());
+        assertEquals(single.p99(), rails.p99());
+        assertEquals(0, rails.getMin());
+        assertEquals(99_999, rails.getMax());
+
+        HistogramSnapshot merged = single.merge(rails);
+        assertEquals(200_000, merged.getCount());
+        assertEquals(single.p50(), merged.p50());
+    }
+
+    //流水线运行中定时取快照, 流本身不受影响
+    @Test
+    void test_00_3() {
+        HistogramRecorder recorder = new HistogramRecorder();
+        Mono<Void> pipeline = Flux.range(0, 50)
+                .delayElements(Duration.ofMillis(10))
+                .parallel(2)
+                .runOn(Schedulers.parallel())
+                .transform(recorder.recordingRails(i -> i * 1000L))
+                .sequential()
+                .then()
+                .cache();
+        pipeline.subscribe();
+        List<HistogramSnapshot> intervals = recorder.intervals(Duration.ofMillis(100))
+                .doOnNext(snapshot -> log.info("{}", snapshot))
+                .take(4)
+                .collectList()
+                .block();
+        assertNotNull(intervals);
+        assertEquals(4, intervals.size());
+        long recorded = intervals.stream().mapToLong(HistogramSnapshot::getCount).sum();
+        assertTrue(recorded > 0 && recorded <= 50);
+
+        StepVerifier.create(pipeline).verifyComplete();
+        HistogramSnapshot snapshot = recorder.snapshot();
+        System.out.println(snapshot);
+        assertEquals(50, snapshot.getCount());
+        assertEquals(49_000, snapshot.getMax());
+        assertTrue(snapshot.p50() >= 24_000 && snapshot.p50() <= 24_000 * 65 / 64);
+    }
+}
@@ -0,0 +1,169 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.operator.KeyedAggregation;
+import com.yxy.reactive.operator.KeyedWindow;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按key分窗口聚合
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class KeyedAggregationTest {
+
+    private static final String[] NAMES = {"a", "b", "c"};
+
+    //每100ms一个值(从50ms开始), 1秒的滚动窗口, 源在2450ms结束时发出最后一个不完整的窗口
+    @Test
+    void test_00_0() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        StepVerifier.withVirtualTime(() -> Flux.interval(Duration.ofMillis(50), Duration.ofMillis(100), scheduler)
+                        .take(25)
+                        .map(i -> NAMES[(int) (i % 3)])
+                        .transform(KeyedAggregation.builder((String name) -> name)
+                                .tumbling(Duration.ofSeconds(1))
+                                .scheduler(scheduler)
+                                .build(Collectors.counting())), () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(3))
+                .assertNext(window -> {
+                    log.info("{}", window);
+                    assertEquals(0, window.getStart());
+                    assertEquals(1000, window.getEnd());
+                    assertEquals(Map.of("a", 4L, "b", 3L, "c", 3L), window.getResults());
+                })
+                .assertNext(window -> {
+                    assertEquals(1000, window.getStart());
+                    assertEquals(Map.of("a", 3L, "b", 4L, "c", 3L), window.getResults());
+                })
+                .assertNext(window -> {
+                    //20..24
+                    assertEquals(2000, window.getStart());
+                    assertEquals(2450, window.getEnd());
+                    assertEquals(Map.of("a", 2L, "b", 1L, "c", 2L), window.getResults());
+                })
+                .verifyComplete();
+    }
+
+    //1秒的窗口每500ms滑动一次, 开头的窗口不完整
+    @Test
+    void test_00_1() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        StepVerifier.withVirtualTime(() -> Flux.interval(Duration.ofMillis(50), Duration.ofMillis(100), scheduler)
+                        .take(20)
+                        .map(i -> NAMES[(int) (i % 3)])
+                        .transform(KeyedAggregation.builder((String name) -> name)
+                                .sliding(Duration.ofSeconds(1), Duration.ofMillis(500))
+                                .scheduler(scheduler)
+                                .build(Collectors.toList())), () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(3))
+                .assertNext(window -> {
+                    assertEquals(0, window.getStart());
+                    assertEquals(500, window.getEnd());
+                    assertEquals(List.of("a", "a"), window.getResults().get("a"));
+                    assertEquals(5, count(window));
+                })
+                .assertNext(window -> {
+                    assertEquals(0, window.getStart());
+                    assertEquals(1000, window.getEnd());
+                    assertEquals(10, count(window));
+                })
+                .assertNext(window -> {
+                    log.info("{}", window);
+                    assertEquals(500, window.getStart());
+                    assertEquals(1500, window.getEnd());
+                    assertEquals(10, count(window));
+                    assertEquals(4, window.getResults().get("c").size());
+                })
+                //源在1950ms结束, 最后一个窗口是[1000, 1950]
+                .assertNext(window -> {
+                    assertEquals(1000, window.getStart());
+                    assertEquals(1950, window.getEnd());
+                    assertEquals(10, count(window));
+                })
+                .verifyComplete();
+    }
+
+    //状态上限和空闲移除
+    @Test
+    void test_00_2() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        StepVerifier.withVirtualTime(() -> Flux.interval(Duration.ofMillis(50), Duration.ofMillis(100), scheduler)
+                        .take(30)
+                        //第一秒10个不同的key, 之后只有key 0
+                        .map(i -> i < 10 ? i : 0L)
+                        .transform(KeyedAggregation.builder((Long i) -> i)
+                                .tumbling(Duration.ofSeconds(1))
+                                .idleTimeout(Duration.ofSeconds(2))
+                                .maxKeys(4)
+                                .scheduler(scheduler)
+                                .build(Collectors.counting())), () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(4))
+                .assertNext(window -> {
+                    log.info("{}", window);
+                    assertEquals(Map.of(0L, 1L, 1L, 1L, 2L, 1L, 3L, 1L), window.getResults());
+                    assertEquals(6, window.getDroppedCount());
+                    assertEquals(4, window.getKeyCount());
+                })
+                .assertNext(window -> {
+                    //1..3空闲了1秒, 还没有超过idleTimeout
+                    assertEquals(Map.of(0L, 10L), window.getResults());
+                    assertEquals(0, window.getEvictedCount());
+                    assertEquals(4, window.getKeyCount());
+                })
+                //源在2950ms结束, 关闭最后一个窗口时1..3已经空闲了2秒
+                .assertNext(window -> {
+                    assertEquals(2950, window.getEnd());
+                    assertEquals(Map.of(0L, 10L), window.getResults());
+                    assertEquals(3, window.getEvictedCount());
+                    assertEquals(1, window.getKeyCount());
+                })
+                .verifyComplete();
+    }
+
+    //key很多时groupBy会卡住, 这里只有一张表
+    @Test
+    void test_00_3() {
+        //flatMap的并发数小于组数, 前16个组不结束, 后面的组排不上队, groupBy的缓冲区满了以后源也停了
+        StepVerifier.create(Flux.range(0, 1000)
+                        .groupBy(i -> i)
+                        .flatMap(group -> group.count(), 16)
+                        .timeout(Duration.ofMillis(500)))
+                .expectNextCount(0)
+                .verifyError(TimeoutException.class);
+
+        KeyedWindow<Integer, Long> window = Flux.range(0, 1_000_000)
+                .map(i -> i % 200_000)
+                .transform(KeyedAggregation.builder((Integer i) -> i)
+                        .tumbling(Duration.ofHours(1))
+                        .build(Collectors.counting()))
+                .blockLast();
+        assertNotNull(window);
+        assertEquals(200_000, window.getResults().size());
+        assertTrue(window.getResults().values().stream().allMatch(count -> count == 5));
+
+        assertThrows(IllegalArgumentException.class, () -> KeyedAggregation.builder((Integer i) -> i)
+                .sliding(Duration.ofSeconds(1), Duration.ofMillis(300)));
+        assertThrows(IllegalArgumentException.class, () -> KeyedAggregation.builder((Integer i) -> i)
+                .tumbling(Duration.ofSeconds(2))
+                .idleTimeout(Duration.ofSeconds(1))
+                .build(Collectors.counting()));
+    }
+
+    private static int count(KeyedWindow<String, List<String>> window) {
+        return window.getResults().values().stream().mapToInt(List::size).sum();
+    }
+}
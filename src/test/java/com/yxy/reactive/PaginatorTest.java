@@ -0,0 +1,112 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.page.OrderedSource;
+import com.yxy.reactive.page.Page;
+import com.yxy.reactive.page.Paginator;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标分页
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PaginatorTest {
+
+    //与ReactiveAdvancedTest.test_04的skip/take结果一致
+    @Test
+    void test_00_0() {
+        Paginator<Integer, Integer> paginator = Paginator.ofIntKeys(OrderedSource.range(0, 99), null);
+        Page<Integer> first = paginator.first(5).block();
+        assertEquals(List.of(0, 1, 2, 3, 4), first.getItems());
+        Page<Integer> second = paginator.page(first.getNext(), 5).block();
+        System.out.println(second);
+        //Page{items=[5, 6, 7, 8, 9], next=MTo5}
+        assertEquals(Flux.range(0, 99).skip(5).take(5).collectList().block(), second.getItems());
+
+        //翻到最后一页
+        List<Integer> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Page<Integer> page = paginator.page(cursor, 10).block();
+            all.addAll(page.getItems());
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+        assertEquals(10, pages);
+        assertEquals(IntStream.range(0, 99).boxed().collect(Collectors.toList()), all);
+
+        //恰好整页时最后一页没有next
+        Page<Integer> exact = Paginator.ofIntKeys(OrderedSource.range(0, 10), null).first(10).block();
+        assertFalse(exact.hasNext());
+
+        StepVerifier.create(paginator.page("not a cursor", 5)).verifyError(IllegalArgumentException.class);
+        StepVerifier.create(paginator.page(null, 0)).verifyError(IllegalArgumentException.class);
+    }
+
+    //有序Map: 翻页期间插入新数据, 游标之后的新数据能看到, 不会重复也不会漏
+    @Test
+    void test_01_0() {
+        ConcurrentSkipListMap<String, Person> people = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < 100; i++) {
+            Person person = new Person(UUIDUtil.shortUUID(), "Male");
+            people.put(person.getName(), person);
+        }
+        Paginator<String, Person> paginator = Paginator.ofStringKeys(OrderedSource.of(people, Person::getName), null);
+        Page<Person> first = paginator.first(30).block();
+        //在第一页之前和之后各插入一条
+        people.put("00000000", new Person("00000000", "Female"));
+        people.put("zzzzzzzz", new Person("zzzzzzzz", "Female"));
+        List<Person> rest = new ArrayList<>();
+        String cursor = first.getNext();
+        while (cursor != null) {
+            Page<Person> page = paginator.page(cursor, 30).block();
+            rest.addAll(page.getItems());
+            cursor = page.getNext();
+        }
+        assertEquals(71, rest.size());
+        assertEquals("zzzzzzzz", rest.get(70).getName());
+        assertTrue(first.getItems().stream().noneMatch(rest::contains));
+    }
+
+    //预取: 返回一页后下一页在后台加载, 顺序翻页取到的是预取的结果
+    @Test
+    void test_02_0() {
+        int[] loads = {0};
+        OrderedSource<Integer, Integer> range = OrderedSource.range(0, 1000);
+        OrderedSource<Integer, Integer> counting = OrderedSource.of((key, limit) -> {
+            synchronized (loads) {
+                loads[0]++;
+            }
+            return range.after(key, limit);
+        }, range::keyOf);
+        Paginator<Integer, Integer> paginator = Paginator.ofIntKeys(counting, Schedulers.boundedElastic());
+        List<Integer> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Integer> page = paginator.page(cursor, 100).block();
+            all.addAll(page.getItems());
+            cursor = page.getNext();
+        } while (cursor != null);
+        assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), all);
+        //每页只加载一次: 第一页直接加载, 后面9页都是预取的
+        assertEquals(10, loads[0]);
+        assertEquals(0, paginator.prefetchedPages());
+    }
+}
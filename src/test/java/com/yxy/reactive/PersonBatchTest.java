@@ -0,0 +1,107 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.model.PersonBatch;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 列式的PersonBatch
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PersonBatchTest {
+
+    private static List<Person> people(int count) {
+        ArrayList<Person> people = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i % 3 == 0 ? "Male" : "Female"));
+        }
+        people.add(new Person(null, "Unknown"));
+        people.add(new Person("没有性别", null));
+        return people;
+    }
+
+    //与List<Person>互转
+    @Test
+    void test_00_0() {
+        List<Person> people = people(100);
+        PersonBatch batch = PersonBatch.of(people);
+        assertEquals(people.size(), batch.size());
+        assertEquals(people, batch.toList());
+        assertTrue(batch.nameEquals(0, people.get(0).getName()));
+        assertTrue(batch.nameEquals(100, null));
+        assertFalse(batch.nameEquals(1, people.get(0).getName()));
+        assertEquals(List.of("Male", "Female", "Unknown"), batch.dictionary());
+        System.out.println(batch);
+    }
+
+    //计数、分组与groupingBy的结果一致
+    @Test
+    void test_00_1() {
+        List<Person> people = people(1000);
+        PersonBatch batch = PersonBatch.of(people);
+
+        Map<String, Long> expected = people.stream().filter(p -> p.getSex() != null)
+                .collect(Collectors.groupingBy(Person::getSex, Collectors.counting()));
+        Map<String, Long> counts = batch.countBySex();
+        assertEquals(1L, counts.remove(null));
+        assertEquals(expected, counts);
+
+        Map<String, PersonBatch> groups = batch.groupBySex();
+        for (Map.Entry<String, PersonBatch> entry : groups.entrySet()) {
+            List<Person> group = people.stream().filter(p -> entry.getKey() == null ? p.getSex() == null : entry.getKey().equals(p.getSex()))
+                    .collect(Collectors.toList());
+            assertEquals(group, entry.getValue().toList());
+        }
+
+        assertEquals(expected.get("Male"), batch.rowsBySex("Male").length);
+        assertEquals(0, batch.rowsBySex("Other").length);
+        byte female = batch.codeOf("Female");
+        assertEquals(expected.get("Female"), batch.count(row -> batch.sexCode(row) == female));
+        PersonBatch females = batch.filter(row -> batch.sexCode(row) == female);
+        assertTrue(females.toList().stream().allMatch(p -> "Female".equals(p.getSex())));
+    }
+
+    //与Flux互转
+    @Test
+    void test_01_0() {
+        List<Person> people = people(25);
+        StepVerifier.create(PersonBatch.batches(Flux.fromIterable(people), 10).map(PersonBatch::size))
+                .expectNext(10, 10, 7)
+                .verifyComplete();
+        StepVerifier.create(PersonBatch.from(Flux.fromIterable(people)).flatMapMany(PersonBatch::toFlux).collectList())
+                .expectNext(people)
+                .verifyComplete();
+        //只物化下游请求的行
+        StepVerifier.create(PersonBatch.of(people).toFlux(), 2)
+                .expectNext(people.get(0), people.get(1))
+                .thenCancel()
+                .verify();
+    }
+
+    //字典满了之后add失败, 已有的行不受影响
+    @Test
+    void test_01_1() {
+        PersonBatch batch = new PersonBatch(4);
+        for (int i = 0; i < Byte.MAX_VALUE; i++) {
+            batch.add("p" + i, "sex" + i);
+        }
+        assertThrows(IllegalStateException.class, () -> batch.add(null, "other"));
+        assertEquals(Byte.MAX_VALUE, batch.size());
+        batch.add("abc", "sex0");
+        assertEquals(new Person("abc", "sex0"), batch.get(Byte.MAX_VALUE));
+    }
+}
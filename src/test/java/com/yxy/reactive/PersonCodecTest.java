@@ -0,0 +1,123 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.codec.PersonBinaryCodec;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Person的编解码
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PersonCodecTest {
+
+    private static final List<Person> PEOPLE = List.of(
+            new Person(UUIDUtil.shortUUID(), "Male"),
+            new Person(UUIDUtil.shortUUID(), "Female"),
+            new Person("孙悟空", "男"),
+            new Person("say \"hi\"\n", null),
+            new Person(null, "Female"),
+            new Person("emoji 😀 and lone \uD800", "Unknown"),
+            new Person());
+
+    //ByteBuffer 堆内和堆外都能编解码
+    @Test
+    void test_00_0() {
+        for (ByteBuffer buffer : List.of(ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024))) {
+            for (Person person : PEOPLE) {
+                buffer.clear();
+                PersonBinaryCodec.write(person, buffer);
+                assertEquals(PersonBinaryCodec.encodedSize(person), buffer.position());
+                buffer.flip();
+                Person decoded = PersonBinaryCodec.read(buffer);
+                assertFalse(buffer.hasRemaining());
+                //不成对的代理字符会被替换成'?'
+                assertEquals(new String(String.valueOf(person.getName()).getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8),
+                        String.valueOf(decoded.getName()));
+                assertEquals(person.getSex(), decoded.getSex());
+            }
+        }
+        //常见情况 8位name + Male 只要 2 + 1 + 8 = 11字节
+        assertEquals(11, PersonBinaryCodec.encodedSize(new Person(UUIDUtil.shortUUID(), "Male")));
+    }
+
+    //空间不够时不修改buffer, 版本不对时报错
+    @Test
+    void test_00_1() {
+        ByteBuffer small = ByteBuffer.allocate(4);
+        assertThrows(BufferOverflowException.class, () -> PersonBinaryCodec.write(new Person("abcdefgh", "Male"), small));
+        assertEquals(0, small.position());
+
+        ByteBuffer wrong = ByteBuffer.wrap(new byte[]{9, 1, 1});
+        assertThrows(IllegalArgumentException.class, () -> PersonBinaryCodec.read(wrong));
+
+        //name长度: 负数, 超过int, 超过5个字节
+        byte v = PersonBinaryCodec.VERSION;
+        for (byte[] bytes : List.of(new byte[]{v, 1, -1, -1, -1, -1, 15}, new byte[]{v, 1, -1, -1, -1, -1, 31},
+                new byte[]{v, 1, -1, -1, -1, -1, -1, 1})) {
+            assertThrows(IllegalArgumentException.class, () -> PersonBinaryCodec.read(ByteBuffer.wrap(bytes)));
+        }
+        Person nullName = PersonBinaryCodec.read(ByteBuffer.wrap(new byte[]{v, 1, 0}));
+        assertNull(nullName.getName());
+    }
+
+    //一个buffer里连续的多条记录, 流式读取
+    @Test
+    void test_01_0() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"));
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(people.size() * 16);
+        people.forEach(person -> PersonBinaryCodec.write(person, buffer));
+        buffer.flip();
+
+        PersonBinaryCodec.Reader reader = PersonBinaryCodec.reader(buffer);
+        List<Person> decoded = new ArrayList<>();
+        reader.forEachRemaining(decoded::add);
+        assertEquals(people, decoded);
+        assertEquals(buffer.limit(), reader.position());
+        //reader不会移动原buffer
+        assertEquals(0, buffer.position());
+        assertEquals(people, PersonBinaryCodec.stream(buffer).collect(Collectors.toList()));
+    }
+
+    //DataBuffer, 包括netty的池化buffer
+    @Test
+    void test_02_0() {
+        List<DataBufferFactory> factories = List.of(new DefaultDataBufferFactory(), new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT));
+        for (DataBufferFactory factory : factories) {
+            DataBuffer buffer = factory.allocateBuffer(4);
+            try {
+                for (Person person : PEOPLE.subList(0, 3)) {
+                    PersonBinaryCodec.write(person, buffer);
+                }
+                for (Person person : PEOPLE.subList(0, 3)) {
+                    assertEquals(person, PersonBinaryCodec.read(buffer));
+                }
+                assertEquals(0, buffer.readableByteCount());
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.codec.LineSplitter;
+import com.yxy.reactive.codec.PersonJsonDecoder;
+import com.yxy.reactive.codec.PersonJsonEncoder;
+import com.yxy.reactive.codec.PersonJsonReader;
+import com.yxy.reactive.codec.PersonJsonWriter;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Person的JSON编解码以及WebFlux codec
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PersonJsonTest {
+
+    private static final ResolvableType PERSON = ResolvableType.forClass(Person.class);
+
+    @Autowired
+    private ServerCodecConfigurer serverCodecConfigurer;
+
+    //转义引号、反斜杠和控制字符, toString与writer输出一致
+    @Test
+    void test_00_0() {
+        Person person = new Person("say \"hi\"\\\n\u0001", "Male");
+        String json = "{\"name\":\"say \\\"hi\\\"\\\\\\n\\u0001\",\"sex\":\"Male\"}";
+        assertEquals(json, person.toString());
+
+        ByteBuffer buffer = ByteBuffer.allocate(PersonJsonWriter.encodedSize(person));
+        PersonJsonWriter.write(person, buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(json, new String(buffer.array(), StandardCharsets.UTF_8));
+
+        assertEquals("{\"name\":null,\"sex\":null}", new Person().toString());
+        System.out.println(new Person(UUIDUtil.shortUUID(), "Male"));
+        //{"name":"qnHi5ZtM","sex":"Male"}
+    }
+
+    //reader: 转义、unicode、未知字段、数组
+    @Test
+    void test_00_1() {
+        List<Person> people = List.of(
+                new Person("孙悟空 😀", "男"),
+                new Person("say \"hi\"\t\r\n/", "Female"),
+                new Person(null, null));
+        for (Person person : people) {
+            assertEquals(person, PersonJsonReader.read(person.toString()));
+            assertEquals(PersonJsonWriter.toJson(person), person.toString());
+            ByteBuffer direct = ByteBuffer.allocateDirect(PersonJsonWriter.encodedSize(person));
+            PersonJsonWriter.write(person, direct);
+            assertEquals(person, PersonJsonReader.read(direct.flip()));
+        }
+        assertEquals(new Person("孙😀", "Male"), PersonJsonReader.read(" {\"age\": -1.5e3, \"tags\":[{\"a\":\"]\"}], \"name\":\"\\u5b59\\ud83d\\ude00\",\"ok\":true,\"sex\":\"Male\"} "));
+
+        String array = people.stream().map(Person::toString).collect(Collectors.joining(",", "[", "]"));
+        assertEquals(people, PersonJsonReader.readAll(ByteBuffer.wrap(array.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(List.of(), PersonJsonReader.readAll(ByteBuffer.wrap("[ ]".getBytes(StandardCharsets.UTF_8))));
+
+        assertThrows(IllegalArgumentException.class, () -> PersonJsonReader.read("{\"name\":\"abc}"));
+        assertThrows(IllegalArgumentException.class, () -> PersonJsonReader.read("{\"name\":1}"));
+        assertThrows(IllegalArgumentException.class, () -> PersonJsonReader.read("{} {}"));
+    }
+
+    //按行切分, 任意位置切开chunk结果都一样, netty的buffer最后全部释放
+    @Test
+    void test_01_0() {
+        String text = "{\"name\":\"a\",\"sex\":\"Male\"}\r\n\n{\"name\":\"孙悟空\",\"sex\":\"Female\"}\n{\"name\":\"c\",\"sex\":null}";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        List<Person> expected = List.of(new Person("a", "Male"), new Person("孙悟空", "Female"), new Person("c", null));
+        NettyDataBufferFactory netty = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+        for (DataBufferFactory factory : List.of(new DefaultDataBufferFactory(), netty)) {
+            for (int chunk = 1; chunk <= bytes.length; chunk++) {
+                List<DataBuffer> chunks = new ArrayList<>();
+                for (int i = 0; i < bytes.length; i += chunk) {
+                    DataBuffer buffer = factory.allocateBuffer(chunk);
+                    buffer.write(bytes, i, Math.min(chunk, bytes.length - i));
+                    chunks.add(buffer);
+                }
+                List<Person> people = new PersonJsonDecoder()
+                        .decode(Flux.fromIterable(chunks), PERSON, PersonJsonEncoder.APPLICATION_NDJSON, null)
+                        .collectList().block();
+                assertEquals(expected, people, "chunk size " + chunk);
+                for (DataBuffer buffer : chunks) {
+                    if (buffer instanceof PooledDataBuffer) {
+                        assertFalse(((PooledDataBuffer) buffer).isAllocated(), "leaked, chunk size " + chunk);
+                    }
+                }
+            }
+        }
+    }
+
+    //一行太长
+    @Test
+    void test_01_1() {
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        Flux<DataBuffer> input = Flux.range(0, 10).map(i -> factory.wrap("0123456789".getBytes(StandardCharsets.UTF_8)));
+        StepVerifier.create(LineSplitter.split(input, 50))
+                .expectError(DataBufferLimitException.class)
+                .verify();
+        StepVerifier.create(new PersonJsonDecoder().decode(Flux.just(factory.wrap("{oops}\n".getBytes())), PERSON, PersonJsonEncoder.APPLICATION_NDJSON, null))
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    //按行切分只预取一个chunk
+    @Test
+    void test_01_2() {
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        AtomicLong requested = new AtomicLong();
+        Flux<DataBuffer> input = Flux.range(0, 1000)
+                .<DataBuffer>map(i -> factory.wrap((i + "\n").getBytes(StandardCharsets.UTF_8)))
+                .doOnRequest(requested::addAndGet);
+        StepVerifier.create(LineSplitter.split(input), 3)
+                .expectNextCount(3)
+                .thenCancel()
+                .verify();
+        assertTrue(requested.get() <= 4, "requested " + requested.get());
+    }
+
+    //编码: ndjson每条一行, application/json为数组
+    @Test
+    void test_02_0() {
+        PersonJsonEncoder encoder = new PersonJsonEncoder();
+        DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+        Flux<Person> people = Flux.just(new Person("a", "Male"), new Person("b", "Female"));
+        assertEquals("{\"name\":\"a\",\"sex\":\"Male\"}\n{\"name\":\"b\",\"sex\":\"Female\"}\n",
+                join(encoder.encode(people, factory, PERSON, PersonJsonEncoder.APPLICATION_NDJSON, null)));
+        assertEquals("[{\"name\":\"a\",\"sex\":\"Male\"},{\"name\":\"b\",\"sex\":\"Female\"}]",
+                join(encoder.encode(people, factory, PERSON, MediaType.APPLICATION_JSON, null)));
+        assertEquals("[]", join(encoder.encode(Flux.empty(), factory, PERSON, MediaType.APPLICATION_JSON, null)));
+        assertEquals("{\"name\":\"a\",\"sex\":\"Male\"}",
+                join(encoder.encode(Mono.just(new Person("a", "Male")), factory, PERSON, MediaType.APPLICATION_JSON, null)));
+    }
+
+    //注册到WebFlux后排在Jackson前面
+    @Test
+    void test_02_1() {
+        for (MediaType mediaType : List.of(PersonJsonEncoder.APPLICATION_NDJSON, MediaType.APPLICATION_JSON, MediaType.APPLICATION_STREAM_JSON)) {
+            HttpMessageWriter<?> writer = serverCodecConfigurer.getWriters().stream()
+                    .filter(w -> w.canWrite(PERSON, mediaType))
+                    .findFirst().orElseThrow();
+            assertTrue(writer instanceof EncoderHttpMessageWriter);
+            assertTrue(((EncoderHttpMessageWriter<?>) writer).getEncoder() instanceof PersonJsonEncoder, mediaType.toString());
+        }
+    }
+
+    private static String join(Flux<DataBuffer> buffers) {
+        return DataBufferUtils.join(buffers).map(buffer -> {
+            String value = buffer.toString(StandardCharsets.UTF_8);
+            DataBufferUtils.release(buffer);
+            return value;
+        }).block();
+    }
+}
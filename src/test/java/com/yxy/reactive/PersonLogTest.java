@@ -0,0 +1,147 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.store.PersonLog;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 只追加的Person日志
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PersonLogTest {
+
+    private static List<Person> people(int count) {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"));
+        }
+        return people;
+    }
+
+    //顺序写入, 顺序读出, 段写满后切换到新段
+    @Test
+    void test_00_0(@TempDir Path directory) throws IOException {
+        List<Person> people = people(1000);
+        try (PersonLog personLog = new PersonLog(directory, 4096, false, 64)) {
+            List<Long> offsets = personLog.appendAll(Flux.fromIterable(people)).collectList().block();
+            assertEquals(people.size(), offsets.size());
+            //偏移量递增, 每条记录 8 + 11 字节
+            assertEquals(0L, offsets.get(0));
+            assertEquals(19L, offsets.get(1));
+            assertEquals(people, personLog.read().collectList().block());
+            //从中间开始读
+            assertEquals(people.subList(500, 1000), personLog.read(offsets.get(500)).collectList().block());
+            assertEquals(offsets.get(999) + 19, personLog.endOffset());
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.count() > 1);
+        }
+    }
+
+    //并发append会被合并成批, 全部落盘且不丢
+    @Test
+    void test_00_1(@TempDir Path directory) {
+        List<Person> people = people(5000);
+        try (PersonLog personLog = new PersonLog(directory, PersonLog.DEFAULT_SEGMENT_SIZE, true, 256)) {
+            Long count = Flux.fromIterable(people)
+                    .parallel(8).runOn(Schedulers.parallel())
+                    .flatMap(personLog::append)
+                    .sequential().distinct().count().block();
+            assertEquals(people.size(), count);
+            assertEquals(new HashSet<>(people), new HashSet<>(personLog.read().collectList().block()));
+        }
+    }
+
+    //重新打开后恢复, 末尾损坏的记录被丢弃
+    @Test
+    void test_01_0(@TempDir Path directory) throws IOException {
+        List<Person> people = people(100);
+        long end;
+        try (PersonLog personLog = new PersonLog(directory)) {
+            personLog.appendAll(Flux.fromIterable(people)).blockLast();
+            end = personLog.endOffset();
+        }
+        //模拟写了一半的记录
+        Path segment = directory.resolve(String.format("%020d.log", 0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 11, 1, 2, 3, 4, 1, 1}), end);
+        }
+        try (PersonLog personLog = new PersonLog(directory)) {
+            assertEquals(end, personLog.endOffset());
+            assertEquals(people, personLog.read().collectList().block());
+            Person last = new Person("abcdefgh", "Male");
+            personLog.append(last).block();
+            List<Person> all = personLog.read().collectList().block();
+            assertEquals(101, all.size());
+            assertEquals(last, all.get(100));
+        }
+    }
+
+    //中间缺了一个段: 之后的段被删除, 切换到新段时不会读到旧文件里的记录
+    @Test
+    void test_01_1(@TempDir Path directory) throws IOException {
+        List<Person> people = people(1000);
+        List<Path> files;
+        try (PersonLog personLog = new PersonLog(directory, 4096, false, 64)) {
+            personLog.appendAll(Flux.fromIterable(people)).blockLast();
+        }
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.sorted().collect(Collectors.toList());
+        }
+        assertTrue(files.size() > 3);
+        Files.delete(files.get(1));
+        List<Person> kept;
+        try (PersonLog personLog = new PersonLog(directory, 4096, false, 64)) {
+            kept = personLog.read().collectList().block();
+            assertEquals(people.subList(0, kept.size()), kept);
+            for (Path file : files.subList(2, files.size())) {
+                assertFalse(Files.exists(file), file.toString());
+            }
+            personLog.appendAll(Flux.fromIterable(people(400))).blockLast();
+        }
+        try (PersonLog personLog = new PersonLog(directory, 4096, false, 64)) {
+            assertEquals(kept.size() + 400, personLog.read().count().block());
+        }
+    }
+
+    //读取受下游request控制
+    @Test
+    void test_02_0(@TempDir Path directory) {
+        List<Person> people = people(100);
+        try (PersonLog personLog = new PersonLog(directory)) {
+            personLog.appendAll(Flux.fromIterable(people)).blockLast();
+            StepVerifier.create(personLog.read(), 0)
+                    .thenRequest(2)
+                    .expectNext(people.get(0), people.get(1))
+                    .thenRequest(3)
+                    .expectNextSequence(people.subList(2, 5))
+                    .thenCancel()
+                    .verify();
+            assertEquals(people.stream().filter(p -> "Male".equals(p.getSex())).collect(Collectors.toList()),
+                    personLog.read().filter(p -> "Male".equals(p.getSex())).collectList().block());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.repository.PersonRepository;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 带二级索引的内存Person仓库
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PersonRepositoryTest {
+
+    //插入, 修改sex, 删除, 二级索引同步变化
+    @Test
+    void test_00_0() {
+        PersonRepository repository = new PersonRepository();
+        Person person = new Person(UUIDUtil.shortUUID(), "Male");
+        StepVerifier.create(repository.save(person)).verifyComplete();
+        //外部修改不影响仓库
+        person.setSex("Female");
+        StepVerifier.create(repository.findBySex("Male").map(Person::getName)).expectNext(person.getName()).verifyComplete();
+
+        StepVerifier.create(repository.save(person)).expectNext(new Person(person.getName(), "Male")).verifyComplete();
+        StepVerifier.create(repository.countBySex("Male")).expectNext(0L).verifyComplete();
+        StepVerifier.create(repository.findBySex("Female")).expectNext(person).verifyComplete();
+
+        repository.put(new Person(UUIDUtil.shortUUID(), null));
+        StepVerifier.create(repository.countGroupBySex()).assertNext(counts -> {
+            assertEquals(1L, counts.get("Female"));
+            assertEquals(1L, counts.get(null));
+            assertFalse(counts.containsKey("Male"));
+        }).verifyComplete();
+
+        StepVerifier.create(repository.deleteByName(person.getName())).expectNext(person).verifyComplete();
+        StepVerifier.create(repository.deleteByName(person.getName())).verifyComplete();
+        StepVerifier.create(repository.findByName(person.getName())).verifyComplete();
+        StepVerifier.create(repository.findBySex("Female")).verifyComplete();
+        StepVerifier.create(repository.count()).expectNext(1L).verifyComplete();
+        assertThrows(IllegalArgumentException.class, () -> repository.put(new Person()));
+    }
+
+    //并发修改同一批name, 结束后两个索引一致
+    @Test
+    void test_01_0() {
+        PersonRepository repository = new PersonRepository();
+        List<String> names = IntStream.range(0, 1000).mapToObj(i -> UUIDUtil.shortUUID()).collect(Collectors.toList());
+        String[] sexes = {"Male", "Female", "Other"};
+        Flux.range(0, 200_000)
+                .parallel(8).runOn(Schedulers.parallel())
+                .doOnNext(i -> {
+                    String name = names.get(i % names.size());
+                    if (i % 7 == 0) {
+                        repository.deleteByName(name).block();
+                    } else {
+                        repository.put(new Person(name, sexes[i % sexes.length]));
+                    }
+                })
+                .sequential().blockLast();
+
+        Map<String, Long> expected = new HashMap<>();
+        List<Person> all = repository.findAll().collectList().block();
+        all.forEach(p -> expected.merge(p.getSex(), 1L, Long::sum));
+        assertEquals(expected, repository.countGroupBySex().block());
+        for (String sex : sexes) {
+            List<Person> bySex = repository.findBySex(sex).collectList().block();
+            assertEquals(all.stream().filter(p -> sex.equals(p.getSex())).collect(Collectors.toSet()), Set.copyOf(bySex));
+        }
+    }
+}
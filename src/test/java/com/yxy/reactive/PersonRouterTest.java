@@ -0,0 +1,152 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.codec.PersonJsonEncoder;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Person的HTTP接口, 每次运行使用单独的存储目录
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"reactive.store.enabled=true", "reactive.store.directory=target/person-store-${random.uuid}", "reactive.store.fsync=false"})
+@Log4j2
+public class PersonRouterTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    //创建, 查询, 404, 400
+    @Test
+    void test_00_0() {
+        Person created = client.post().uri("/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"sex\":\"Male\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Person.class).returnResult().getResponseBody();
+        assertNotNull(created.getName());
+        assertEquals("Male", created.getSex());
+
+        client.get().uri("/persons/{name}", created.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Person.class).isEqualTo(created);
+        client.get().uri("/persons/{name}", "00000000").exchange().expectStatus().isNotFound();
+        client.post().uri("/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"bad\",\"sex\":\"Male\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.post().uri("/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    //保存一批, 再以NDJSON读出
+    @Test
+    void test_01_0() {
+        client.post().uri("/persons/generate?count=1000")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.count").isEqualTo(1000);
+        List<Person> people = client.get().uri("/persons")
+                .accept(PersonJsonEncoder.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(PersonJsonEncoder.APPLICATION_NDJSON)
+                .returnResult(Person.class).getResponseBody()
+                .collectList().block(Duration.ofSeconds(10));
+        assertTrue(people.size() >= 1000);
+        assertTrue(people.stream().allMatch(p -> p.getName().length() == 8));
+    }
+
+    //流式生成: 客户端只读前几条就取消, 不会等服务端产生全部数据
+    @Test
+    void test_02_0() {
+        Flux<Person> people = client.get().uri("/persons/generate?count=100000000")
+                .accept(PersonJsonEncoder.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Person.class).getResponseBody();
+        StepVerifier.create(people.take(10))
+                .expectNextCount(10)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+
+        Flux<ServerSentEvent<String>> events = client.get().uri("/persons/generate?count=100000000")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                }).getResponseBody();
+        StepVerifier.create(events.take(3))
+                .assertNext(event -> assertTrue(event.data().startsWith("{\"name\":\"" + event.id() + "\"")))
+                .expectNextCount(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+
+        //没有指定Accept时是NDJSON
+        client.get().uri("/persons/generate?count=3")
+                .exchange()
+                .expectHeader().contentTypeCompatibleWith(PersonJsonEncoder.APPLICATION_NDJSON);
+        client.get().uri("/persons/generate?count=-1").exchange().expectStatus().isBadRequest();
+    }
+
+    //NDJSON批量导入: 每批一行统计, 坏行之后以error结束
+    @Test
+    void test_03_0() {
+        List<Person> people = Flux.range(0, 2500)
+                .map(i -> new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"))
+                .collectList().block();
+        String body = people.stream().map(Person::toString).collect(Collectors.joining("\r\n", "", "\n"));
+        List<String> lines = client.post().uri("/persons/bulk?batchSize=1000")
+                .contentType(PersonJsonEncoder.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseBody()
+                .collectList().block(Duration.ofSeconds(10));
+        log.info("bulk ingest stats: {}", lines);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).contains("\"batch\":3,\"count\":500,\"total\":2500"));
+        for (Person person : List.of(people.get(0), people.get(1999), people.get(2499))) {
+            client.get().uri("/persons/{name}", person.getName()).exchange().expectBody(Person.class).isEqualTo(person);
+        }
+
+        List<String> failed = client.post().uri("/persons/bulk?batchSize=2")
+                .contentType(PersonJsonEncoder.APPLICATION_NDJSON)
+                .bodyValue(people.get(0) + "\n" + people.get(1) + "\n{\"name\":\n")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseBody()
+                .collectList().block(Duration.ofSeconds(10));
+        assertEquals(2, failed.size());
+        assertTrue(failed.get(1).startsWith("{\"error\":") && failed.get(1).endsWith("\"total\":2}"));
+
+        client.post().uri("/persons/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[]")
+                .exchange()
+                .expectStatus().is4xxClientError();
+    }
+}
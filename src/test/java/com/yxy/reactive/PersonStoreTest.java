@@ -0,0 +1,101 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.store.OffHeapPersonIndex;
+import com.yxy.reactive.store.PersonStore;
+import com.yxy.reactive.utils.ShortId;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 堆外索引与Person存储
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PersonStoreTest {
+
+    //put/get/scan
+    @Test
+    void test_00_0() {
+        OffHeapPersonIndex index = new OffHeapPersonIndex(1000);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            String name = i % 2 == 0 ? UUIDUtil.shortUUID() : UUIDUtil.orderedShortUUID();
+            assertEquals(-1, index.put(name, i));
+            expected.put(name, (long) i);
+        }
+        expected.forEach((name, offset) -> assertEquals(offset, index.get(name)));
+        String first = expected.keySet().iterator().next();
+        assertEquals(expected.get(first), index.put(first, 12345));
+        expected.put(first, 12345L);
+        assertEquals(12345, index.get(first));
+        assertEquals(1000, index.size());
+        //不存在的和不合法的name
+        assertEquals(-1, index.get("00000000"));
+        assertEquals(-1, index.get("not-a-short-id"));
+        assertEquals(-1, index.get((String) null));
+        assertThrows(IllegalArgumentException.class, () -> index.put("abc", 1));
+
+        Map<String, Long> scanned = new HashMap<>();
+        index.scan((id, offset) -> scanned.put(ShortId.encode(id), offset));
+        assertEquals(expected, scanned);
+        //满了
+        assertThrows(IllegalStateException.class, () -> index.put(UUIDUtil.shortUUID(), 0));
+    }
+
+    //并发写入, 并发读取
+    @Test
+    void test_00_1() {
+        int count = 200_000;
+        OffHeapPersonIndex index = new OffHeapPersonIndex(count);
+        String[] names = UUIDUtil.shortUUIDs(new String[count]);
+        IntStream.range(0, count).parallel().forEach(i -> index.put(names[i], i));
+        assertEquals(count, index.size());
+        assertTrue(IntStream.range(0, count).parallel().allMatch(i -> index.get(names[i]) == i));
+    }
+
+    //保存, 查询, 覆盖, 重新打开后重建索引
+    @Test
+    void test_01_0(@TempDir Path directory) {
+        Map<String, Person> people = Flux.range(0, 1000)
+                .map(i -> new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"))
+                .collectMap(Person::getName).block();
+        String name = people.keySet().iterator().next();
+        try (PersonStore store = new PersonStore(directory)) {
+            Flux.fromIterable(people.values())
+                    .parallel(4).runOn(Schedulers.parallel())
+                    .flatMap(store::save)
+                    .sequential().blockLast();
+            Person updated = new Person(name, "Other");
+            people.put(name, updated);
+            store.save(updated).block();
+
+            StepVerifier.create(store.findByName(name)).expectNext(updated).verifyComplete();
+            StepVerifier.create(store.findByName("00000000")).verifyComplete();
+            StepVerifier.create(store.save(new Person("bad", "Male"))).verifyError(IllegalArgumentException.class);
+        }
+        try (PersonStore store = new PersonStore(directory)) {
+            assertEquals(people.size(), store.size());
+            Map<String, Person> all = store.findAll().collectMap(Person::getName).block();
+            assertEquals(people, all);
+            assertEquals(1000, store.findAll().count().block());
+            StepVerifier.create(store.findByName(name)).expectNext(people.get(name)).verifyComplete();
+            assertEquals(people.values().stream().filter(p -> "Male".equals(p.getSex())).count(),
+                    Flux.fromIterable(people.keySet()).flatMap(store::findByName).filter(p -> "Male".equals(p.getSex())).count().block());
+        }
+    }
+}
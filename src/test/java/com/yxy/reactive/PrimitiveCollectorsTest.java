@@ -0,0 +1,91 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.collect.*;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 不装箱的收集器
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class PrimitiveCollectorsTest {
+
+    private static final String STR = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+
+    //StreamTest.test_03_1的写法换成IntList
+    @Test
+    void test_00_0() {
+        String[] strings = STR.replaceAll(" ", "").toLowerCase().split("");
+        IntList list = List.of(strings).stream().collect(PrimitiveCollectors.toIntList(String::hashCode));
+        System.out.println(list);
+        //[116, 104, 105, 115, 105, 109, 112, 108, 101, 109, 101, 110, 116, 97, 116, 105, 111, 110, 97, 115, 115, 117, 109, 101, ...
+        assertEquals(116, list.size());
+        assertEquals(116, list.get(0));
+        assertEquals(12579, list.stream().sum());
+        assertEquals(list, PrimitiveCollectors.toIntList(List.of(strings).stream().mapToInt(String::hashCode)));
+        assertEquals(list, PrimitiveCollectors.toIntList(List.of(strings).parallelStream().mapToInt(String::hashCode)));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(116));
+    }
+
+    //StreamTest.test_03_6/test_03_3的计数, 与groupingBy(counting)对照
+    @Test
+    void test_00_1() {
+        String[] strings = STR.replaceAll(" ", "").toLowerCase().split("");
+        IntCountMap counts = PrimitiveCollectors.countInts(List.of(strings).stream().mapToInt(String::hashCode));
+        System.out.println(counts);
+        Map<Integer, Long> expected = List.of(strings).stream().map(String::hashCode)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertEquals(expected, counts.toMap());
+        assertEquals(16, counts.get('n'));
+        assertEquals(0, counts.get('z'));
+        assertTrue(counts.containsKey('a'));
+        assertEquals(20, counts.size());
+
+        IntCountMap parallel = List.of(strings).parallelStream().collect(PrimitiveCollectors.countingInts(String::hashCode));
+        assertEquals(expected, parallel.toMap());
+        assertEquals(IntList.of('t', 'h', 'i', 's', 'm', 'p', 'l', 'e', 'n', 'a', 'o', 'u', 'c', 'r', 'v', 'd', 'g', 'b', 'y', 'k'),
+                PrimitiveCollectors.distinctInts(List.of(strings).stream().mapToInt(String::hashCode)));
+    }
+
+    //大量key, 并行合并, long版本
+    @Test
+    void test_00_2() {
+        Random random = new Random(7);
+        long[] values = random.longs(200_000, -50_000, 50_000).toArray();
+        Map<Long, Long> expected = LongStream.of(values).boxed().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        LongCountMap counts = PrimitiveCollectors.countLongs(LongStream.of(values).parallel());
+        assertEquals(expected, counts.toMap());
+        assertEquals(expected.size(), PrimitiveCollectors.distinctLongs(LongStream.of(values)).size());
+
+        LongList list = PrimitiveCollectors.toLongList(LongStream.of(values).parallel());
+        assertArrayEquals(values, list.toArray());
+        list.sort();
+        assertEquals(LongStream.of(values).min().getAsLong(), list.get(0));
+
+        LongCountMap byParity = LongStream.of(values).boxed().collect(PrimitiveCollectors.countingLongs(v -> v & 1));
+        assertEquals(values.length, byParity.get(0) + byParity.get(1));
+        LongList boxed = LongStream.of(values).boxed().parallel().collect(PrimitiveCollectors.toLongList(Long::longValue));
+        assertEquals(list.size(), boxed.size());
+
+        IntList ints = IntList.of(1, 2);
+        ints.addAll(IntStream.range(0, 100).toArray(), 10, 20);
+        ints.set(0, 5);
+        assertEquals(12, ints.size());
+        assertEquals("[5, 2, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19]", ints.toString());
+        ints.clear();
+        assertTrue(ints.isEmpty());
+    }
+}
@@ -1,5 +1,6 @@
 package com.yxy.reactive;
 
+import com.yxy.reactive.operator.Fallbacks;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
@@ -244,6 +245,18 @@ public class ReactiveAdvancedTest {
         }).switchIfEmpty(method()).subscribe(System.out::println);
     }
 
+    //switchIfEmpty的参数在调用前就会被求值, 所以method()总会执行. 用Supplier延迟到上游为空时才调用
+    @Test
+    void test_03_10() {
+        Mono.just("1").map(s -> {
+            System.out.println("2");
+            return s;
+        }).transform(Fallbacks.switchIfEmpty(() -> method())).subscribe(System.out::println);
+        //输出2 1, 不输出3
+        Mono.<String>empty().transform(Fallbacks.switchIfEmpty(() -> method())).subscribe(System.out::println);
+        //输出3 4 4
+    }
+
     private static Mono<String> method() {
         System.out.println("3");//会直接被调用，原理未知
         return Mono.just("4").map(s -> {
@@ -0,0 +1,134 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.cache.CacheStats;
+import com.yxy.reactive.cache.ReactiveCache;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异步加载缓存
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class ReactiveCacheTest {
+
+    //ReactiveAdvancedTest.find()那样耗时1秒的查询, 100个并发请求只执行一次
+    @Test
+    void test_00_0() {
+        ReactiveCache<Integer, Integer> cache = ReactiveCache.builder().maximumSize(100).build();
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        Long sum = Flux.range(0, 100)
+                .flatMap(i -> cache.get(1, key -> Mono.delay(Duration.ofSeconds(1)).map(x -> {
+                    calls.incrementAndGet();
+                    return key * 2;
+                })))
+                .reduce(0L, Long::sum)
+                .block();
+        assertEquals(200L, sum);
+        assertEquals(1, calls.get());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        CacheStats stats = cache.stats();
+        System.out.println(stats);
+        //CacheStats{hits=99, misses=1, hitRate=0.9900, loads=1, loadFailures=0, avgLoadMillis=1002.263, evictions=0}
+        assertEquals(1, stats.getMissCount());
+        assertEquals(99, stats.getHitCount());
+        assertEquals(1, stats.loadCount());
+    }
+
+    //失败和空值不缓存
+    @Test
+    void test_00_1() {
+        ReactiveCache<String, String> cache = ReactiveCache.builder().build();
+        AtomicInteger calls = new AtomicInteger();
+        StepVerifier.create(cache.get("a", key -> Mono.error(new IllegalStateException("boom " + calls.incrementAndGet()))))
+                .verifyErrorMessage("boom 1");
+        StepVerifier.create(cache.get("a", key -> Mono.empty())).verifyComplete();
+        StepVerifier.create(cache.get("a", key -> Mono.just("A"))).expectNext("A").verifyComplete();
+        StepVerifier.create(cache.get("a", key -> Mono.just("B"))).expectNext("A").verifyComplete();
+        assertEquals(2, cache.stats().getLoadSuccessCount());
+        assertEquals(1, cache.stats().getLoadFailureCount());
+        cache.invalidate("a");
+        StepVerifier.create(cache.getIfPresent("a")).verifyComplete();
+
+        //get返回的Mono还没订阅, getIfPresent不会开始加载
+        Mono<String> pending = cache.get("b", key -> Mono.fromCallable(() -> "B" + calls.incrementAndGet()));
+        StepVerifier.create(cache.getIfPresent("b")).verifyComplete();
+        assertEquals(1, calls.get());
+        StepVerifier.create(pending).expectNext("B2").verifyComplete();
+        StepVerifier.create(cache.getIfPresent("b")).expectNext("B2").verifyComplete();
+    }
+
+    //过期与后台刷新, 用假时钟
+    @Test
+    void test_01_0() {
+        AtomicLong now = new AtomicLong(1);
+        ReactiveCache<String, Integer> cache = ReactiveCache.builder()
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .refreshAfterWrite(Duration.ofSeconds(5))
+                .ticker(now::get)
+                .build();
+        AtomicInteger version = new AtomicInteger();
+        assertEquals(1, cache.get("k", key -> Mono.fromSupplier(version::incrementAndGet)).block());
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        //触发刷新, 这次仍然返回旧值
+        assertEquals(1, cache.get("k", key -> Mono.fromSupplier(version::incrementAndGet)).block());
+        assertEquals(2, cache.get("k", key -> Mono.fromSupplier(version::incrementAndGet)).block());
+        //刷新后写入时间更新, 过了11秒才过期
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        StepVerifier.create(cache.getIfPresent("k")).verifyComplete();
+        assertEquals(3, cache.get("k", key -> Mono.fromSupplier(version::incrementAndGet)).block());
+    }
+
+    //容量淘汰: 热点key不会被一次扫描挤出
+    @Test
+    void test_02_0() {
+        ReactiveCache<Integer, Integer> cache = ReactiveCache.builder().maximumSize(100).build();
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < 50; key++) {
+                cache.get(key, Mono::just).block();
+            }
+        }
+        //扫描1000个只访问一次的key
+        for (int key = 1000; key < 2000; key++) {
+            cache.get(key, Mono::just).block();
+        }
+        assertTrue(cache.estimatedSize() <= 100);
+        //频率是估算值并且会衰减, 不保证全部留下; 纯LRU的话这里一个都不剩
+        long hot = Flux.range(0, 50).flatMap(cache::getIfPresent).count().block();
+        assertTrue(hot >= 45, "hot " + hot);
+        assertTrue(cache.stats().getEvictionCount() >= 950);
+
+        ReactiveCache<Integer, Integer> tiny = ReactiveCache.builder().maximumSize(1).build();
+        Flux.range(0, 10).concatMap(i -> tiny.get(i, Mono::just)).blockLast();
+        assertEquals(1, tiny.estimatedSize());
+    }
+
+    //并发访问下容量不超限, 值正确
+    @Test
+    void test_02_1() {
+        ReactiveCache<Integer, Integer> cache = ReactiveCache.builder().maximumSize(1000).build();
+        Flux.range(0, 200_000)
+                .parallel(8).runOn(Schedulers.parallel())
+                .flatMap(i -> {
+                    int key = (i * 31) % 5000;
+                    return cache.get(key, k -> Mono.just(k * 2)).doOnNext(v -> assertEquals(key * 2, v));
+                })
+                .sequential().blockLast();
+        assertTrue(cache.estimatedSize() <= 1000, "size " + cache.estimatedSize());
+        log.info("{}", cache.stats());
+    }
+}
@@ -0,0 +1,127 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.ShortId;
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 短ID的long编解码
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class ShortIdTest {
+
+    //编码解码互逆, 边界值也一样
+    @Test
+    void test_00_0() {
+        assertEquals("00000000", ShortId.encode(0));
+        assertEquals("zzzzzzzz", ShortId.encode(ShortId.SPACE - 1));
+        assertEquals(ShortId.SPACE - 1, ShortId.decode("zzzzzzzz"));
+        for (int i = 0; i < 10000; i++) {
+            long id = ShortId.next();
+            assertEquals(id, ShortId.decode(ShortId.encode(id)));
+        }
+        //旧实现生成的文本同样可以解码
+        String name = UUIDUtil.shortUUID();
+        assertEquals(name, ShortId.encode(ShortId.decode(name)));
+    }
+
+    //long的大小关系和文本的字典序一致
+    @Test
+    void test_00_1() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 10000; i++) {
+            long a = random.nextLong(ShortId.SPACE);
+            long b = random.nextBoolean() ? a : random.nextLong(ShortId.SPACE);
+            assertEquals(Integer.signum(Long.compare(a, b)), Integer.signum(ShortId.encode(a).compareTo(ShortId.encode(b))));
+        }
+    }
+
+    //非法输入
+    @Test
+    void test_00_2() {
+        assertFalse(ShortId.isValid("abc"));
+        assertFalse(ShortId.isValid("abcd-efg"));
+        assertFalse(ShortId.isValid(null));
+        assertTrue(ShortId.isValid("aB3dE5gH"));
+        assertThrows(IllegalArgumentException.class, () -> ShortId.decode("abcd-efg"));
+        assertThrows(IllegalArgumentException.class, () -> ShortId.decode("短ID不合法了呀"));
+        assertThrows(IllegalArgumentException.class, () -> ShortId.encode(-1));
+        assertThrows(IllegalArgumentException.class, () -> ShortId.encode(ShortId.SPACE));
+    }
+
+    //收集成id-person的map结构, key用long而不是String
+    @Test
+    void test_01_0() {
+        ArrayList<Person> people = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Person person = new Person();
+            person.setName(UUIDUtil.shortUUID());
+            person.setSex(i % 2 == 0 ? "Male" : "Female");
+            people.add(person);
+        }
+        ConcurrentMap<Long, Person> map = people.stream().collect(Collectors.toConcurrentMap(p -> ShortId.decode(p.getName()), Function.identity()));
+        for (Person person : people) {
+            assertSame(person, map.get(ShortId.decode(person.getName())));
+        }
+        System.out.println(map);
+    }
+
+    //有序ID: 同一线程内严格递增, 文本的字典序也递增, 时间戳接近当前时间
+    @Test
+    void test_02_0() {
+        long start = System.currentTimeMillis();
+        long previous = -1;
+        String previousText = "";
+        for (int i = 0; i < 1000; i++) {
+            long id = ShortId.nextOrdered();
+            String text = ShortId.encode(id);
+            assertTrue(id > previous);
+            assertTrue(text.compareTo(previousText) > 0);
+            previous = id;
+            previousText = text;
+        }
+        long timestamp = ShortId.timestamp(previous);
+        assertTrue(Math.abs(timestamp - start) < 60_000, "timestamp " + timestamp + " start " + start);
+        System.out.println(UUIDUtil.orderedShortUUID());
+    }
+
+    //有序ID: 多线程并发生成不重复
+    @Test
+    void test_02_1() throws Exception {
+        int threads = 8;
+        int perThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                long[] ids = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = ShortId.nextOrdered();
+                }
+                return ids;
+            }));
+        }
+        Set<Long> all = ConcurrentHashMap.newKeySet();
+        for (Future<long[]> future : futures) {
+            for (long id : future.get()) {
+                assertTrue(all.add(id), "duplicate " + ShortId.encode(id));
+            }
+        }
+        executor.shutdown();
+        assertEquals(threads * perThread, all.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.operator.SpliteratorParallelFlux;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spliterator切分的并行数据源
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class SpliteratorParallelFluxTest {
+
+    //ReactiveBasicTest.test_08的写法, 不需要runOn
+    @Test
+    void test_00_0() {
+        List<Integer> list = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toCollection(ArrayList::new));
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        Long sum = SpliteratorParallelFlux.fromIterable(list)
+                .doOnNext(i -> threads.add(Thread.currentThread().getName()))
+                .map(Integer::longValue)
+                .reduce(Long::sum)
+                .block();
+        log.info("threads: {}", threads);
+        assertEquals(999_999L * 1_000_000 / 2, sum);
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("parallel-")));
+
+        Integer[] array = list.toArray(new Integer[0]);
+        List<Integer> all = SpliteratorParallelFlux.fromArray(array).sequential().collectList().block();
+        assertNotNull(all);
+        assertEquals(list, all.stream().sorted().collect(Collectors.toList()));
+
+        Long count = SpliteratorParallelFlux.range(0, 123_457).sequential().count().block();
+        assertEquals(123_457L, count);
+    }
+
+    //大小未知的流(迭代器切分), 用groups()看每个rail分到多少
+    @Test
+    void test_00_1() {
+        Scheduler scheduler = Schedulers.newParallel("rail", 4);
+        try {
+            Iterator<Integer> iterator = IntStream.range(0, 100_000).iterator();
+            Map<Integer, Long> perRail = new SpliteratorParallelFlux<>(Spliterators.spliteratorUnknownSize(iterator, 0), 4, scheduler, 256)
+                    .groups()
+                    .flatMap(rail -> rail.count().map(count -> Map.entry(rail.key(), count)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                    .block();
+            log.info("per rail: {}", perRail);
+            assertNotNull(perRail);
+            assertEquals(4, perRail.size());
+            assertEquals(100_000L, perRail.values().stream().mapToLong(Long::longValue).sum());
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    //有限请求和取消
+    @Test
+    void test_00_2() {
+        StepVerifier.create(SpliteratorParallelFlux.range(0, 1_000_000).sequential(), 10)
+                .expectNextCount(10)
+                .thenRequest(5)
+                .expectNextCount(5)
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(SpliteratorParallelFlux.range(0, 100).sequential().take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        StepVerifier.create(SpliteratorParallelFlux.fromIterable(List.of()).sequential())
+                .verifyComplete();
+
+        StepVerifier.create(SpliteratorParallelFlux.range(0, 10).map(i -> 10 / (i - 5)).sequential())
+                .thenConsumeWhile(i -> true)
+                .verifyError(ArithmeticException.class);
+    }
+
+    //只能订阅一次, range的参数检查
+    @Test
+    void test_00_3() {
+        SpliteratorParallelFlux<Integer> flux = SpliteratorParallelFlux.range(0, 1000);
+        StepVerifier.create(flux.sequential())
+                .expectNextCount(1000)
+                .verifyComplete();
+        StepVerifier.create(flux.sequential())
+                .verifyError(IllegalStateException.class);
+
+        StepVerifier.create(SpliteratorParallelFlux.range(Integer.MAX_VALUE - 2, 3).sequential().sort())
+                .expectNext(Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE)
+                .verifyComplete();
+        StepVerifier.create(SpliteratorParallelFlux.range(5, 0).sequential())
+                .verifyComplete();
+        assertThrows(IllegalArgumentException.class, () -> SpliteratorParallelFlux.range(Integer.MAX_VALUE, 2));
+        assertThrows(IllegalArgumentException.class, () -> SpliteratorParallelFlux.range(0, -1));
+    }
+
+    //请求量与元素个数正好相等时, 不需要再request就能完成
+    @Test
+    void test_00_4() {
+        List<Integer> list = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        SpliteratorParallelFlux<Integer> flux = new SpliteratorParallelFlux<>(list.spliterator(), 1, Schedulers.parallel(), 16);
+        StepVerifier.create(flux.groups().blockFirst(), 100)
+                .expectNextCount(100)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        //迭代器切分的段没有准确大小, 只能提前取一个来判断
+        Iterator<Integer> iterator = list.iterator();
+        SpliteratorParallelFlux<Integer> unknown = new SpliteratorParallelFlux<>(Spliterators.spliteratorUnknownSize(iterator, 0), 1,
+                Schedulers.parallel(), 16);
+        StepVerifier.create(unknown.groups().blockFirst(), 100)
+                .expectNextCount(100)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+}
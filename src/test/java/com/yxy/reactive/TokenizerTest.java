@@ -0,0 +1,132 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.collect.CharCounter;
+import com.yxy.reactive.collect.IntList;
+import com.yxy.reactive.collect.TokenCounter;
+import com.yxy.reactive.text.Token;
+import com.yxy.reactive.text.TokenBatch;
+import com.yxy.reactive.text.Tokenizer;
+import com.yxy.reactive.text.Utf8Text;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 不复制输入的字符/token切分
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class TokenizerTest {
+
+    private static final String STR = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+
+    private final Tokenizer tokenizer = Tokenizer.builder().lowerCase(true).build();
+
+    //StreamTest.test_03_*的 str.replaceAll(" ", "").toLowerCase().split("")
+    @Test
+    void test_00_0() {
+        int[] expected = STR.replaceAll(" ", "").toLowerCase().chars().toArray();
+        assertArrayEquals(expected, StreamSupport.intStream(tokenizer.codePoints(STR), false).toArray());
+        assertArrayEquals(expected, StreamSupport.intStream(tokenizer.codePoints(CharBuffer.wrap(STR)), false).toArray());
+
+        //大文本并行遍历, 计数与逐个字符的结果一致
+        String text = STR.repeat(1000);
+        CharCounter parallel = StreamSupport.intStream(tokenizer.codePoints(text), true)
+                .collect(CharCounter::new, (counter, c) -> counter.add((char) c), CharCounter::merge);
+        Map<Character, Long> split = Arrays.stream(text.replaceAll(" ", "").toLowerCase().split(""))
+                .collect(Collectors.groupingBy(s -> s.charAt(0), Collectors.counting()));
+        assertEquals(split, parallel.toMap());
+        System.out.println(parallel);
+    }
+
+    //token模式, 多字节字符和代理对
+    @Test
+    void test_00_1() {
+        String text = "  Hello\tWORLD 你好 世界 😀smile\nÉTÉ ";
+        List<String> tokens = StreamSupport.stream(tokenizer.tokens(text), false).map(Token::toString).collect(Collectors.toList());
+        assertEquals(List.of("hello", "world", "你好", "世界", "😀smile", "été"), tokens);
+
+        Utf8Text utf8 = Utf8Text.of(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(tokens, StreamSupport.stream(tokenizer.tokens(utf8), false).map(Token::toString).collect(Collectors.toList()));
+        assertArrayEquals(StreamSupport.intStream(tokenizer.codePoints(text), false).toArray(),
+                StreamSupport.intStream(tokenizer.codePoints(utf8), false).toArray());
+
+        //按逗号切, 不转小写
+        Tokenizer csv = Tokenizer.builder().separator(c -> c == ',').build();
+        assertEquals(List.of("a", "B c", "d"),
+                StreamSupport.stream(csv.tokens("a,,B c,d,"), false).map(Token::toString).collect(Collectors.toList()));
+
+        //非法的UTF-8字节解码成U+FFFD
+        Utf8Text broken = Utf8Text.of(ByteBuffer.wrap(new byte[]{'a', (byte) 0xE4, (byte) 0xBD, 'b', (byte) 0xFF}));
+        assertArrayEquals(new int[]{'a', 0xFFFD, 0xFFFD, 'b', 0xFFFD},
+                StreamSupport.intStream(tokenizer.codePoints(broken), false).toArray());
+        //超过U+10FFFF(F4 90 80 80, F5..F7开头), 编码的代理(ED A0 80), 过长编码(C0 80): 每个字节一个U+FFFD
+        byte[] invalid = {(byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80, 'x', (byte) 0xF7, (byte) 0xBF, (byte) 0xBF, (byte) 0xBF,
+                (byte) 0xED, (byte) 0xA0, (byte) 0x80, (byte) 0xC0, (byte) 0x80, 'y', (byte) 0xF4, (byte) 0x8F, (byte) 0xBF, (byte) 0xBF};
+        int[] expected = new int[invalid.length - 3];
+        Arrays.fill(expected, 0xFFFD);
+        expected[4] = 'x';
+        expected[14] = 'y';
+        expected[15] = 0x10FFFF;
+        Utf8Text outOfRange = Utf8Text.of(ByteBuffer.wrap(invalid));
+        assertArrayEquals(expected, StreamSupport.intStream(tokenizer.codePoints(outOfRange), false).toArray());
+        //不会因为非法码点让token流出错
+        assertEquals(List.of("\ufffd\ufffd\ufffd\ufffdx\ufffd\ufffd\ufffd\ufffd\ufffd\ufffd\ufffd\ufffd\ufffdy\udbff\udfff"),
+                StreamSupport.stream(tokenizer.tokens(outOfRange), false).map(Token::toString).collect(Collectors.toList()));
+    }
+
+    //映射文件, 分段很小时码点和token跨段, 并行流与分块Flux的结果都与String.split一致
+    @Test
+    void test_00_2() throws IOException {
+        String line = "Reactor 反应式 Stream ConcurrentMap 😀 null absent\n";
+        String content = line.repeat(20_000);
+        Path file = Files.createTempFile("tokenizer", ".txt");
+        try {
+            Files.writeString(file, content);
+            Utf8Text mapped = Utf8Text.map(file, 4096);
+            assertEquals(content.getBytes(StandardCharsets.UTF_8).length, mapped.length());
+
+            Map<String, Long> expected = Arrays.stream(content.toLowerCase().split("\\s+"))
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            Map<String, Long> parallel = StreamSupport.stream(tokenizer.tokens(mapped), true)
+                    .collect(Collectors.groupingByConcurrent(Token::toString, Collectors.counting()));
+            assertEquals(expected, parallel);
+
+            TokenCounter counter = new TokenCounter();
+            StepVerifier.create(tokenizer.tokenChunks(mapped, 1000).doOnNext(batch -> batch.forEach(counter::add)))
+                    .expectNextCount(140)
+                    .verifyComplete();
+            assertEquals(expected, counter.toMap());
+            log.info("{}", counter.top(3));
+
+            long codePoints = content.codePoints().filter(c -> !Character.isWhitespace(c)).count();
+            assertEquals(codePoints, StreamSupport.intStream(tokenizer.codePoints(mapped), true).count());
+            Long chunked = tokenizer.codePointChunks(mapped, 8192).map(IntList::size).reduce(0, Integer::sum).map(Long::valueOf).block();
+            assertEquals(codePoints, chunked);
+        } finally {
+            Files.delete(file);
+        }
+
+        TokenBatch batch = tokenizer.tokenChunks(STR, 4).blockFirst();
+        assertNotNull(batch);
+        assertEquals("[this, implementation, assumes, that]", batch.toString());
+        assertEquals("assumes", batch.get(2));
+    }
+}
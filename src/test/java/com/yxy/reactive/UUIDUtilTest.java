@@ -0,0 +1,115 @@
+package com.yxy.reactive;
+
+import com.yxy.reactive.utils.UUIDUtil;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 短ID生成
+ * Created by Nuclear on 2026/10/17
+ */
+@SpringBootTest
+@Log4j2
+public class UUIDUtilTest {
+
+    //生成的短ID只包含62个字符, 长度固定为8
+    @Test
+    void test_00_0() {
+        Set<String> alphabet = Set.of(UUIDUtil.chars);
+        for (int i = 0; i < 10000; i++) {
+            String id = UUIDUtil.shortUUID();
+            assertEquals(UUIDUtil.SHORT_UUID_LENGTH, id.length());
+            for (String s : id.split("")) {
+                assertTrue(alphabet.contains(s), id);
+            }
+        }
+    }
+
+    //直接写入调用方的char[]和CharBuffer
+    @Test
+    void test_00_1() {
+        char[] dst = new char[12];
+        UUIDUtil.shortUUID(dst, 2);
+        assertEquals(0, dst[0]);
+        assertEquals(0, dst[11]);
+        assertNotEquals(0, dst[2]);
+        assertThrows(IndexOutOfBoundsException.class, () -> UUIDUtil.shortUUID(dst, 5));
+
+        CharBuffer heap = CharBuffer.allocate(16);
+        UUIDUtil.shortUUID(heap);
+        UUIDUtil.shortUUID(heap);
+        assertEquals(16, heap.position());
+
+        CharBuffer direct = ByteBuffer.allocateDirect(32).asCharBuffer();
+        UUIDUtil.shortUUID(direct);
+        assertEquals(8, direct.position());
+        System.out.println(direct.flip());
+    }
+
+    //每个位置上字符的分布大致均匀, 旧实现 x % 62 会让前几个字符偏多
+    @Test
+    void test_00_2() {
+        int[] counts = new int[128];
+        int total = 62 * 2000;
+        char[] dst = new char[UUIDUtil.SHORT_UUID_LENGTH];
+        for (int i = 0; i < total; i++) {
+            UUIDUtil.shortUUID(dst, 0);
+            counts[dst[0]]++;
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) {
+                seen.add(c);
+                //期望2000, 给足够宽的容差
+                assertTrue(counts[c] > 1600 && counts[c] < 2400, (char) c + "=" + counts[c]);
+            }
+        }
+        assertEquals(62, seen.size());
+    }
+
+    //批量生成
+    @Test
+    void test_01_0() {
+        String[] ids = UUIDUtil.shortUUIDs(new String[3000]);
+        Set<String> alphabet = Set.of(UUIDUtil.chars);
+        for (String id : ids) {
+            assertEquals(UUIDUtil.SHORT_UUID_LENGTH, id.length());
+            for (String s : id.split("")) {
+                assertTrue(alphabet.contains(s), id);
+            }
+        }
+        assertEquals(ids.length, Set.of(ids).size());
+
+        char[] packed = new char[2 + 5 * UUIDUtil.SHORT_UUID_LENGTH];
+        UUIDUtil.shortUUIDs(packed, 2, 5);
+        assertEquals(0, packed[1]);
+        assertNotEquals(0, packed[packed.length - 1]);
+        System.out.println(new String(packed, 2, packed.length - 2));
+    }
+
+    //Flux按批生成, 遵守下游的request
+    @Test
+    void test_01_1() {
+        StepVerifier.create(UUIDUtil.shortUUIDFlux(4), 3)
+                .expectNextCount(3)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(6)
+                .expectNextCount(6)
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(UUIDUtil.shortUUIDFlux().take(1000).distinct().count())
+                .expectNext(1000L)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,100 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.collect.ConcurrentCounterMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多线程计数到同一个map, key按Zipf分布(s=1.2), 前几个key占了大部分更新:
+ * {@code ConcurrentHashMap<K, AtomicLong>} vs {@code ConcurrentHashMap<K, LongAdder>} vs {@link ConcurrentCounterMap}
+ * <p>
+ * 线程数用main里的循环(1到64), 或者命令行的-t指定
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentCounterBenchmark {
+
+    private static final int KEYS = 1000;
+    private static final int SEQUENCE = 1 << 16;
+
+    private final String[] keys = new String[KEYS];
+
+    private ConcurrentHashMap<String, AtomicLong> atomicLongs;
+    private ConcurrentHashMap<String, LongAdder> longAdders;
+    private ConcurrentCounterMap<String> counterMap;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+        }
+        atomicLongs = new ConcurrentHashMap<>();
+        longAdders = new ConcurrentHashMap<>();
+        counterMap = new ConcurrentCounterMap<>();
+    }
+
+    //每个线程各自的key序列
+    @State(Scope.Thread)
+    public static class Sequence {
+        int[] indexes = new int[SEQUENCE];
+        int position;
+
+        @Setup
+        public void setUp() {
+            double[] cumulative = new double[KEYS];
+            double sum = 0;
+            for (int i = 0; i < KEYS; i++) {
+                sum += 1 / Math.pow(i + 1, 1.2);
+                cumulative[i] = sum;
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < SEQUENCE; i++) {
+                int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                indexes[i] = index < 0 ? -index - 1 : index;
+            }
+        }
+
+        int next() {
+            return indexes[position++ & (SEQUENCE - 1)];
+        }
+    }
+
+    @Benchmark
+    public long atomicLong(Sequence sequence) {
+        return atomicLongs.computeIfAbsent(keys[sequence.next()], k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Benchmark
+    public void longAdder(Sequence sequence) {
+        longAdders.computeIfAbsent(keys[sequence.next()], k -> new LongAdder()).increment();
+    }
+
+    @Benchmark
+    public void counterMap(Sequence sequence) {
+        counterMap.increment(keys[sequence.next()]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentCounterBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.collect.FlatGrouping;
+import com.yxy.reactive.collect.GroupTable;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 100万个Person按 性别/name首字符/name第二个字符 三级分组(约7700组):
+ * 嵌套groupingBy vs {@link FlatGrouping}, 分别收集List、计数、统计
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class FlatGroupingBenchmark {
+
+    private static final int COUNT = 1_000_000;
+
+    private List<Person> people;
+
+    @Setup
+    public void setUp() {
+        people = new ArrayList<>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"));
+        }
+    }
+
+    private static Character first(Person person) {
+        return person.getName().charAt(0);
+    }
+
+    private static Character second(Person person) {
+        return person.getName().charAt(1);
+    }
+
+    private static long metric(Person person) {
+        return person.getName().charAt(7);
+    }
+
+    @Benchmark
+    public Map<String, Map<Character, Map<Character, List<Person>>>> nestedList() {
+        return people.stream().collect(Collectors.groupingBy(Person::getSex,
+                Collectors.groupingBy(FlatGroupingBenchmark::first, Collectors.groupingBy(FlatGroupingBenchmark::second))));
+    }
+
+    @Benchmark
+    public GroupTable<List<Person>> flatList() {
+        return people.stream().collect(FlatGrouping.by(Person::getSex, FlatGroupingBenchmark::first, FlatGroupingBenchmark::second).toList());
+    }
+
+    @Benchmark
+    public Map<String, Map<Character, Map<Character, Long>>> nestedCounting() {
+        return people.stream().collect(Collectors.groupingBy(Person::getSex,
+                Collectors.groupingBy(FlatGroupingBenchmark::first, Collectors.groupingBy(FlatGroupingBenchmark::second, Collectors.counting()))));
+    }
+
+    @Benchmark
+    public GroupTable<Long> flatCounting() {
+        return people.stream().collect(FlatGrouping.by(Person::getSex, FlatGroupingBenchmark::first, FlatGroupingBenchmark::second).counting());
+    }
+
+    @Benchmark
+    public Map<String, Map<Character, Map<Character, LongSummaryStatistics>>> nestedSummarizing() {
+        return people.stream().collect(Collectors.groupingBy(Person::getSex,
+                Collectors.groupingBy(FlatGroupingBenchmark::first, Collectors.groupingBy(FlatGroupingBenchmark::second,
+                        Collectors.summarizingLong(FlatGroupingBenchmark::metric)))));
+    }
+
+    @Benchmark
+    public GroupTable<LongSummaryStatistics> flatSummarizing() {
+        return people.stream().collect(FlatGrouping.by(Person::getSex, FlatGroupingBenchmark::first, FlatGroupingBenchmark::second)
+                .summarizing(FlatGroupingBenchmark::metric));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(FlatGroupingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
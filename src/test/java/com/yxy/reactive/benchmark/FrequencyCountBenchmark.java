@@ -0,0 +1,160 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.collect.CharCounter;
+import com.yxy.reactive.collect.TokenCounter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 统计1GB文本的字符/单词频率: MapTest里的各种写法 vs {@link CharCounter}/{@link TokenCounter}
+ * <p>
+ * 每次调用处理一块1MB(1 << 20个char)的文本, 每轮测量1024次, 正好1GB. 整段1GB的String做split("")需要几十GB堆,
+ * 所以按块处理; 计数类的写法在整轮1GB上累计, 保存每个字符列表的两种写法(test_00_2, test_05_0)在1GB上会把所有字符都留在堆里,
+ * 只能每块新建一个map
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, batchSize = 64)
+@Measurement(iterations = 3, batchSize = 1024)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class FrequencyCountBenchmark {
+
+    private static final int CHUNK = 1 << 20;
+    private static final int VOCABULARY = 20_000;
+
+    private String chunk;
+
+    private HashMap<String, Long> mergeLong;
+    private HashMap<String, AtomicLong> atomicLong;
+    private CharCounter charCounter;
+    private HashMap<String, Long> wordMerge;
+    private TokenCounter tokenCounter;
+
+    @Setup
+    public void setUp() {
+        //单词长度2~10, 按Zipf分布抽取, 少数单词首字母大写
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            char[] word = new char[2 + random.nextInt(9)];
+            for (int j = 0; j < word.length; j++) {
+                word[j] = (char) ('a' + random.nextInt(26));
+            }
+            if (random.nextInt(10) == 0) {
+                word[0] = Character.toUpperCase(word[0]);
+            }
+            words[i] = new String(word);
+        }
+        double[] cumulative = new double[VOCABULARY];
+        double sum = 0;
+        for (int i = 0; i < VOCABULARY; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        StringBuilder builder = new StringBuilder(CHUNK + 16);
+        while (builder.length() < CHUNK) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            builder.append(words[index < 0 ? -index - 1 : index]).append(' ');
+        }
+        builder.setLength(CHUNK);
+        chunk = builder.toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        mergeLong = new HashMap<>();
+        atomicLong = new HashMap<>();
+        charCounter = new CharCounter();
+        wordMerge = new HashMap<>();
+        tokenCounter = new TokenCounter();
+    }
+
+    //MapTest.test_00_1
+    @Benchmark
+    public HashMap<String, Long> charsMergeLong() {
+        for (String s : chunk.replaceAll(" ", "").toLowerCase().split("")) {
+            mergeLong.merge(s, 1L, Long::sum);
+        }
+        return mergeLong;
+    }
+
+    //MapTest.test_00_2
+    @Benchmark
+    public HashMap<String, ArrayList<String>> charsMergeList() {
+        HashMap<String, ArrayList<String>> hashMap = new HashMap<>();
+        for (String s : chunk.replaceAll(" ", "").toLowerCase().split("")) {
+            hashMap.merge(s, new ArrayList<>(List.of(s)), (old, value) -> {
+                old.addAll(value);
+                return old;
+            });
+        }
+        return hashMap;
+    }
+
+    //MapTest.test_05_0
+    @Benchmark
+    public HashMap<String, ArrayList<String>> charsComputeIfAbsentList() {
+        HashMap<String, ArrayList<String>> hashMap = new HashMap<>();
+        for (String s : chunk.replaceAll(" ", "").toLowerCase().split("")) {
+            hashMap.computeIfAbsent(s, k -> new ArrayList<>()).add(s);
+        }
+        return hashMap;
+    }
+
+    //MapTest.test_05_1
+    @Benchmark
+    public HashMap<String, AtomicLong> charsComputeIfAbsentAtomicLong() {
+        for (String s : chunk.replaceAll(" ", "").toLowerCase().split("")) {
+            atomicLong.computeIfAbsent(s, k -> new AtomicLong()).incrementAndGet();
+        }
+        return atomicLong;
+    }
+
+    @Benchmark
+    public CharCounter charsCharCounter() {
+        String text = chunk;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c != ' ') {
+                charCounter.add(Character.toLowerCase(c));
+            }
+        }
+        return charCounter;
+    }
+
+    //单词计数, MapTest.test_00_1的写法换成split(" ")
+    @Benchmark
+    public HashMap<String, Long> wordsMergeLong() {
+        for (String s : chunk.split(" ")) {
+            if (!s.isEmpty()) {
+                wordMerge.merge(s, 1L, Long::sum);
+            }
+        }
+        return wordMerge;
+    }
+
+    @Benchmark
+    public TokenCounter wordsTokenCounter() {
+        tokenCounter.addAll(chunk, ' ');
+        return tokenCounter;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(FrequencyCountBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.collect.AdaptiveGrouping;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 5000万个Person的并行流分组: groupingBy vs groupingByConcurrent vs {@link AdaptiveGrouping}
+ * <p>
+ * key=sex时只有两个key(StreamTest.test_02_0), key=name时有100万个key. 5000万个不同的Person对象需要1.2GB以上的堆,
+ * 这里的数组是5000万个引用, 指向100万个Person
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class GroupingBenchmark {
+
+    private static final int COUNT = 50_000_000;
+    private static final int DISTINCT = 1 << 20;
+
+    @Param({"sex", "name"})
+    String key;
+
+    private Person[] people;
+    private Function<Person, String> classifier;
+
+    @Setup
+    public void setUp() {
+        Person[] pool = new Person[DISTINCT];
+        for (int i = 0; i < DISTINCT; i++) {
+            pool[i] = new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female");
+        }
+        people = new Person[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            people[i] = pool[i & (DISTINCT - 1)];
+        }
+        classifier = "sex".equals(key) ? Person::getSex : Person::getName;
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> groupingBy() {
+        return Arrays.stream(people).parallel().collect(Collectors.groupingBy(classifier));
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> groupingByConcurrent() {
+        return Arrays.stream(people).parallel().collect(Collectors.groupingByConcurrent(classifier));
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> adaptiveGrouping() {
+        return Arrays.stream(people).parallel().collect(AdaptiveGrouping.groupingBy(classifier));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(GroupingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
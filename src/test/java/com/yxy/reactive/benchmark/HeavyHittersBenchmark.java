@@ -0,0 +1,97 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.stats.CountMinSketch;
+import com.yxy.reactive.stats.HeavyHitters;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * top-K计数: 精确计数(groupingBy/HashMap, 内存与key数成正比) vs {@link HeavyHitters}(epsilon = 0.001, 内存固定)
+ * <p>
+ * 100万个值, Zipf分布(s=1.1)取自50万个key, 大部分key只出现一两次. 分数和gc.alloc.rate.norm按单个值计算
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(HeavyHittersBenchmark.COUNT)
+@State(Scope.Benchmark)
+public class HeavyHittersBenchmark {
+
+    static final int COUNT = 1_000_000;
+    private static final int KEYS = 500_000;
+
+    private String[] stream;
+
+    @Setup
+    public void setUp() {
+        String[] keys = new String[KEYS];
+        double[] cumulative = new double[KEYS];
+        double sum = 0;
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+            sum += 1 / Math.pow(i + 1, 1.1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(42);
+        stream = new String[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            stream[i] = keys[index < 0 ? -index - 1 : index];
+        }
+    }
+
+    //MapTest/StreamTest.test_03_3的写法
+    @Benchmark
+    public Map<String, Long> groupingByCounting() {
+        return Arrays.stream(stream).collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, long[]> hashMap() {
+        Map<String, long[]> counts = new HashMap<>();
+        for (String item : stream) {
+            counts.computeIfAbsent(item, k -> new long[1])[0]++;
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public CountMinSketch countMinSketch() {
+        CountMinSketch sketch = new CountMinSketch(0.001, 0.01);
+        for (String item : stream) {
+            sketch.add(item, 1);
+        }
+        return sketch;
+    }
+
+    @Benchmark
+    public HeavyHitters<String> heavyHitters() {
+        HeavyHitters<String> sketch = new HeavyHitters<>(0.001, 0.01);
+        for (String item : stream) {
+            sketch.add(item);
+        }
+        return sketch;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(HeavyHittersBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.stats.HistogramRecorder;
+import com.yxy.reactive.stats.HistogramSnapshot;
+import com.yxy.reactive.stats.LogHistogram;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+import java.util.LongSummaryStatistics;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个值的记录成本: LongSummaryStatistics(没有分位数) vs 直方图 vs 收集全部值再排序(精确分位数, 内存随元素个数增长)
+ * <p>
+ * 输入是对数正态分布的"延迟", 每次调用100万个值, 分数和gc.alloc.rate.norm按单个值计算
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@OperationsPerInvocation(HistogramBenchmark.COUNT)
+@State(Scope.Benchmark)
+public class HistogramBenchmark {
+
+    static final int COUNT = 1_000_000;
+
+    private long[] values;
+    private Long[] boxed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = (long) Math.exp(random.nextGaussian() * 2 + 10);
+        }
+        boxed = Arrays.stream(values).boxed().toArray(Long[]::new);
+    }
+
+    @Benchmark
+    public LongSummaryStatistics summaryStatistics() {
+        LongSummaryStatistics statistics = new LongSummaryStatistics();
+        for (long value : values) {
+            statistics.accept(value);
+        }
+        return statistics;
+    }
+
+    @Benchmark
+    public HistogramSnapshot histogram() {
+        LogHistogram histogram = new LogHistogram();
+        for (long value : values) {
+            histogram.record(value);
+        }
+        return histogram.snapshot();
+    }
+
+    @Benchmark
+    public HistogramSnapshot recorder() {
+        HistogramRecorder recorder = new HistogramRecorder();
+        for (long value : values) {
+            recorder.record(value);
+        }
+        return recorder.snapshot();
+    }
+
+    @Benchmark
+    public long sortedP99() {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(0.99 * sorted.length) - 1];
+    }
+
+    @Benchmark
+    public LongSummaryStatistics fluxSummaryStatistics() {
+        return Flux.fromArray(boxed).collect(LongSummaryStatistics::new, LongSummaryStatistics::accept).block();
+    }
+
+    @Benchmark
+    public HistogramSnapshot fluxHistogram() {
+        return Flux.fromArray(boxed).as(HistogramRecorder.summarizing(Long::longValue)).block();
+    }
+
+    @Benchmark
+    public long fluxSortedP99() {
+        return Flux.fromArray(boxed).collectSortedList().map(list -> list.get((int) Math.ceil(0.99 * list.size()) - 1)).block();
+    }
+
+    @Benchmark
+    public HistogramSnapshot parallelFluxHistogram() {
+        return Flux.fromArray(boxed).parallel(4).runOn(Schedulers.parallel())
+                .as(HistogramRecorder.summarizingRails(Long::longValue)).block();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(HistogramBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
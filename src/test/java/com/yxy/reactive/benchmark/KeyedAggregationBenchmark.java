@@ -0,0 +1,79 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.operator.KeyedAggregation;
+import com.yxy.reactive.operator.KeyedWindow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 按key计数: groupBy + flatMap(count) vs {@link KeyedAggregation}的单张表
+ * <p>
+ * 100万个值, keys个不同的key. groupBy的flatMap并发数要不小于key数, 否则会卡住(见KeyedAggregationTest.test_00_3).
+ * 窗口设成1小时, 整个流在一个窗口里, 只比较分组聚合本身
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class KeyedAggregationBenchmark {
+
+    private static final int COUNT = 1_000_000;
+
+    @Param({"3", "1000", "100000"})
+    private int keys;
+
+    private Integer[] values;
+
+    @Setup
+    public void setUp() {
+        values = new Integer[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            values[i] = (i * 31) % keys;
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Long> groupBy() {
+        return Flux.fromArray(values)
+                .groupBy(i -> i)
+                .flatMap(group -> group.count().map(count -> Map.entry(group.key(), count)), Integer.MAX_VALUE)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> keyedAggregation() {
+        KeyedWindow<Integer, Long> window = Flux.fromArray(values)
+                .transform(KeyedAggregation.builder((Integer i) -> i)
+                        .tumbling(Duration.ofHours(1))
+                        .build(Collectors.counting()))
+                .blockLast();
+        return window == null ? null : window.getResults();
+    }
+
+    //不分组, 只是一个reduce, 作为下限
+    @Benchmark
+    public Long countOnly() {
+        return Flux.fromArray(values).count().block();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(KeyedAggregationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
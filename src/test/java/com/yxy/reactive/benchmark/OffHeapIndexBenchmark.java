@@ -0,0 +1,105 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.store.OffHeapPersonIndex;
+import com.yxy.reactive.store.PersonLog;
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 按name查找: ConcurrentHashMap<String, Person> vs 堆外索引 + mmap日志
+ * <p>
+ * SampleTime模式, 看结果里的p0.99. 堆占用在setUp里打印(full gc之后的堆使用量之差)
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OffHeapIndexBenchmark {
+
+    @Param({"10000000"})
+    int size;
+
+    @Param({"map", "offHeap"})
+    String mode;
+
+    private String[] names;
+    private ConcurrentHashMap<String, Person> map;
+    private OffHeapPersonIndex index;
+    private PersonLog personLog;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        names = UUIDUtil.shortUUIDs(new String[size]);
+        long before = usedHeap();
+        if ("map".equals(mode)) {
+            map = new ConcurrentHashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                map.put(names[i], new Person(names[i], i % 2 == 0 ? "Male" : "Female"));
+            }
+        } else {
+            directory = Files.createTempDirectory("person-log");
+            personLog = new PersonLog(directory, PersonLog.DEFAULT_SEGMENT_SIZE, false, PersonLog.DEFAULT_MAX_BATCH);
+            index = new OffHeapPersonIndex(size);
+            long[] offset = {0};
+            personLog.appendAll(Flux.range(0, size).map(i -> new Person(names[i], i % 2 == 0 ? "Male" : "Female")))
+                    .doOnNext(o -> index.put(names[(int) offset[0]++], o))
+                    .blockLast();
+        }
+        //names数组两种模式都有, 不计入; map模式下key就是names里的String, 只算Node和Person
+        System.out.printf("%n%s: heap %d MB, off-heap %d MB%n", mode, (usedHeap() - before) >> 20,
+                index == null ? 0 : index.offHeapBytes() >> 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (personLog != null) {
+            personLog.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Person lookup() {
+        String name = names[ThreadLocalRandom.current().nextInt(size)];
+        if (map != null) {
+            return map.get(name);
+        }
+        return personLog.get(index.get(name));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(OffHeapIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
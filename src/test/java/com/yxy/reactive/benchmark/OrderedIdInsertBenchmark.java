@@ -0,0 +1,94 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.utils.ShortId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 有序索引的插入: 随机ID vs 按时间递增的ID
+ * 每次调用向一个空索引插入{@link #size}个预先生成好的key, 生成ID的开销不计入
+ * 改size时记得同步修改@OperationsPerInvocation
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderedIdInsertBenchmark {
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"random", "ordered"})
+    String mode;
+
+    private long[] ids;
+    private String[] names;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new long[size];
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = "ordered".equals(mode) ? ShortId.nextOrdered() : ShortId.next();
+            names[i] = ShortId.encode(ids[i]);
+        }
+    }
+
+    //红黑树, String key
+    @Benchmark
+    @OperationsPerInvocation(100000)
+    public TreeMap<String, Integer> treeMap() {
+        TreeMap<String, Integer> index = new TreeMap<>();
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+        return index;
+    }
+
+    //跳表, long key
+    @Benchmark
+    @OperationsPerInvocation(100000)
+    public ConcurrentSkipListMap<Long, Integer> skipList() {
+        ConcurrentSkipListMap<Long, Integer> index = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            index.put(ids[i], i);
+        }
+        return index;
+    }
+
+    //有序数组, 相当于B+树叶子页内的插入, 随机key每次都要搬移后半段
+    @Benchmark
+    @OperationsPerInvocation(100000)
+    public long[] sortedArray() {
+        long[] index = new long[ids.length];
+        int size = 0;
+        for (long id : ids) {
+            int position = Arrays.binarySearch(index, 0, size, id);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            System.arraycopy(index, position, index, position + 1, size - position);
+            index[position] = id;
+            size++;
+        }
+        return index;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OrderedIdInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.page.OrderedSource;
+import com.yxy.reactive.page.Page;
+import com.yxy.reactive.page.Paginator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 取第page页: skip/take vs 游标分页, 每页20条
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginationBenchmark {
+
+    private static final int SIZE = 20;
+    private static final int TOTAL = 1_000_000;
+
+    @Param({"1", "1000", "40000"})
+    int page;
+
+    private ConcurrentSkipListMap<Integer, Integer> map;
+    private Paginator<Integer, Integer> rangePaginator;
+    private Paginator<Integer, Integer> mapPaginator;
+    //第page页的游标
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        map = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < TOTAL; i++) {
+            map.put(i, i);
+        }
+        rangePaginator = Paginator.ofIntKeys(OrderedSource.range(0, TOTAL), null);
+        mapPaginator = Paginator.ofIntKeys(OrderedSource.of(map, Integer::intValue), null);
+        //第page页之前最后一个元素的key, 相当于客户端从上一页拿到的游标
+        cursor = page == 1 ? null : rangePaginator.page(null, (page - 1) * SIZE).block().getNext();
+    }
+
+    @Benchmark
+    public List<Integer> rangeSkipTake() {
+        return Flux.range(0, TOTAL).skip((long) (page - 1) * SIZE).take(SIZE).collectList().block();
+    }
+
+    @Benchmark
+    public Page<Integer> rangeCursor() {
+        return rangePaginator.page(cursor, SIZE).block();
+    }
+
+    @Benchmark
+    public List<Integer> mapSkipTake() {
+        return Flux.fromIterable(map.values()).skip((long) (page - 1) * SIZE).take(SIZE).collectList().block();
+    }
+
+    @Benchmark
+    public Page<Integer> mapCursor() {
+        return mapPaginator.page(cursor, SIZE).block();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PaginationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
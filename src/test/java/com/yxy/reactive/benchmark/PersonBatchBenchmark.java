@@ -0,0 +1,73 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.model.PersonBatch;
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 按sex计数/分组: List<Person> + Collectors vs 列式PersonBatch
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonBatchBenchmark {
+
+    @Param({"1000000"})
+    int size;
+
+    private List<Person> people;
+    private PersonBatch batch;
+
+    @Setup
+    public void setUp() {
+        people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"));
+        }
+        //打乱对象在堆上的顺序, 模拟真实数据
+        Collections.shuffle(people);
+        batch = PersonBatch.of(people);
+    }
+
+    @Benchmark
+    public Map<String, Long> listCountBySex() {
+        return people.stream().collect(Collectors.groupingBy(Person::getSex, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> batchCountBySex() {
+        return batch.countBySex();
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> listGroupBySex() {
+        return people.stream().collect(Collectors.groupingBy(Person::getSex));
+    }
+
+    @Benchmark
+    public Map<String, int[]> batchGroupRowsBySex() {
+        return batch.groupRowsBySex();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PersonBatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.codec.PersonBinaryCodec;
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Person编解码: PersonBinaryCodec vs ObjectOutputStream
+ * 每次调用编码/解码一批1000条记录, 结果按单条记录计; 编码后的大小在main里打印
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersonCodecBenchmark {
+
+    static final int BATCH = 1000;
+
+    private List<Person> people;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        people = people();
+        buffer = ByteBuffer.allocateDirect(BATCH * 32);
+        encoded = ByteBuffer.allocateDirect(BATCH * 32);
+        people.forEach(person -> PersonBinaryCodec.write(person, encoded));
+        encoded.flip();
+        serialized = serialize(people);
+    }
+
+    static List<Person> people() {
+        List<Person> people = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i % 2 == 0 ? "Male" : "Female"));
+        }
+        return people;
+    }
+
+    static byte[] serialize(List<Person> people) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BATCH * 64);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Person person : people) {
+                out.writeObject(person);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public ByteBuffer binaryEncode() {
+        buffer.clear();
+        for (Person person : people) {
+            PersonBinaryCodec.write(person, buffer);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int binaryDecode() {
+        int count = 0;
+        PersonBinaryCodec.Reader reader = PersonBinaryCodec.reader(encoded);
+        while (reader.hasNext()) {
+            count += reader.next().getName().length();
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public byte[] serializableEncode() throws IOException {
+        return serialize(people);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int serializableDecode() throws IOException, ClassNotFoundException {
+        int count = 0;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            for (int i = 0; i < BATCH; i++) {
+                count += ((Person) in.readObject()).getName().length();
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Person> people = people();
+        int binary = people.stream().mapToInt(PersonBinaryCodec::encodedSize).sum();
+        int serializable = serialize(people).length;
+        System.out.printf("%d persons: binary %d bytes (%.1f/person), ObjectOutputStream %d bytes (%.1f/person)%n",
+                BATCH, binary, binary / (double) BATCH, serializable, serializable / (double) BATCH);
+        //单条记录单独一个流时, 每次都要写一遍类描述
+        System.out.printf("single person: binary %d bytes, ObjectOutputStream %d bytes%n",
+                PersonBinaryCodec.encodedSize(people.get(0)), serialize(people.subList(0, 1)).length);
+
+        Options options = new OptionsBuilder()
+                .include(PersonCodecBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
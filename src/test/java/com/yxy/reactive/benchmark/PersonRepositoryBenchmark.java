@@ -0,0 +1,87 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.model.Person;
+import com.yxy.reactive.repository.PersonRepository;
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 查询: 每次Stream + groupingByConcurrent/toConcurrentMap(StreamTest的写法) vs 增量维护索引的PersonRepository
+ * 数据里Male/Female各占一半, 另有1000条Other, 用来体现查询耗时只和结果大小有关
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersonRepositoryBenchmark {
+
+    @Param({"10000000"})
+    int size;
+
+    private List<Person> people;
+    private PersonRepository repository;
+
+    @Setup
+    public void setUp() {
+        people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            people.add(new Person(UUIDUtil.shortUUID(), i < 1000 ? "Other" : i % 2 == 0 ? "Male" : "Female"));
+        }
+        repository = new PersonRepository();
+        people.forEach(repository::put);
+    }
+
+    private String randomName() {
+        return people.get(ThreadLocalRandom.current().nextInt(size)).getName();
+    }
+
+    @Benchmark
+    public Person streamFindByName() {
+        return people.parallelStream().collect(Collectors.toConcurrentMap(Person::getName, Function.identity())).get(randomName());
+    }
+
+    @Benchmark
+    public Person repositoryFindByName() {
+        return repository.findByName(randomName()).block();
+    }
+
+    @Benchmark
+    public List<Person> streamFindBySex() {
+        return people.parallelStream().collect(Collectors.groupingByConcurrent(Person::getSex)).get("Other");
+    }
+
+    @Benchmark
+    public List<Person> repositoryFindBySex() {
+        return repository.findBySex("Other").collectList().block();
+    }
+
+    @Benchmark
+    public Long streamCountBySex() {
+        return people.parallelStream().collect(Collectors.groupingByConcurrent(Person::getSex, Collectors.counting())).get("Male");
+    }
+
+    @Benchmark
+    public Long repositoryCountBySex() {
+        return repository.countBySex("Male").block();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PersonRepositoryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
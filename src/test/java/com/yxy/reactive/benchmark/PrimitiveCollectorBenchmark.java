@@ -0,0 +1,121 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.collect.IntCountMap;
+import com.yxy.reactive.collect.IntList;
+import com.yxy.reactive.collect.PrimitiveCollectors;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 每个元素分配多少字节: 装箱的收集方式 vs {@link PrimitiveCollectors}
+ * <p>
+ * 每次调用处理100万个元素, {@link OperationsPerInvocation}让分数和gc.alloc.rate.norm都按单个元素计算, 需要加上GC profiler:
+ * {@code -prof gc}, main里已经加了. 输入是StreamTest里那段文本相邻两个字符的hashCode, 不同的值有一百多个
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@OperationsPerInvocation(PrimitiveCollectorBenchmark.COUNT)
+@State(Scope.Benchmark)
+public class PrimitiveCollectorBenchmark {
+
+    static final int COUNT = 1_000_000;
+
+    private String[] strings;
+    private int[] values;
+
+    @Setup
+    public void setUp() {
+        String str = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent";
+        String text = str.replaceAll(" ", "").toLowerCase();
+        //相邻两个字符, hashCode在3000以上, 不会命中Integer的缓存
+        String[] bigrams = new String[text.length() - 1];
+        for (int i = 0; i < bigrams.length; i++) {
+            bigrams[i] = text.substring(i, i + 2);
+        }
+        strings = new String[COUNT];
+        values = new int[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            strings[i] = bigrams[i % bigrams.length];
+            values[i] = strings[i].hashCode();
+        }
+    }
+
+    //StreamTest.test_03_1
+    @Benchmark
+    public ArrayList<String> hashCodesToStringList() {
+        return Arrays.stream(strings).map(String::hashCode)
+                .collect(ArrayList::new, (list, e) -> list.add(String.valueOf(e)), ArrayList::addAll);
+    }
+
+    @Benchmark
+    public List<Integer> hashCodesToBoxedList() {
+        return Arrays.stream(strings).map(String::hashCode).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntList hashCodesToIntList() {
+        return Arrays.stream(strings).collect(PrimitiveCollectors.toIntList(String::hashCode));
+    }
+
+    @Benchmark
+    public List<Integer> boxedToList() {
+        return IntStream.of(values).boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntList intList() {
+        return PrimitiveCollectors.toIntList(IntStream.of(values));
+    }
+
+    @Benchmark
+    public List<Integer> parallelBoxedToList() {
+        return IntStream.of(values).parallel().boxed().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntList parallelIntList() {
+        return PrimitiveCollectors.toIntList(IntStream.of(values).parallel());
+    }
+
+    //StreamTest.test_03_3
+    @Benchmark
+    public Map<Integer, Long> boxedGroupingCount() {
+        return IntStream.of(values).boxed().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public IntCountMap intCountMap() {
+        return PrimitiveCollectors.countInts(IntStream.of(values));
+    }
+
+    @Benchmark
+    public List<Integer> boxedDistinct() {
+        return IntStream.of(values).boxed().distinct().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntList intDistinct() {
+        return PrimitiveCollectors.distinctInts(IntStream.of(values));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PrimitiveCollectorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
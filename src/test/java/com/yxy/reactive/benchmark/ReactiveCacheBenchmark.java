@@ -0,0 +1,131 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.cache.ReactiveCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zipf分布(s=0.99, 100万个key)的查询: 不缓存 vs 容量相同的LRU vs ReactiveCache(W-TinyLFU)
+ * loader用consumeCPU模拟一次耗时几微秒的查询. SampleTime模式看p0.99, loader调用次数在每轮结束时打印
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReactiveCacheBenchmark {
+
+    private static final int KEYS = 1_000_000;
+    private static final int SAMPLES = 1 << 20;
+
+    @Param({"none", "lru", "tinyLfu"})
+    String mode;
+
+    @Param({"10000"})
+    int maximumSize;
+
+    private int[] samples;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+
+    private ReactiveCache<Integer, Integer> cache;
+    private Map<Integer, Integer> lru;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] cdf = new double[KEYS];
+        double sum = 0;
+        for (int i = 0; i < KEYS; i++) {
+            sum += 1 / Math.pow(i + 1, 0.99);
+            cdf[i] = sum;
+        }
+        Random random = new Random(42);
+        samples = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            //key打散, 避免热点都是小整数
+            samples[i] = (index < 0 ? -index - 1 : index) * 0x9E3779B1;
+        }
+    }
+
+    //缓存在整个trial里复用, 预热轮次用来填充缓存
+    @Setup(Level.Trial)
+    public void setUpCache() {
+        cache = ReactiveCache.builder().maximumSize(maximumSize).build();
+        lru = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        loads.reset();
+        requests.reset();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() {
+        System.out.printf("%n%s: requests %d, loader calls %d (%.1f%%)%n", mode, requests.sum(), loads.sum(),
+                100.0 * loads.sum() / Math.max(requests.sum(), 1));
+    }
+
+    private Mono<Integer> load(Integer key) {
+        return Mono.fromSupplier(() -> {
+            loads.increment();
+            Blackhole.consumeCPU(2_000);
+            return key;
+        });
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer get() {
+        requests.increment();
+        Integer key = samples[next.getAndIncrement() & (SAMPLES - 1)];
+        switch (mode) {
+            case "lru": {
+                Integer value;
+                synchronized (lru) {
+                    value = lru.get(key);
+                }
+                if (value == null) {
+                    value = load(key).block();
+                    synchronized (lru) {
+                        lru.put(key, value);
+                    }
+                }
+                //与ReactiveCache一样经过一次Mono
+                return Mono.just(value).block();
+            }
+            case "tinyLfu":
+                return cache.get(key, this::load).block();
+            default:
+                return load(key).block();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ReactiveCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
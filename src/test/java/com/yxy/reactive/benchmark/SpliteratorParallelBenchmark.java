@@ -0,0 +1,103 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.operator.SpliteratorParallelFlux;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 1亿个元素求和: {@code Flux.fromIterable(...).parallel().runOn(...)} vs {@link SpliteratorParallelFlux} vs 并行流
+ * <p>
+ * 数据源分别是ArrayList, 数组和IntStream.range. 元素取Integer缓存范围内的值, 两个容器各占约400MB,
+ * IntStream.range每个元素要装箱一次, 三种写法都一样
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class SpliteratorParallelBenchmark {
+
+    private static final int COUNT = 100_000_000;
+
+    private Integer[] array;
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        array = new Integer[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            array[i] = i & 127;
+        }
+        list = new ArrayList<>(Arrays.asList(array));
+    }
+
+    @Benchmark
+    public Long listRunOn() {
+        return Flux.fromIterable(list).parallel().runOn(Schedulers.parallel())
+                .map(Integer::longValue).reduce(Long::sum).block();
+    }
+
+    @Benchmark
+    public Long listSpliterator() {
+        return SpliteratorParallelFlux.fromIterable(list)
+                .map(Integer::longValue).reduce(Long::sum).block();
+    }
+
+    @Benchmark
+    public long listParallelStream() {
+        return list.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public Long arrayRunOn() {
+        return Flux.fromArray(array).parallel().runOn(Schedulers.parallel())
+                .map(Integer::longValue).reduce(Long::sum).block();
+    }
+
+    @Benchmark
+    public Long arraySpliterator() {
+        return SpliteratorParallelFlux.fromArray(array)
+                .map(Integer::longValue).reduce(Long::sum).block();
+    }
+
+    @Benchmark
+    public long arrayParallelStream() {
+        return Arrays.stream(array).parallel().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public Long rangeRunOn() {
+        return Flux.range(0, COUNT).parallel().runOn(Schedulers.parallel())
+                .map(Integer::longValue).reduce(Long::sum).block();
+    }
+
+    @Benchmark
+    public Long rangeSpliterator() {
+        return SpliteratorParallelFlux.range(0, COUNT)
+                .map(Integer::longValue).reduce(Long::sum).block();
+    }
+
+    @Benchmark
+    public long rangeParallelStream() {
+        return IntStream.range(0, COUNT).parallel().boxed().mapToLong(Integer::longValue).sum();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(SpliteratorParallelBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.collect.CharCounter;
+import com.yxy.reactive.collect.TokenCounter;
+import com.yxy.reactive.text.Tokenizer;
+import com.yxy.reactive.text.Utf8Text;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 1MB文本的字符/单词计数: 先replaceAll/toLowerCase/split再分组 vs {@link Tokenizer}直接遍历
+ * <p>
+ * utf8的两个方法读的是堆外ByteBuffer里的UTF-8字节, 与映射文件的读取方式相同. 看每次调用分配的字节数需要{@code -prof gc}
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+    private static final String STR = "This implementation assumes that the ConcurrentMap cannot contain null values and returning null unambiguously means the key is absent ";
+
+    private final Tokenizer tokenizer = Tokenizer.builder().lowerCase(true).build();
+    private String text;
+    private Utf8Text utf8;
+
+    @Setup
+    public void setUp() {
+        text = STR.repeat((1 << 20) / STR.length());
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        utf8 = Utf8Text.of(buffer);
+    }
+
+    //MapTest/StreamTest的写法
+    @Benchmark
+    public Map<String, Long> charsBySplit() {
+        return Arrays.stream(text.replaceAll(" ", "").toLowerCase().split(""))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public CharCounter charsByTokenizer() {
+        CharCounter counter = new CharCounter();
+        tokenizer.codePoints(text).forEachRemaining((int c) -> counter.add((char) c));
+        return counter;
+    }
+
+    @Benchmark
+    public CharCounter charsByTokenizerUtf8() {
+        CharCounter counter = new CharCounter();
+        tokenizer.codePoints(utf8).forEachRemaining((int c) -> counter.add((char) c));
+        return counter;
+    }
+
+    @Benchmark
+    public Map<String, Long> wordsBySplit() {
+        return Arrays.stream(text.toLowerCase().split(" "))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public TokenCounter wordsByTokenizer() {
+        TokenCounter counter = new TokenCounter();
+        tokenizer.tokens(text).forEachRemaining(counter::add);
+        return counter;
+    }
+
+    @Benchmark
+    public TokenCounter wordsByTokenChunksUtf8() {
+        TokenCounter counter = new TokenCounter();
+        tokenizer.tokenChunks(utf8, Tokenizer.DEFAULT_CHUNK_SIZE).doOnNext(batch -> batch.forEach(counter::add)).blockLast();
+        return counter;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TokenizerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,83 @@
+package com.yxy.reactive.benchmark;
+
+import com.yxy.reactive.utils.UUIDUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短ID生成: 旧的UUID实现 vs ThreadLocalRandom实现, 分别在1/8/32线程下运行
+ * 直接运行main, 依次跑1/8/32线程
+ * Created by Nuclear on 2026/10/17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UUIDUtilBenchmark {
+
+    private final char[] buffer = new char[UUIDUtil.SHORT_UUID_LENGTH];
+
+    private final char[] packed = new char[1024 * UUIDUtil.SHORT_UUID_LENGTH];
+
+    private final String[] strings = new String[1024];
+
+    //改造前的实现, 原样保留用于对比
+    static String legacyShortUUID() {
+        StringBuilder buffer = new StringBuilder();
+        String uuid = UUID.randomUUID().toString().replace("-", "");
+        for (int i = 0; i < 8; i++) {
+            String str = uuid.substring(i * 4, i * 4 + 4);
+            int x = Integer.parseInt(str, 16);
+            buffer.append(UUIDUtil.chars[x % 0x3E]);
+        }
+        return buffer.toString();
+    }
+
+    @Benchmark
+    public String legacy() {
+        return legacyShortUUID();
+    }
+
+    @Benchmark
+    public String shortUUID() {
+        return UUIDUtil.shortUUID();
+    }
+
+    @Benchmark
+    public char[] shortUUIDIntoBuffer() {
+        UUIDUtil.shortUUID(buffer, 0);
+        return buffer;
+    }
+
+    //批量生成, 按单个ID计
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public char[] shortUUIDsPacked() {
+        UUIDUtil.shortUUIDs(packed, 0, 1024);
+        return packed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public String[] shortUUIDsStrings() {
+        return UUIDUtil.shortUUIDs(strings);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            Options options = new OptionsBuilder()
+                    .include(UUIDUtilBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}